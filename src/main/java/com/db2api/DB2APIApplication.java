@@ -2,6 +2,7 @@ package com.db2api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import com.vaadin.flow.spring.SpringSecurityAutoConfiguration;
 import com.vaadin.flow.component.page.AppShellConfigurator;
 import com.vaadin.flow.theme.Theme;
@@ -13,6 +14,7 @@ import com.vaadin.flow.theme.Theme;
  */
 @SpringBootApplication(exclude = SpringSecurityAutoConfiguration.class)
 @Theme(value = "db2api")
+@EnableScheduling
 public class DB2APIApplication implements AppShellConfigurator {
 
 	/**
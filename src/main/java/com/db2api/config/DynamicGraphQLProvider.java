@@ -1,280 +1,830 @@
 package com.db2api.config;
 
-import com.db2api.persistent.api.ApiDefinition;
-import com.db2api.service.api.ApiDefinitionService;
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ApiRouteTable;
+import com.db2api.service.api.CatalogChangedEvent;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.CompiledStatement;
+import com.db2api.service.api.DynamicQueryExecutor;
+import com.db2api.service.api.PageToken;
+import com.db2api.service.api.PageTokenCodec;
+import com.db2api.service.api.QueryCompiler;
+import com.db2api.service.api.ResultCache;
 import com.db2api.service.api.SchemaDiscoveryService;
-import com.db2api.service.connection.ExternalConnectivityService;
+import com.db2api.service.api.SortOrder;
+import com.db2api.service.api.SqlPredicate;
+import com.db2api.service.api.TableSchema;
+import com.db2api.service.connection.ConnectionOverloadedException;
+import com.db2api.config.GraphQLRelations.Relation;
+import com.db2api.config.GraphQLTypes.Fragment;
+import com.db2api.config.GraphQLTypes.FragmentKey;
 import graphql.GraphQL;
+import graphql.GraphQLContext;
+import graphql.Scalars;
 import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
-import graphql.schema.idl.RuntimeWiring;
-import graphql.schema.idl.SchemaGenerator;
-import graphql.schema.idl.SchemaParser;
-import graphql.schema.idl.TypeDefinitionRegistry;
-import org.apache.cayenne.DataRow;
-import org.apache.cayenne.ObjectContext;
-import org.apache.cayenne.query.SQLSelect;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeReference;
+import graphql.schema.SelectedField;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.graphql.execution.DataLoaderRegistrar;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Component that provides a dynamic GraphQL schema based on configured API
  * definitions.
  * It rebuilds the schema and data fetchers at runtime to expose database tables
- * as GraphQL fields. Call {@link #refreshSchema()} after API definition changes
- * to update the live schema.
+ * as GraphQL fields. Call {@link #refreshSchema(Long)} after API definition
+ * changes to update the live schema: the refresh runs on a background thread,
+ * regenerates only the types of changed definitions (see {@link GraphQLTypes})
+ * and swaps the new schema in atomically, while queries in flight finish on the
+ * schema they started with.
+ * <p>
+ * Each readable table gets a list field {@code table(limit, offset, after)} and
+ * a Relay-style {@code tableConnection(first, after)} field. Both read only the
+ * columns selected by the query and only the requested page; cursors are
+ * {@link PageToken}s, keyed by the primary key where the table has one. Both
+ * also take the {@code where} and {@code orderBy} arguments generated by
+ * {@link GraphQLFilters}, which the database evaluates.
+ * <p>
+ * Foreign keys between readable tables become relationship fields (see
+ * {@link GraphQLRelations}), resolved through per-request DataLoaders that
+ * fetch all related rows of one query level with a single statement.
+ * <p>
+ * Reads run on virtual threads (see {@link GraphQLFetchExecutor}), so the
+ * query fields of one operation read their tables in parallel, up to a
+ * per-connection limit.
+ * <p>
+ * Operations are scored before execution by {@link GraphQLCostLimiter} and
+ * rejected when they would read more rows than the caller's budget allows.
  */
 @Component
-public class DynamicGraphQLProvider {
+public class DynamicGraphQLProvider implements DataLoaderRegistrar {
 
     private static final Logger logger = LoggerFactory.getLogger(DynamicGraphQLProvider.class);
 
-    private final ApiDefinitionService apiDefinitionService;
+    private final ApiRouteTable apiRouteTable;
     private final SchemaDiscoveryService schemaDiscoveryService;
-    private final ExternalConnectivityService externalConnectivityService;
+    private final QueryCompiler queryCompiler;
+    private final DynamicQueryExecutor queryExecutor;
+    private final ResultCache resultCache;
+    private final PageTokenCodec pageTokenCodec;
+    private final GraphQLDocumentCache documentCache;
+    private final GraphQLCostLimiter costLimiter;
+    private final GraphQLFetchExecutor fetchExecutor;
 
-    private volatile GraphQL graphQL;
+    /** The live schema, replaced as a whole on every refresh. */
+    private volatile SchemaState state = new SchemaState(null, 0, Map.of(), Map.of());
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "graphql-schema-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> pendingChanges = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean fullRefreshPending = new AtomicBoolean();
+
+    /** Connections whose startup discovery is running, and connections whose discovery failed, with their names. */
+    private final Map<Long, String> pendingConnections = new ConcurrentHashMap<>();
+    private final Map<Long, String> failedConnections = new ConcurrentHashMap<>();
+    private volatile boolean started;
+
+    @Value("${app.graphql.discovery.parallelism:4}")
+    private int discoveryParallelism;
+
+    @Value("${app.graphql.discovery.timeout-ms:10000}")
+    private long discoveryTimeoutMs;
+
+    @Value("${app.graphql.dataloader.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${app.dynamic.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.dynamic.page.max-size:1000}")
+    private int maxPageSize;
 
     /**
      * Constructs the DynamicGraphQLProvider with required services.
      *
-     * @param apiDefinitionService        the service for API definitions
+     * @param apiRouteTable               the in-memory table of API routes
      * @param schemaDiscoveryService      the service for discovering database schemas
-     * @param externalConnectivityService the service for external database connectivity
+     * @param queryCompiler               the compiler for generated statements
+     * @param queryExecutor               the executor for generated statements
+     * @param resultCache                 the read result cache invalidated by mutations
+     * @param pageTokenCodec              the codec of cursors
+     * @param documentCache               the cache of parsed documents and persisted queries
+     * @param costLimiter                 the limiter rejecting too expensive operations
+     * @param maxConcurrencyPerConnection the maximum number of concurrent reads per connection
      */
-    public DynamicGraphQLProvider(ApiDefinitionService apiDefinitionService,
+    public DynamicGraphQLProvider(ApiRouteTable apiRouteTable,
             SchemaDiscoveryService schemaDiscoveryService,
-            ExternalConnectivityService externalConnectivityService) {
-        this.apiDefinitionService = apiDefinitionService;
+            QueryCompiler queryCompiler,
+            DynamicQueryExecutor queryExecutor,
+            ResultCache resultCache,
+            PageTokenCodec pageTokenCodec,
+            GraphQLDocumentCache documentCache,
+            GraphQLCostLimiter costLimiter,
+            @Value("${app.graphql.fetch.max-concurrency-per-connection:5}") int maxConcurrencyPerConnection) {
+        this.apiRouteTable = apiRouteTable;
         this.schemaDiscoveryService = schemaDiscoveryService;
-        this.externalConnectivityService = externalConnectivityService;
+        this.queryCompiler = queryCompiler;
+        this.queryExecutor = queryExecutor;
+        this.resultCache = resultCache;
+        this.pageTokenCodec = pageTokenCodec;
+        this.documentCache = documentCache;
+        this.costLimiter = costLimiter;
+        this.fetchExecutor = new GraphQLFetchExecutor(maxConcurrencyPerConnection);
     }
 
     /**
-     * Initializes the GraphQL schema after the component is constructed.
+     * Builds the initial GraphQL schema after the component is constructed.
+     * Connections with a persisted catalog are served from it right away and
+     * revalidated in the background. The catalogs of all other connections
+     * are discovered in parallel, and startup
+     * waits for them at most the discovery timeout: the schema is built from
+     * the connections discovered by then, and the tables of slower ones are
+     * added by a refresh once their discovery completes.
      */
     @PostConstruct
     public void init() {
-        refreshSchema();
+        Map<Long, DbConnection> connections = new LinkedHashMap<>();
+        for (ApiRoute api : apiRouteTable.getRoutes("GraphQL")) {
+            connections.putIfAbsent(api.connection().getId(), api.connection());
+        }
+        connections.values().removeIf(schemaDiscoveryService::loadPersisted);
+        List<CompletableFuture<?>> discoveries = new ArrayList<>();
+        if (!connections.isEmpty()) {
+            ExecutorService discoveryExecutor = Executors.newFixedThreadPool(
+                    Math.max(1, Math.min(discoveryParallelism, connections.size())), runnable -> {
+                        Thread thread = new Thread(runnable, "graphql-schema-discovery");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            for (DbConnection connection : connections.values()) {
+                pendingConnections.put(connection.getId(), connection.getName());
+                discoveries.add(CompletableFuture
+                        .supplyAsync(() -> schemaDiscoveryService.getCatalog(connection), discoveryExecutor)
+                        .whenComplete((catalog, error) -> discovered(connection, catalog != null)));
+            }
+            // Threads end once their discovery returns; late ones are not interrupted
+            discoveryExecutor.shutdown();
+            try {
+                CompletableFuture.allOf(discoveries.toArray(CompletableFuture[]::new))
+                        .get(discoveryTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                logger.warn("Schema discovery of connections {} did not finish within {} ms, "
+                        + "serving their GraphQL APIs once it does", pendingConnections.values(), discoveryTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Failures are recorded per connection
+            }
+        }
+        started = true;
+        // Not a full rebuild: connections whose discovery failed are not retried on the startup thread
+        rebuild(Set.of(), false);
     }
 
     /**
-     * Provides the GraphQL instance as a Spring Bean.
-     * Returns the current volatile reference so refreshes are visible immediately.
+     * Records the outcome of a connection's startup discovery and, once the
+     * initial schema is built, adds the connection's tables to it.
+     */
+    private void discovered(DbConnection connection, boolean success) {
+        if (success) {
+            failedConnections.remove(connection.getId());
+        } else {
+            failedConnections.put(connection.getId(), connection.getName());
+        }
+        pendingConnections.remove(connection.getId());
+        if (started && success) {
+            refreshConnection(connection.getId());
+        }
+    }
+
+    /**
+     * Regenerates the types of a connection's APIs when its catalog changed,
+     * for example after the background revalidation of a persisted catalog.
      *
-     * @return the current GraphQL instance
+     * @param event the event naming the connection
      */
-    @Bean
-    public GraphQL graphQL() {
-        return graphQL;
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!started) {
+            // The initial schema is built from the current catalogs anyway
+            return;
+        }
+        failedConnections.remove(event.connectionId());
+        refreshConnection(event.connectionId());
+    }
+
+    /**
+     * Schedules a refresh of the APIs of one connection.
+     */
+    private void refreshConnection(Long connectionId) {
+        apiRouteTable.getRoutes("GraphQL").stream()
+                .filter(api -> Objects.equals(api.connection().getId(), connectionId))
+                .forEach(api -> pendingChanges.add(api.id()));
+        CompletableFuture.runAsync(this::applyPendingChanges, refreshExecutor);
     }
 
     /**
-     * Regenerates the GraphQL schema based on current API definitions.
-     * Should be called after any API definition is created, updated, or deleted.
+     * @return the names of connections whose startup discovery is still running, by connection ID
      */
-    public synchronized void refreshSchema() {
-        StringBuilder sdl = new StringBuilder();
-        sdl.append("type Query {\n");
+    public Map<Long, String> getPendingConnections() {
+        return Map.copyOf(pendingConnections);
+    }
 
-        List<ApiDefinition> apis = apiDefinitionService.getAllApiDefinitions();
-        Map<String, DataFetcher<?>> queryFetchers = new HashMap<>();
-        Map<String, DataFetcher<?>> mutationFetchers = new HashMap<>();
-        StringBuilder mutationSdl = new StringBuilder("type Mutation {\n");
+    /**
+     * @return the names of connections whose discovery failed, by connection ID
+     */
+    public Map<Long, String> getFailedConnections() {
+        return Map.copyOf(failedConnections);
+    }
 
-        for (ApiDefinition api : apis) {
-            if ("GraphQL".equalsIgnoreCase(api.getApiType())) {
-                String tableName = api.getTableName();
-                String typeName = capitalize(tableName);
-                String allowedOps = api.getAllowedOperations() != null ? api.getAllowedOperations() : "";
+    /**
+     * Stops the refresh thread and the reads in flight.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        fetchExecutor.close();
+    }
 
-                // Query field (GET)
-                if (allowedOps.contains("GET")) {
-                    sdl.append("  ").append(tableName).append(": [").append(typeName).append("]\n");
-                    queryFetchers.put(tableName, env -> fetchData(api));
-                }
+    /**
+     * Returns the current GraphQL instance. Queries started before a refresh
+     * keep executing against the instance they obtained.
+     *
+     * @return the current GraphQL instance
+     */
+    public GraphQL graphQL() {
+        return state.graphQL();
+    }
 
-                // Mutation: insert (POST)
-                if (allowedOps.contains("POST")) {
-                    String inputTypeName = typeName + "Input";
-                    mutationSdl.append("  insert").append(typeName).append("(data: ").append(inputTypeName).append("!): String\n");
-                    mutationFetchers.put("insert" + typeName, env -> insertData(api, env.getArgument("data")));
-                }
+    /**
+     * Schedules a regeneration of the whole GraphQL schema, rediscovering
+     * every table.
+     *
+     * @return a future completed once the new schema is live
+     */
+    public CompletableFuture<Void> refreshSchema() {
+        fullRefreshPending.set(true);
+        return CompletableFuture.runAsync(this::applyPendingChanges, refreshExecutor);
+    }
 
-                // Mutation: update (PUT)
-                if (allowedOps.contains("PUT")) {
-                    String inputTypeName = typeName + "Input";
-                    mutationSdl.append("  update").append(typeName).append("(data: ").append(inputTypeName).append("!, conditions: ").append(inputTypeName).append("!): String\n");
-                    mutationFetchers.put("update" + typeName,
-                            env -> updateData(api, env.getArgument("data"), env.getArgument("conditions")));
-                }
+    /**
+     * Schedules a refresh of the GraphQL schema after an API definition was
+     * created, updated, or deleted. Only the types of that definition, and of
+     * definitions whose routes changed, are regenerated.
+     *
+     * @param apiDefinitionId the ID of the changed API definition
+     * @return a future completed once the new schema is live
+     */
+    public CompletableFuture<Void> refreshSchema(Long apiDefinitionId) {
+        if (apiDefinitionId != null) {
+            pendingChanges.add(apiDefinitionId);
+        }
+        return CompletableFuture.runAsync(this::applyPendingChanges, refreshExecutor);
+    }
+
+    /**
+     * Applies all changes scheduled so far. Changes arriving while a refresh
+     * runs are picked up by the refresh scheduled with them, so bursts of
+     * saves coalesce into few rebuilds.
+     */
+    private void applyPendingChanges() {
+        boolean full = fullRefreshPending.getAndSet(false);
+        Set<Long> changed = new HashSet<>();
+        pendingChanges.removeIf(changed::add);
+        if (!full && changed.isEmpty()) {
+            return;
+        }
+        try {
+            rebuild(changed, full);
+        } catch (RuntimeException e) {
+            logger.error("GraphQL schema refresh failed, keeping the current schema", e);
+        }
+    }
 
-                // Mutation: delete (DELETE)
-                if (allowedOps.contains("DELETE")) {
-                    String inputTypeName = typeName + "Input";
-                    mutationSdl.append("  delete").append(typeName).append("(conditions: ").append(inputTypeName).append("!): String\n");
-                    mutationFetchers.put("delete" + typeName,
-                            env -> deleteData(api, env.getArgument("conditions")));
+    /**
+     * Regenerates the fragments of changed API definitions, assembles the
+     * schema from all fragments and swaps it in with a single write.
+     *
+     * @param changed the IDs of API definitions to regenerate
+     * @param full    whether to regenerate every fragment
+     */
+    private synchronized void rebuild(Set<Long> changed, boolean full) {
+        Map<Long, Fragment> previous = state.fragments();
+        Map<Long, Fragment> fragments = new HashMap<>();
+        List<ApiRoute> apis = new ArrayList<>();
+        Set<String> typeNames = new HashSet<>();
+        int regenerated = 0;
+        for (ApiRoute api : apiRouteTable.getRoutes("GraphQL")) {
+            // Tables of connections still being discovered, or whose discovery failed, are added later
+            Long connectionId = api.connection().getId();
+            if (pendingConnections.containsKey(connectionId) || (failedConnections.containsKey(connectionId)
+                    && !full && !changed.contains(api.id()))) {
+                continue;
+            }
+            String typeName = capitalize(api.tableName());
+            if (!typeNames.add(typeName)) {
+                logger.warn("Duplicate GraphQL type {} for API definition {}, skipping it", typeName, api.name());
+                continue;
+            }
+            Fragment fragment = previous.get(api.id());
+            if (full || fragment == null || changed.contains(api.id())
+                    || !fragment.key().equals(FragmentKey.of(api))) {
+                try {
+                    TableSchema schema = schemaDiscoveryService.getTableSchema(api.connection(), api.tableName());
+                    if (schema.columnTypes().isEmpty()) {
+                        // Unknown table or failed discovery; an object type needs at least one field
+                        logger.warn("No columns discovered for table {}, leaving it out of the GraphQL schema",
+                                api.tableName());
+                        continue;
+                    }
+                    fragment = GraphQLTypes.fragment(api, typeName, schema, queryCompiler.exposedColumns(api));
+                    regenerated++;
+                } catch (RuntimeException e) {
+                    logger.error("Cannot generate GraphQL types for table {}, leaving it out of the schema",
+                            api.tableName(), e);
+                    continue;
                 }
             }
+            fragments.put(api.id(), fragment);
+            apis.add(api);
         }
-        sdl.append("}\n\n");
-        mutationSdl.append("}\n\n");
-
-        // Generate Types and Input Types
-        for (ApiDefinition api : apis) {
-            if ("GraphQL".equalsIgnoreCase(api.getApiType())) {
-                String tableName = api.getTableName();
-                String typeName = capitalize(tableName);
-                Map<String, Integer> columnTypes = schemaDiscoveryService.getColumnTypes(api.getConnection(), tableName);
-
-                // Output type
-                sdl.append("type ").append(typeName).append(" {\n");
-                for (Map.Entry<String, Integer> entry : columnTypes.entrySet()) {
-                    String gqlType = SchemaDiscoveryService.mapSqlTypeToGraphQL(entry.getValue());
-                    sdl.append("  ").append(entry.getKey()).append(": ").append(gqlType).append("\n");
-                }
-                sdl.append("}\n");
 
-                // Input type for mutations
-                sdl.append("input ").append(typeName).append("Input {\n");
-                for (Map.Entry<String, Integer> entry : columnTypes.entrySet()) {
-                    String gqlType = SchemaDiscoveryService.mapSqlTypeToGraphQL(entry.getValue());
-                    sdl.append("  ").append(entry.getKey()).append(": ").append(gqlType).append("\n");
-                }
-                sdl.append("}\n");
+        Map<String, Map<String, Relation>> relations = discoverRelations(apis, fragments);
+        Map<String, ApiRoute> readableByType = new HashMap<>();
+        for (ApiRoute api : apis) {
+            if (api.allows("GET")) {
+                readableByType.put(fragments.get(api.id()).typeName(), api);
             }
         }
+        long version = state.version() + 1;
+        GraphQL graphQL = GraphQL.newGraphQL(assemble(apis, fragments, relations))
+                .preparsedDocumentProvider(documentCache.forSchema(version))
+                .instrumentation(costLimiter.forSchema(readableByType, relations))
+                .build();
+        this.state = new SchemaState(graphQL, version, Map.copyOf(fragments), relations);
+        // Documents validated against the previous schema are never looked up again
+        documentCache.invalidateDocuments();
+        logger.info("GraphQL schema refreshed with {} API definitions, {} regenerated", apis.size(), regenerated);
+    }
 
-        if (queryFetchers.isEmpty() && mutationFetchers.isEmpty()) {
-            sdl = new StringBuilder("type Query { hello: String }");
-            queryFetchers.put("hello", env -> "World");
-        } else {
-            sdl.append(mutationSdl);
+    /**
+     * Derives the relationship fields between readable tables from the cached
+     * fragments, without discovering the tables again.
+     */
+    private static Map<String, Map<String, Relation>> discoverRelations(List<ApiRoute> apis,
+            Map<Long, Fragment> fragments) {
+        List<ApiRoute> readable = apis.stream().filter(api -> api.allows("GET")).toList();
+        Map<String, Map<String, Relation>> relations = new HashMap<>();
+        for (Relation relation : GraphQLRelations.discover(readable, api -> fragments.get(api.id()).typeName(),
+                api -> fragments.get(api.id()).schema(), api -> fragments.get(api.id()).exposed())) {
+            relations.computeIfAbsent(relation.sourceType(), type -> new LinkedHashMap<>())
+                    .put(relation.fieldName(), relation);
         }
+        return relations;
+    }
 
-        TypeDefinitionRegistry typeRegistry = new SchemaParser().parse(sdl.toString());
-        RuntimeWiring.Builder wiringBuilder = RuntimeWiring.newRuntimeWiring();
-        if (!queryFetchers.isEmpty()) {
-            wiringBuilder.type("Query", builder -> {
-                queryFetchers.forEach(builder::dataFetcher);
-                return builder;
-            });
+    /**
+     * Assembles the schema from the fragments, adding the per-assembly row,
+     * edge and connection types and binding the data fetchers to the current
+     * routes.
+     */
+    private GraphQLSchema assemble(List<ApiRoute> apis, Map<Long, Fragment> fragments,
+            Map<String, Map<String, Relation>> relations) {
+        GraphQLObjectType.Builder query = GraphQLObjectType.newObject().name("Query");
+        GraphQLObjectType.Builder mutation = GraphQLObjectType.newObject().name("Mutation");
+        GraphQLCodeRegistry.Builder codeRegistry = GraphQLCodeRegistry.newCodeRegistry();
+        Set<GraphQLType> types = new LinkedHashSet<>();
+        boolean paged = false;
+        boolean mutable = false;
+
+        for (ApiRoute api : apis) {
+            Fragment fragment = fragments.get(api.id());
+            String typeName = fragment.typeName();
+
+            // Row type with its relationship fields
+            GraphQLObjectType.Builder row = GraphQLObjectType.newObject().name(typeName)
+                    .fields(fragment.columnFields());
+            for (Relation relation : relations.getOrDefault(typeName, Map.of()).values()) {
+                GraphQLTypeReference target = GraphQLTypeReference.typeRef(capitalize(relation.target().tableName()));
+                row.field(GraphQLTypes.field(relation.fieldName(),
+                        relation.many() ? GraphQLList.list(target) : target));
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates(typeName, relation.fieldName()),
+                        relationFetcher(relation));
+            }
+            types.add(row.build());
+            types.addAll(fragment.types());
+
+            // Query fields (GET)
+            if (api.allows("GET")) {
+                types.addAll(GraphQLTypes.connectionTypes(typeName));
+                query.fields(GraphQLTypes.queryFields(api, fragment));
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates("Query", api.tableName()),
+                        (DataFetcher<?>) env -> fetchData(api, env));
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates("Query", api.tableName() + "Connection"),
+                        (DataFetcher<?>) env -> fetchConnection(api, env));
+                paged = true;
+            }
+
+            // Mutation fields (POST, PUT, DELETE)
+            mutation.fields(fragment.mutationFields());
+            mutable |= !fragment.mutationFields().isEmpty();
+            if (api.allows("POST")) {
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates("Mutation", "insert" + typeName),
+                        (DataFetcher<?>) env -> insertData(api, env.getArgument("data")));
+            }
+            if (api.allows("PUT")) {
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates("Mutation", "update" + typeName),
+                        (DataFetcher<?>) env -> updateData(api, env.getArgument("data"),
+                                env.getArgument("conditions")));
+            }
+            if (api.allows("DELETE")) {
+                codeRegistry.dataFetcher(FieldCoordinates.coordinates("Mutation", "delete" + typeName),
+                        (DataFetcher<?>) env -> deleteData(api, env.getArgument("conditions")));
+            }
         }
-        if (!mutationFetchers.isEmpty()) {
-            wiringBuilder.type("Mutation", builder -> {
-                mutationFetchers.forEach(builder::dataFetcher);
-                return builder;
-            });
+        if (paged) {
+            types.add(GraphQLTypes.PAGE_INFO);
+            types.addAll(GraphQLFilters.FILTER_INPUTS);
+        } else {
+            // A schema needs at least one query field
+            query.field(GraphQLTypes.field("hello", Scalars.GraphQLString));
+            codeRegistry.dataFetcher(FieldCoordinates.coordinates("Query", "hello"), (DataFetcher<?>) env -> "World");
         }
 
-        SchemaGenerator schemaGenerator = new SchemaGenerator();
-        GraphQLSchema graphQLSchema = schemaGenerator.makeExecutableSchema(typeRegistry, wiringBuilder.build());
-        this.graphQL = GraphQL.newGraphQL(graphQLSchema).build();
-        logger.info("GraphQL schema refreshed with {} API definitions", apis.size());
+        GraphQLSchema.Builder schema = GraphQLSchema.newSchema()
+                .query(query.build())
+                .additionalTypes(types)
+                .codeRegistry(codeRegistry.build());
+        if (mutable) {
+            schema.mutation(mutation.build());
+        }
+        return schema.build();
     }
 
     /**
-     * Fetches data from the external database for a specific API definition.
+     * A generated schema together with what it was generated from.
+     *
+     * @param graphQL   the executable schema
+     * @param version   the version of the schema, increasing with each refresh
+     * @param fragments the cached type fragments, by API definition ID
+     * @param relations the relationship fields, by type and field name
      */
-    @SuppressWarnings("unchecked")
-    private List<Map<String, Object>> fetchData(ApiDefinition api) {
-        try {
-            ObjectContext context = externalConnectivityService.getContext(api.getConnection());
-            String columns = (api.getIncludedColumns() != null && !api.getIncludedColumns().isEmpty())
-                    ? api.getIncludedColumns()
-                    : "*";
-            String sql = "SELECT " + columns + " FROM " + api.getTableName();
+    private record SchemaState(GraphQL graphQL, long version, Map<Long, Fragment> fragments,
+            Map<String, Map<String, Relation>> relations) {
+    }
 
-            List<DataRow> rows = SQLSelect.dataRowQuery(sql).select(context);
+    /**
+     * A planned page read of a query field.
+     *
+     * @param statement   the query
+     * @param ordering    the ORDER BY terms, ending with the primary key for keyset pages
+     * @param keyset      whether cursors carry key values instead of offsets
+     * @param startOffset the offset of the page
+     */
+    private record PagePlan(CompiledStatement statement, List<SortOrder> ordering, boolean keyset,
+            long startOffset) {
+    }
 
-            List<Map<String, Object>> results = new ArrayList<>();
-            for (DataRow row : rows) {
-                results.add(new HashMap<>(row));
-            }
-            return results;
+    /**
+     * Fetches the rows of a list query field. Without {@code limit} all rows
+     * are returned; otherwise the limit is capped by the API's maximum page
+     * size. Rows are read with the configured fetch size and mapped straight
+     * from the ResultSet, so the result is materialized only once.
+     */
+    private CompletableFuture<List<Map<String, Object>>> fetchData(ApiRoute api, DataFetchingEnvironment env) {
+        Integer limit = env.getArgument("limit");
+        Integer offset = env.getArgument("offset");
+        PagePlan plan = planPage(api, env, env.getSelectionSet().getImmediateFields(),
+                limit != null ? api.pageSize(limit, defaultPageSize, maxPageSize) : null, offset);
+        return fetchExecutor.submit(api.connection(), () -> readPage(api, plan));
+    }
+
+    /**
+     * Fetches one page of a connection query field, reading one extra row to
+     * learn whether another page exists.
+     */
+    private CompletableFuture<Map<String, Object>> fetchConnection(ApiRoute api, DataFetchingEnvironment env) {
+        Integer first = env.getArgument("first");
+        int pageSize = api.pageSize(first, defaultPageSize, maxPageSize);
+        DataFetchingFieldSelectionSet selection = env.getSelectionSet();
+        PagePlan plan = planPage(api, env, selection.getFields("edges/node/*"), pageSize + 1, null);
+        boolean edgeCursors = selection.contains("edges/cursor");
+        return fetchExecutor.submit(api.connection(), () -> connection(plan, readPage(api, plan), pageSize,
+                edgeCursors));
+    }
+
+    /**
+     * Runs a planned page read.
+     *
+     * @return the rows, or no rows if the read failed
+     * @throws ConnectionOverloadedException if the database's bulkhead is full, reported as a field error
+     */
+    private List<Map<String, Object>> readPage(ApiRoute api, PagePlan plan) throws ConnectionOverloadedException {
+        try {
+            return queryExecutor.queryForList(api.connection(), plan.statement().sql(), plan.statement().params());
+        } catch (ConnectionOverloadedException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Error fetching GraphQL data for table {}", api.getTableName(), e);
+            logger.error("Error fetching GraphQL data for table {}", api.tableName(), e);
             return Collections.emptyList();
         }
     }
 
     /**
-     * Inserts a row into the external database for a specific API definition.
+     * Builds the value of a connection field from a page read with one extra
+     * row.
      */
-    private String insertData(ApiDefinition api, Map<String, Object> data) {
-        try {
-            ObjectContext context = externalConnectivityService.getContext(api.getConnection());
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(api.getConnection(), api.getTableName()));
-
-            StringBuilder sql = new StringBuilder("INSERT INTO ").append(api.getTableName()).append(" (");
-            StringBuilder values = new StringBuilder("VALUES (");
-            List<Object> params = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (schemaColumns.stream().anyMatch(c -> c.equalsIgnoreCase(entry.getKey()))) {
-                    sql.append(entry.getKey()).append(", ");
-                    values.append("?, ");
-                    params.add(entry.getValue());
+    private Map<String, Object> connection(PagePlan plan, List<Map<String, Object>> rows, int pageSize,
+            boolean edgeCursors) {
+        boolean hasNextPage = rows.size() > pageSize;
+        if (hasNextPage) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<Map<String, Object>> edges = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> edge = new HashMap<>(4);
+            edge.put("node", rows.get(i));
+            if (edgeCursors) {
+                edge.put("cursor", cursor(plan, rows.get(i), i));
+            }
+            edges.add(edge);
+        }
+        Map<String, Object> pageInfo = new HashMap<>(4);
+        pageInfo.put("hasNextPage", hasNextPage);
+        pageInfo.put("endCursor", rows.isEmpty() ? null : cursor(plan, rows.get(rows.size() - 1), rows.size() - 1));
+        return Map.of("edges", edges, "pageInfo", pageInfo);
+    }
+
+    /**
+     * Compiles the read of a query field: only the exposed columns selected in
+     * the query, filtered by its {@code where} argument and ordered by its
+     * {@code orderBy} terms followed by the primary key, which also continues
+     * the scan.
+     *
+     * @param api      the API route
+     * @param env      the environment carrying the {@code after}, {@code where} and {@code orderBy} arguments
+     * @param selected the selected fields of a row
+     * @param limit    the maximum number of rows, or null for no limit
+     * @param offset   the number of rows to skip, or null
+     * @return the planned read
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    private PagePlan planPage(ApiRoute api, DataFetchingEnvironment env, List<SelectedField> selected,
+            Integer limit, Integer offset) {
+        String after = env.getArgument("after");
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be a positive number");
+        }
+        if (offset != null && offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (offset != null && after != null) {
+            throw new IllegalArgumentException("offset and after cannot be combined");
+        }
+
+        ColumnIndex exposed = queryCompiler.exposedColumns(api);
+        List<String> names = new ArrayList<>(selected.size());
+        Map<String, Relation> typeRelations = state.relations().getOrDefault(capitalize(api.tableName()), Map.of());
+        for (SelectedField field : selected) {
+            String column = exposed.resolve(field.getName());
+            Relation relation = typeRelations.get(field.getName());
+            if (column != null) {
+                names.add(column);
+            } else if (relation != null) {
+                // Relationship fields need the key of the row they hang off
+                names.add(relation.sourceColumn());
+            }
+        }
+        List<String> columns = exposed.canonicalOrder(names);
+
+        List<SqlPredicate> filters = GraphQLFilters.compileWhere(env.getArgument("where"), exposed);
+
+        // Requested order first, then the primary key as a unique tie-breaker for keyset cursors
+        List<SortOrder> ordering = GraphQLFilters.compileOrderBy(env.getArgument("orderBy"), exposed);
+        List<String> keyColumns = schemaDiscoveryService.getPrimaryKeys(api.connection(), api.tableName());
+        for (String key : keyColumns) {
+            if (ordering.stream().noneMatch(order -> order.column().equalsIgnoreCase(key))) {
+                ordering.add(new SortOrder(key, false));
+            }
+        }
+        boolean keyset = !keyColumns.isEmpty();
+
+        // Ordering columns are read to build cursors even when they are not selected
+        List<String> readColumns = new ArrayList<>(columns);
+        if (keyset) {
+            for (SortOrder order : ordering) {
+                if (readColumns.stream().noneMatch(order.column()::equalsIgnoreCase)) {
+                    readColumns.add(order.column());
                 }
             }
-            if (!params.isEmpty()) {
-                sql.setLength(sql.length() - 2);
-                values.setLength(values.length() - 2);
+        }
+        if (readColumns.isEmpty() && exposed.size() > 0) {
+            // Only __typename or cursors were selected; read a single column to count rows
+            readColumns.add(exposed.columnTypes().keySet().iterator().next());
+        }
+
+        long startOffset = offset != null ? offset : 0;
+        List<String> afterKeys = null;
+        if (after != null) {
+            PageToken token = pageTokenCodec.decode(after);
+            if (token.isKeyset() != keyset) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (token.isKeyset()) {
+                afterKeys = token.keys();
+            } else {
+                startOffset = token.offset();
             }
-            sql.append(") ").append(values).append(")");
+        }
+        CompiledStatement statement = queryCompiler.selectPage(api, readColumns, filters, ordering, afterKeys,
+                limit, startOffset);
+        return new PagePlan(statement, ordering, keyset, startOffset);
+    }
 
-            org.apache.cayenne.query.SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
-            return "Inserted successfully";
-        } catch (Exception e) {
-            logger.error("Error inserting GraphQL data into table {}", api.getTableName(), e);
-            return "Error: " + e.getMessage();
+    /**
+     * Encodes the cursor of a row: its key values, or its offset for tables
+     * without a primary key.
+     */
+    private String cursor(PagePlan plan, Map<String, Object> row, int index) {
+        if (!plan.keyset()) {
+            return pageTokenCodec.encode(PageToken.ofOffset(plan.startOffset() + index + 1));
+        }
+        List<Object> keyValues = new ArrayList<>(plan.ordering().size());
+        for (SortOrder order : plan.ordering()) {
+            keyValues.add(getIgnoreCase(row, order.column()));
         }
+        return pageTokenCodec.encode(PageToken.ofKeys(keyValues));
     }
 
     /**
-     * Updates rows in the external database for a specific API definition.
+     * Looks up a row value by column name, ignoring case, since databases
+     * differ in how they report identifier case in result sets.
      */
-    private String updateData(ApiDefinition api, Map<String, Object> data, Map<String, Object> conditions) {
-        try {
-            ObjectContext context = externalConnectivityService.getContext(api.getConnection());
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(api.getConnection(), api.getTableName()));
+    private static Object getIgnoreCase(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        if (value != null || row.containsKey(column)) {
+            return value;
+        }
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(column)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
 
-            StringBuilder sql = new StringBuilder("UPDATE ").append(api.getTableName()).append(" SET ");
-            List<Object> params = new ArrayList<>();
+    /**
+     * Registers one DataLoader per relationship field of the current schema
+     * for each GraphQL request. Loaders batch the keys requested at one level
+     * of the query into a single query, in chunks of the target connection's
+     * batch size.
+     *
+     * @param registry the request's DataLoader registry
+     * @param context  the request's GraphQL context
+     */
+    @Override
+    public void registerDataLoaders(DataLoaderRegistry registry, GraphQLContext context) {
+        for (Map<String, Relation> fields : state.relations().values()) {
+            for (Relation relation : fields.values()) {
+                registry.register(relation.loaderName(), relationLoader(relation));
+            }
+        }
+    }
 
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (schemaColumns.stream().anyMatch(c -> c.equalsIgnoreCase(entry.getKey()))) {
-                    sql.append(entry.getKey()).append(" = ?, ");
-                    params.add(entry.getValue());
-                }
+    /**
+     * Creates the DataLoader of a relationship field, batching up to the
+     * target connection's batch size.
+     */
+    private DataLoader<Object, Object> relationLoader(Relation relation) {
+        Integer batchSize = relation.target().connection().getGraphqlBatchSize();
+        DataLoaderOptions options = DataLoaderOptions.newOptions()
+                .setMaxBatchSize(batchSize != null && batchSize > 0 ? batchSize : defaultBatchSize);
+        return DataLoaderFactory.newMappedDataLoader(keys -> loadRelated(relation, keys), options);
+    }
+
+    /**
+     * Resolves a relationship field by queueing the row's key on the field's
+     * DataLoader.
+     */
+    private DataFetcher<?> relationFetcher(Relation relation) {
+        return env -> {
+            Map<String, Object> row = env.getSource();
+            Object key = row != null ? getIgnoreCase(row, relation.sourceColumn()) : null;
+            if (key == null) {
+                return relation.many() ? List.of() : null;
             }
-            if (!params.isEmpty()) sql.setLength(sql.length() - 2);
+            // Registered per request, unless the request started on a schema that predates the relation
+            DataLoader<Object, Object> loader = env.getDataLoaderRegistry()
+                    .computeIfAbsent(relation.loaderName(), name -> relationLoader(relation));
+            return loader.load(key);
+        };
+    }
 
-            sql.append(" WHERE ");
-            for (Map.Entry<String, Object> entry : conditions.entrySet()) {
-                if (schemaColumns.stream().anyMatch(c -> c.equalsIgnoreCase(entry.getKey()))) {
-                    sql.append(entry.getKey()).append(" = ? AND ");
-                    params.add(entry.getValue());
-                }
+    /**
+     * Loads the related rows of a batch of keys with one query.
+     *
+     * @param relation the relationship field
+     * @param keys     the key values of the source rows
+     * @return the related row, or rows for list fields, by key
+     */
+    private CompletionStage<Map<Object, Object>> loadRelated(Relation relation, Set<Object> keys) {
+        ApiRoute target = relation.target();
+        return fetchExecutor.submit(target.connection(), () -> {
+            try {
+                CompiledStatement statement = queryCompiler.selectIn(target,
+                        List.copyOf(queryCompiler.exposedColumns(target).columnTypes().keySet()),
+                        relation.targetColumn(), List.copyOf(keys));
+                return queryExecutor.queryForList(target.connection(), statement.sql(), statement.params());
+            } catch (Exception e) {
+                logger.error("Error loading GraphQL relation {} from table {}", relation.loaderName(),
+                        target.tableName(), e);
+                throw e;
             }
-            sql.setLength(sql.length() - 5);
+        }).thenApply(rows -> matchRelated(relation, keys, rows));
+    }
 
-            org.apache.cayenne.query.SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
+    /**
+     * Assigns the rows loaded for a relationship field to the keys they
+     * belong to.
+     */
+    private static Map<Object, Object> matchRelated(Relation relation, Set<Object> keys,
+            List<Map<String, Object>> rows) {
+
+        // Keys are matched by their text, since key and referenced columns may map to different Java types
+        Map<String, List<Map<String, Object>>> rowsByKey = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            rowsByKey.computeIfAbsent(String.valueOf(getIgnoreCase(row, relation.targetColumn())),
+                    key -> new ArrayList<>()).add(row);
+        }
+        Map<Object, Object> result = new HashMap<>(keys.size() * 2);
+        for (Object key : keys) {
+            List<Map<String, Object>> matches = rowsByKey.getOrDefault(key.toString(), List.of());
+            if (relation.many()) {
+                result.put(key, matches);
+            } else if (!matches.isEmpty()) {
+                result.put(key, matches.get(0));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a row into the external database for a specific API definition.
+     */
+    private String insertData(ApiRoute api, Map<String, Object> data) {
+        try {
+            queryExecutor.update(api.connection(), queryCompiler.insert(api, data));
+            resultCache.invalidate(api.connection().getId(), api.tableName());
+            return "Inserted successfully";
+        } catch (Exception e) {
+            logger.error("Error inserting GraphQL data into table {}", api.tableName(), e);
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Updates rows in the external database for a specific API definition.
+     */
+    private String updateData(ApiRoute api, Map<String, Object> data, Map<String, Object> conditions) {
+        try {
+            queryExecutor.update(api.connection(), queryCompiler.update(api, data, conditions));
+            resultCache.invalidate(api.connection().getId(), api.tableName());
             return "Updated successfully";
         } catch (Exception e) {
-            logger.error("Error updating GraphQL data in table {}", api.getTableName(), e);
+            logger.error("Error updating GraphQL data in table {}", api.tableName(), e);
             return "Error: " + e.getMessage();
         }
     }
@@ -282,29 +832,13 @@ public class DynamicGraphQLProvider {
     /**
      * Deletes rows from the external database for a specific API definition.
      */
-    private String deleteData(ApiDefinition api, Map<String, Object> conditions) {
+    private String deleteData(ApiRoute api, Map<String, Object> conditions) {
         try {
-            ObjectContext context = externalConnectivityService.getContext(api.getConnection());
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(api.getConnection(), api.getTableName()));
-
-            StringBuilder sql = new StringBuilder("DELETE FROM ").append(api.getTableName()).append(" WHERE ");
-            List<Object> params = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : conditions.entrySet()) {
-                if (schemaColumns.stream().anyMatch(c -> c.equalsIgnoreCase(entry.getKey()))) {
-                    sql.append(entry.getKey()).append(" = ? AND ");
-                    params.add(entry.getValue());
-                }
-            }
-            sql.setLength(sql.length() - 5);
-
-            org.apache.cayenne.query.SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
+            queryExecutor.update(api.connection(), queryCompiler.delete(api, conditions));
+            resultCache.invalidate(api.connection().getId(), api.tableName());
             return "Deleted successfully";
         } catch (Exception e) {
-            logger.error("Error deleting GraphQL data from table {}", api.getTableName(), e);
+            logger.error("Error deleting GraphQL data from table {}", api.tableName(), e);
             return "Error: " + e.getMessage();
         }
     }
@@ -0,0 +1,56 @@
+package com.db2api.config;
+
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.DefaultExecutionGraphQlService;
+import org.springframework.graphql.execution.GraphQlSource;
+
+/**
+ * Configuration class for Spring GraphQL.
+ * Serves the dynamic schema of {@link DynamicGraphQLProvider} at /graphql,
+ * since there are no schema files for Spring Boot to build a source from.
+ */
+@Configuration
+public class GraphQLConfig {
+
+    /**
+     * Creates the GraphQL source, which always hands out the provider's
+     * current schema so regenerated schemas take effect without a restart.
+     *
+     * @param provider the dynamic schema provider
+     * @return the GraphQL source
+     */
+    @Bean
+    public GraphQlSource graphQlSource(DynamicGraphQLProvider provider) {
+        return new GraphQlSource() {
+            @Override
+            public GraphQL graphQl() {
+                return provider.graphQL();
+            }
+
+            @Override
+            public GraphQLSchema schema() {
+                return provider.graphQL().getGraphQLSchema();
+            }
+        };
+    }
+
+    /**
+     * Creates the service executing GraphQL requests, registering the
+     * provider's relationship DataLoaders for each request.
+     *
+     * @param graphQlSource the GraphQL source
+     * @param provider      the dynamic schema provider
+     * @return the execution service
+     */
+    @Bean
+    public ExecutionGraphQlService executionGraphQlService(GraphQlSource graphQlSource,
+            DynamicGraphQLProvider provider) {
+        DefaultExecutionGraphQlService service = new DefaultExecutionGraphQlService(graphQlSource);
+        service.addDataLoaderRegistrar(provider);
+        return service;
+    }
+}
@@ -0,0 +1,242 @@
+package com.db2api.config;
+
+import com.db2api.config.GraphQLRelations.Relation;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.TableStatistics;
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rejects GraphQL operations that would read too much from the external
+ * databases, before any of their fields is fetched.
+ * <p>
+ * Each operation is scored by the number of field values it resolves: a field
+ * counts once per parent row, and list fields multiply the rows of their
+ * children. List query fields yield their {@code limit}, or without one the
+ * whole table; connection fields yield their page size; one-to-many
+ * relationship fields yield the average number of related rows. Row counts
+ * are capped by the table estimates of {@link TableStatistics}. Operations
+ * deeper than {@code app.graphql.cost.max-depth}, or scoring more than the
+ * budget of the caller's organization (see {@link TokenClaims}), or else
+ * {@code app.graphql.cost.default-budget}, are aborted. Introspection fields
+ * are free.
+ */
+@Component
+public class GraphQLCostLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphQLCostLimiter.class);
+
+    private final TableStatistics tableStatistics;
+
+    @Value("${app.graphql.cost.default-budget:1000000}")
+    private long defaultBudget;
+
+    @Value("${app.graphql.cost.max-depth:10}")
+    private int maxDepth;
+
+    @Value("${app.dynamic.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.dynamic.page.max-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Constructs the limiter.
+     *
+     * @param tableStatistics the source of table row estimates
+     */
+    public GraphQLCostLimiter(TableStatistics tableStatistics) {
+        this.tableStatistics = tableStatistics;
+    }
+
+    /**
+     * Creates the instrumentation scoring the operations of one schema.
+     *
+     * @param routesByType the readable routes, by the name of their row type
+     * @param relations    the relationship fields, by type and field name
+     * @return the instrumentation
+     */
+    public Instrumentation forSchema(Map<String, ApiRoute> routesByType,
+            Map<String, Map<String, Relation>> relations) {
+        return new CostInstrumentation(new CostModel(routesByType, relations, tableStatistics::estimateRows,
+                defaultPageSize, maxPageSize), maxDepth);
+    }
+
+    /**
+     * Resolves the budget of the current caller from its access token.
+     */
+    private long currentBudget() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken jwt
+                && jwt.getToken().getClaim(TokenClaims.GRAPHQL_COST_BUDGET) instanceof Number budget) {
+            return budget.longValue();
+        }
+        return defaultBudget;
+    }
+
+    /**
+     * The score and depth of an operation.
+     *
+     * @param score the number of field values the operation resolves, saturating at {@link Long#MAX_VALUE}
+     * @param depth the nesting depth of its deepest field
+     */
+    record Cost(long score, int depth) {
+    }
+
+    /**
+     * Scores operations against the routes and relationship fields of one
+     * schema.
+     */
+    static final class CostModel {
+
+        private final Map<String, ApiRoute> routesByType;
+        private final Map<String, Map<String, Relation>> relations;
+        private final Map<String, ApiRoute> listFields = new HashMap<>();
+        private final Map<String, ApiRoute> connectionFields = new HashMap<>();
+        private final ToLongFunction<ApiRoute> estimates;
+        private final int defaultPageSize;
+        private final int maxPageSize;
+
+        CostModel(Map<String, ApiRoute> routesByType, Map<String, Map<String, Relation>> relations,
+                ToLongFunction<ApiRoute> estimates, int defaultPageSize, int maxPageSize) {
+            this.routesByType = routesByType;
+            this.relations = relations;
+            this.estimates = estimates;
+            this.defaultPageSize = defaultPageSize;
+            this.maxPageSize = maxPageSize;
+            for (ApiRoute route : routesByType.values()) {
+                listFields.put(route.tableName(), route);
+                connectionFields.put(route.tableName() + "Connection", route);
+            }
+        }
+
+        /**
+         * Scores an operation.
+         *
+         * @param operation the normalized operation, with fragments inlined and arguments resolved
+         * @return its cost
+         */
+        Cost score(ExecutableNormalizedOperation operation) {
+            long[] totals = new long[2];
+            visit(operation.getTopLevelFields(), 1, 0, totals);
+            return new Cost(totals[0], (int) totals[1]);
+        }
+
+        /**
+         * Adds the cost of fields resolved once for each of {@code instances}
+         * parent rows.
+         *
+         * @param fields    the fields
+         * @param instances the number of parent rows
+         * @param pageRows  the page size of the enclosing connection field, for its {@code edges}
+         * @param totals    the score and the depth so far
+         */
+        private void visit(List<ExecutableNormalizedField> fields, long instances, long pageRows, long[] totals) {
+            for (ExecutableNormalizedField field : fields) {
+                if (field.getName().startsWith("__")) {
+                    continue;
+                }
+                totals[0] = saturatedAdd(totals[0], instances);
+                totals[1] = Math.max(totals[1], field.getLevel());
+
+                long rows = 1;
+                long childPageRows = 0;
+                ApiRoute route;
+                if (field.getLevel() == 1 && (route = listFields.get(field.getName())) != null) {
+                    Object limit = field.getResolvedArguments().get("limit");
+                    long estimate = estimates.applyAsLong(route);
+                    rows = limit instanceof Integer size
+                            ? Math.min(route.pageSize(size, defaultPageSize, maxPageSize), estimate)
+                            : estimate;
+                } else if (field.getLevel() == 1 && (route = connectionFields.get(field.getName())) != null) {
+                    Object first = field.getResolvedArguments().get("first");
+                    childPageRows = Math.min(route.pageSize(first instanceof Integer size ? size : null,
+                            defaultPageSize, maxPageSize), estimates.applyAsLong(route));
+                } else if (pageRows > 0 && field.getName().equals("edges")) {
+                    rows = pageRows;
+                } else {
+                    rows = relationRows(field);
+                }
+                visit(field.getChildren(), saturatedMultiply(instances, Math.max(rows, 1)), childPageRows, totals);
+            }
+        }
+
+        /**
+         * Estimates the rows of a relationship field per parent row: the
+         * ratio of related to parent rows for one-to-many fields, else one.
+         */
+        private long relationRows(ExecutableNormalizedField field) {
+            long rows = 1;
+            for (String typeName : field.getObjectTypeNames()) {
+                Relation relation = relations.getOrDefault(typeName, Map.of()).get(field.getName());
+                ApiRoute source = routesByType.get(typeName);
+                if (relation != null && relation.many() && source != null) {
+                    long related = estimates.applyAsLong(relation.target());
+                    long parents = Math.max(estimates.applyAsLong(source), 1);
+                    rows = Math.max(rows, (related + parents - 1) / parents);
+                }
+            }
+            return rows;
+        }
+
+        private static long saturatedAdd(long a, long b) {
+            long sum = a + b;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        }
+
+        private static long saturatedMultiply(long a, long b) {
+            return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+        }
+    }
+
+    /**
+     * Aborts operations over the depth limit or the caller's budget before
+     * their execution starts.
+     */
+    private final class CostInstrumentation extends SimplePerformantInstrumentation {
+
+        private final CostModel model;
+        private final int maxDepth;
+
+        CostInstrumentation(CostModel model, int maxDepth) {
+            this.model = model;
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+                InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+            Cost cost = model.score(parameters.getExecutionContext().getNormalizedQueryTree().get());
+            if (cost.depth() > maxDepth) {
+                throw new AbortExecutionException("Query depth " + cost.depth()
+                        + " exceeds the maximum depth of " + maxDepth);
+            }
+            long budget = currentBudget();
+            if (cost.score() > budget) {
+                logger.debug("Rejecting GraphQL operation with cost {} over budget {}", cost.score(), budget);
+                throw new AbortExecutionException("Query cost " + cost.score() + " exceeds the budget of "
+                        + budget + "; request smaller pages or fewer fields");
+            }
+            return super.beginExecuteOperation(parameters, state);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.db2api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Cache of parsed and validated GraphQL documents, keyed by the SHA-256 hash
+ * of the document and the version of the schema it was validated against,
+ * so repeated documents skip parsing and validation.
+ * <p>
+ * It also implements Automatic Persisted Queries: a request whose
+ * {@code persistedQuery} extension carries only a {@code sha256Hash} is
+ * served from the document registered under that hash, or answered with
+ * {@code PersistedQueryNotFound} so the client resends the document along
+ * with the hash. Registered documents outlive schema refreshes; their parsed
+ * forms are dropped by {@link #invalidateDocuments()} and validated again
+ * against the new schema on first use.
+ */
+@Component
+public class GraphQLDocumentCache {
+
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+
+    private final Cache<DocumentKey, PreparsedDocumentEntry> documents;
+    private final Cache<String, String> persistedQueries;
+
+    /**
+     * Identifies a document validated against one schema.
+     *
+     * @param schemaVersion the version of the schema
+     * @param hash          the hex SHA-256 hash of the document
+     */
+    private record DocumentKey(long schemaVersion, String hash) {
+    }
+
+    /**
+     * Constructs the cache.
+     *
+     * @param maxDocuments        the maximum number of parsed documents
+     * @param maxPersistedQueries the maximum number of documents registered through persisted queries
+     */
+    public GraphQLDocumentCache(@Value("${app.graphql.document-cache.max-entries:1000}") long maxDocuments,
+            @Value("${app.graphql.persisted-queries.max-entries:10000}") long maxPersistedQueries) {
+        this.documents = Caffeine.newBuilder().maximumSize(maxDocuments).build();
+        this.persistedQueries = Caffeine.newBuilder().maximumSize(maxPersistedQueries).build();
+    }
+
+    /**
+     * Creates the document provider of one schema.
+     *
+     * @param schemaVersion the version of the schema the provider's documents are validated against
+     * @return the provider
+     */
+    public PreparsedDocumentProvider forSchema(long schemaVersion) {
+        return new SchemaDocuments(schemaVersion);
+    }
+
+    /**
+     * Drops all parsed documents. Called when a new schema goes live, since
+     * documents are validated against a specific schema.
+     */
+    public void invalidateDocuments() {
+        documents.invalidateAll();
+    }
+
+    /**
+     * Hashes a document the way persisted query clients do.
+     *
+     * @param query the document
+     * @return the hex SHA-256 hash of its UTF-8 bytes
+     */
+    static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The documents of one schema version. Plain requests are looked up by
+     * the hash of their document; persisted query requests go through the
+     * Apollo protocol support, which verifies hashes and reports unknown ones.
+     */
+    private final class SchemaDocuments implements PreparsedDocumentProvider, PersistedQueryCache {
+
+        private final long schemaVersion;
+        private final PersistedQuerySupport persistedQuerySupport = new ApolloPersistedQuerySupport(this);
+
+        SchemaDocuments(long schemaVersion) {
+            this.schemaVersion = schemaVersion;
+        }
+
+        @Override
+        public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+            Map<String, Object> extensions = executionInput.getExtensions();
+            if (extensions != null && extensions.containsKey(PERSISTED_QUERY_EXTENSION)) {
+                return persistedQuerySupport.getDocumentAsync(executionInput, parseAndValidateFunction);
+            }
+            DocumentKey key = new DocumentKey(schemaVersion, sha256(executionInput.getQuery()));
+            PreparsedDocumentEntry entry = documents.getIfPresent(key);
+            if (entry == null) {
+                entry = parseAndValidateFunction.apply(executionInput);
+                // Invalid documents are not cached, so the cache only holds what clients can execute
+                if (!entry.hasErrors()) {
+                    documents.put(key, entry);
+                }
+            }
+            return CompletableFuture.completedFuture(entry);
+        }
+
+        /**
+         * Resolves a persisted query. On a miss the document is taken from the
+         * request, or else from the documents registered by earlier requests;
+         * the miss handler rejects an absent document or a mismatching hash.
+         */
+        @Override
+        public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId,
+                ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+            String hash = persistedQueryId.toString();
+            DocumentKey key = new DocumentKey(schemaVersion, hash);
+            PreparsedDocumentEntry entry = documents.getIfPresent(key);
+            if (entry != null) {
+                return CompletableFuture.completedFuture(entry);
+            }
+            String query = executionInput.getQuery();
+            if (query == null || query.isBlank() || query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+                query = persistedQueries.getIfPresent(hash);
+            }
+            entry = onCacheMiss.apply(query);
+            if (!entry.hasErrors()) {
+                persistedQueries.put(hash, query);
+                documents.put(key, entry);
+            }
+            return CompletableFuture.completedFuture(entry);
+        }
+    }
+}
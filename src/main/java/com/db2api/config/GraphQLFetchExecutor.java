@@ -0,0 +1,72 @@
+package com.db2api.config;
+
+import com.db2api.persistent.connection.DbConnection;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the database reads of GraphQL fields on virtual threads, so that
+ * fields reading different tables run in parallel instead of one after
+ * another.
+ * <p>
+ * Reads of one connection are capped by a per-connection limit, normally
+ * the size of its pool: further reads wait on their virtual thread, which
+ * costs no platform thread, instead of piling up in the pool's own queue.
+ */
+final class GraphQLFetchExecutor implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Semaphore> permits = new ConcurrentHashMap<>();
+    private final int maxConcurrency;
+
+    /**
+     * Constructs the executor.
+     *
+     * @param maxConcurrency the maximum number of concurrent reads per connection
+     */
+    GraphQLFetchExecutor(int maxConcurrency) {
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+    }
+
+    /**
+     * Runs a read of a connection once the connection has a free slot.
+     *
+     * @param connection the connection the read uses
+     * @param read       the read
+     * @param <T>        the type of the result
+     * @return the result, or the exception of the read
+     */
+    <T> CompletableFuture<T> submit(DbConnection connection, Callable<T> read) {
+        Semaphore semaphore = permits.computeIfAbsent(connection.getId(), id -> new Semaphore(maxConcurrency));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return read.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                semaphore.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Interrupts running reads and rejects new ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,227 @@
+package com.db2api.config;
+
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.FilterCondition;
+import com.db2api.service.api.FilterOperator;
+import com.db2api.service.api.SortOrder;
+import com.db2api.service.api.SqlPredicate;
+import com.db2api.service.api.SqlValues;
+import graphql.Scalars;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLTypeReference;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the {@code where} and {@code orderBy} argument types of the
+ * dynamic GraphQL query fields and compiles their values into parameterized
+ * predicates and ORDER BY terms.
+ * <p>
+ * Every exposed column gets a field of the comparison input matching its
+ * GraphQL type, e.g. {@code price: FloatFilter}, whose operators are ANDed;
+ * {@code _and} and {@code _or} combine nested conditions. The
+ * {@code <Type>OrderBy} enum has a {@code column_ASC} and {@code column_DESC}
+ * value per exposed column.
+ */
+final class GraphQLFilters {
+
+    /** Comparison inputs shared by all tables, one per GraphQL scalar type. */
+    static final List<GraphQLInputObjectType> FILTER_INPUTS = List.of(
+            filterInput(Scalars.GraphQLInt, true),
+            filterInput(Scalars.GraphQLFloat, true),
+            filterInput(Scalars.GraphQLString, true),
+            filterInput(Scalars.GraphQLBoolean, false));
+
+    private static final String FILTER_SUFFIX = "Filter";
+    private static final String ASC_SUFFIX = "_ASC";
+    private static final String DESC_SUFFIX = "_DESC";
+
+    private GraphQLFilters() {
+    }
+
+    /**
+     * Builds the comparison input of a scalar type. Only ordered types get
+     * range operators and {@code in}; only strings get {@code like}.
+     */
+    private static GraphQLInputObjectType filterInput(GraphQLScalarType scalar, boolean ordered) {
+        GraphQLInputObjectType.Builder builder = GraphQLInputObjectType.newInputObject()
+                .name(scalar.getName() + FILTER_SUFFIX)
+                .field(inputField("eq", scalar))
+                .field(inputField("ne", scalar));
+        if (ordered) {
+            builder.field(inputField("gt", scalar))
+                    .field(inputField("gte", scalar))
+                    .field(inputField("lt", scalar))
+                    .field(inputField("lte", scalar));
+        }
+        if (scalar == Scalars.GraphQLString) {
+            builder.field(inputField("like", scalar));
+        }
+        if (ordered) {
+            builder.field(inputField("in", GraphQLList.list(GraphQLNonNull.nonNull(scalar))));
+        }
+        return builder.field(inputField("isNull", Scalars.GraphQLBoolean)).build();
+    }
+
+    /**
+     * Builds the {@code <Type>Where} input of a table.
+     *
+     * @param typeName the GraphQL type of the table's rows
+     * @param exposed  the columns the API exposes, at least one
+     * @return the input type
+     */
+    static GraphQLInputObjectType whereType(String typeName, ColumnIndex exposed) {
+        GraphQLInputObjectType.Builder builder = GraphQLInputObjectType.newInputObject().name(typeName + "Where");
+        for (Map.Entry<String, Integer> entry : exposed.columnTypes().entrySet()) {
+            builder.field(inputField(entry.getKey(),
+                    GraphQLTypeReference.typeRef(GraphQLTypes.scalar(entry.getValue()).getName() + FILTER_SUFFIX)));
+        }
+        GraphQLList nested = GraphQLList.list(GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(typeName + "Where")));
+        return builder.field(inputField("_and", nested))
+                .field(inputField("_or", nested))
+                .build();
+    }
+
+    /**
+     * Builds the {@code <Type>OrderBy} enum of a table.
+     *
+     * @param typeName the GraphQL type of the table's rows
+     * @param exposed  the columns the API exposes, at least one
+     * @return the enum type
+     */
+    static GraphQLEnumType orderByType(String typeName, ColumnIndex exposed) {
+        GraphQLEnumType.Builder builder = GraphQLEnumType.newEnum().name(typeName + "OrderBy");
+        for (String column : exposed.columnTypes().keySet()) {
+            builder.value(column + ASC_SUFFIX).value(column + DESC_SUFFIX);
+        }
+        return builder.build();
+    }
+
+    private static GraphQLInputObjectField inputField(String name, GraphQLInputType type) {
+        return GraphQLInputObjectField.newInputObjectField().name(name).type(type).build();
+    }
+
+    /**
+     * Compiles a {@code where} argument into a predicate.
+     *
+     * @param where   the argument value, may be null
+     * @param exposed the columns the API exposes
+     * @return the predicates to AND, empty if there is no condition
+     * @throws IllegalArgumentException if a column or operator is unknown or a value does not fit its column
+     */
+    static List<SqlPredicate> compileWhere(Map<String, Object> where, ColumnIndex exposed) {
+        if (where == null) {
+            return List.of();
+        }
+        List<SqlPredicate> predicates = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : where.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            switch (entry.getKey()) {
+                case "_and" -> predicates.add(new SqlPredicate.All(compileAll(entry.getValue(), exposed)));
+                case "_or" -> predicates.add(new SqlPredicate.Any(compileAll(entry.getValue(), exposed)));
+                default -> predicates.addAll(compileColumn(exposed.require(entry.getKey()),
+                        asMap(entry.getValue()), exposed));
+            }
+        }
+        return predicates;
+    }
+
+    private static List<SqlPredicate> compileAll(Object value, ColumnIndex exposed) {
+        List<SqlPredicate> predicates = new ArrayList<>();
+        for (Object nested : (List<?>) value) {
+            predicates.add(new SqlPredicate.All(compileWhere(asMap(nested), exposed)));
+        }
+        return predicates;
+    }
+
+    private static List<SqlPredicate> compileColumn(String column, Map<String, Object> filter, ColumnIndex exposed) {
+        Integer type = exposed.sqlType(column);
+        int sqlType = type != null ? type : Types.VARCHAR;
+        List<SqlPredicate> predicates = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            if (entry.getKey().equals("isNull")) {
+                FilterOperator operator = (Boolean) value ? FilterOperator.IS_NULL : FilterOperator.NOT_NULL;
+                predicates.add(new FilterCondition(column, operator, List.of()));
+                continue;
+            }
+            FilterOperator operator = FilterOperator.fromToken(entry.getKey());
+            if (operator == FilterOperator.IN) {
+                List<Object> values = new ArrayList<>();
+                for (Object item : (List<?>) value) {
+                    values.add(coerce(column, item, sqlType));
+                }
+                // IN () is not valid SQL; an empty list matches nothing
+                predicates.add(values.isEmpty()
+                        ? new SqlPredicate.Any(List.of())
+                        : new FilterCondition(column, operator, values));
+            } else if (operator == FilterOperator.LIKE) {
+                predicates.add(new FilterCondition(column, operator, List.of(value)));
+            } else {
+                predicates.add(new FilterCondition(column, operator, List.of(coerce(column, value, sqlType))));
+            }
+        }
+        return predicates;
+    }
+
+    /**
+     * Converts an argument value to the column's type. GraphQL already types
+     * numbers and booleans; dates and times arrive as strings.
+     */
+    private static Object coerce(String column, Object value, int sqlType) {
+        if (!(value instanceof String text)) {
+            return value;
+        }
+        try {
+            return SqlValues.coerce(text, sqlType);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for column " + column + ": " + text, e);
+        }
+    }
+
+    /**
+     * Compiles an {@code orderBy} argument into ORDER BY terms.
+     *
+     * @param orderBy the enum values, may be null
+     * @param exposed the columns the API exposes
+     * @return the terms, without repeated columns
+     * @throws IllegalArgumentException if a value names an unknown column
+     */
+    static List<SortOrder> compileOrderBy(List<String> orderBy, ColumnIndex exposed) {
+        List<SortOrder> ordering = new ArrayList<>();
+        if (orderBy == null) {
+            return ordering;
+        }
+        for (String value : orderBy) {
+            boolean descending = value.endsWith(DESC_SUFFIX);
+            if (!descending && !value.endsWith(ASC_SUFFIX)) {
+                throw new IllegalArgumentException("Invalid orderBy value: " + value);
+            }
+            String column = exposed.require(value.substring(0,
+                    value.length() - (descending ? DESC_SUFFIX : ASC_SUFFIX).length()));
+            if (ordering.stream().noneMatch(order -> order.column().equals(column))) {
+                ordering.add(new SortOrder(column, descending));
+            }
+        }
+        return ordering;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+}
@@ -0,0 +1,136 @@
+package com.db2api.config;
+
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.ForeignKey;
+import com.db2api.service.api.TableSchema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Derives the relationship fields of the dynamic GraphQL schema from the
+ * foreign keys of the exposed tables.
+ * <p>
+ * A single-column foreign key from table {@code orders.customer_id} to
+ * {@code customers.id} adds a {@code customer: Customers} field to
+ * {@code Orders} and an {@code orders: [Orders]} field to {@code Customers}.
+ * Both tables must be exposed through GraphQL APIs on the same connection,
+ * and both key columns must be exposed. Composite foreign keys are skipped.
+ */
+final class GraphQLRelations {
+
+    /**
+     * One relationship field.
+     *
+     * @param sourceType   the GraphQL type carrying the field
+     * @param fieldName    the name of the field
+     * @param target       the route of the table the field resolves to
+     * @param sourceColumn the column of the source row holding the key
+     * @param targetColumn the column of the target table matched against the key
+     * @param many         whether the field is a list (the referencing side)
+     */
+    record Relation(String sourceType, String fieldName, ApiRoute target, String sourceColumn,
+            String targetColumn, boolean many) {
+
+        /**
+         * @return the name of the per-request DataLoader resolving this field
+         */
+        String loaderName() {
+            return sourceType + "." + fieldName;
+        }
+    }
+
+    private GraphQLRelations() {
+    }
+
+    /**
+     * Derives the relationship fields between the given routes.
+     *
+     * @param routes   the readable GraphQL routes
+     * @param typeName the GraphQL type name of a route
+     * @param schemas  the discovered schema of a route's table
+     * @param exposed  the exposed columns of a route
+     * @return the relationship fields, with names unique per type
+     */
+    static List<Relation> discover(List<ApiRoute> routes, Function<ApiRoute, String> typeName,
+            Function<ApiRoute, TableSchema> schemas, Function<ApiRoute, ColumnIndex> exposed) {
+        Map<String, Set<String>> takenNames = new HashMap<>();
+        Map<String, ApiRoute> byTable = new HashMap<>();
+        for (ApiRoute route : routes) {
+            byTable.put(tableKey(route.connection().getId(), route.tableName()), route);
+            Set<String> taken = new HashSet<>();
+            for (String column : schemas.apply(route).columnTypes().keySet()) {
+                taken.add(column.toLowerCase(Locale.ROOT));
+            }
+            takenNames.put(typeName.apply(route), taken);
+        }
+
+        List<Relation> relations = new ArrayList<>();
+        for (ApiRoute source : routes) {
+            for (ForeignKey foreignKey : schemas.apply(source).foreignKeys()) {
+                ApiRoute target = byTable.get(tableKey(source.connection().getId(), foreignKey.referencedTable()));
+                if (target == null || foreignKey.columns().size() != 1) {
+                    continue;
+                }
+                String fkColumn = exposed.apply(source).resolve(foreignKey.columns().get(0));
+                String referencedColumn = exposed.apply(target).resolve(foreignKey.referencedColumns().get(0));
+                if (fkColumn == null || referencedColumn == null) {
+                    continue;
+                }
+
+                String sourceType = typeName.apply(source);
+                String targetType = typeName.apply(target);
+                String forward = pickName(takenNames.get(sourceType), stripIdSuffix(fkColumn),
+                        fkColumn + "_" + target.tableName());
+                if (forward != null) {
+                    relations.add(new Relation(sourceType, forward, target, fkColumn, referencedColumn, false));
+                }
+                String reverse = pickName(takenNames.get(targetType), source.tableName(),
+                        source.tableName() + "_by_" + fkColumn);
+                if (reverse != null) {
+                    relations.add(new Relation(targetType, reverse, source, referencedColumn, fkColumn, true));
+                }
+            }
+        }
+        return relations;
+    }
+
+    /**
+     * Returns the first candidate not yet used as a field of the type, and
+     * reserves it.
+     */
+    private static String pickName(Set<String> taken, String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.isEmpty() && taken.add(candidate.toLowerCase(Locale.ROOT))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Turns {@code customer_id} or {@code customerId} into {@code customer}.
+     */
+    static String stripIdSuffix(String column) {
+        String lower = column.toLowerCase(Locale.ROOT);
+        if (lower.endsWith("_id")) {
+            return column.substring(0, column.length() - 3);
+        }
+        if (lower.endsWith("id") && column.length() > 2 && Character.isUpperCase(column.charAt(column.length() - 2))) {
+            return column.substring(0, column.length() - 2);
+        }
+        return null;
+    }
+
+    private static String tableKey(Long connectionId, String tableName) {
+        return Objects.toString(connectionId) + ":" + tableName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.db2api.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Health indicator of the dynamic GraphQL schema, part of the readiness group.
+ * Reports {@code DEGRADED} while the tables of some connections are missing
+ * from the schema because their discovery is still running or failed; the
+ * application keeps serving the APIs of all other connections.
+ */
+@Component
+public class GraphQLSchemaHealthIndicator implements HealthIndicator {
+
+    /** Serving, but without the APIs of some connections. */
+    static final Status DEGRADED = new Status("DEGRADED", "Some connections are not discovered");
+
+    private final DynamicGraphQLProvider dynamicGraphQLProvider;
+
+    /**
+     * Constructs the indicator.
+     *
+     * @param dynamicGraphQLProvider the provider of the dynamic schema
+     */
+    public GraphQLSchemaHealthIndicator(DynamicGraphQLProvider dynamicGraphQLProvider) {
+        this.dynamicGraphQLProvider = dynamicGraphQLProvider;
+    }
+
+    @Override
+    public Health health() {
+        Map<Long, String> pending = dynamicGraphQLProvider.getPendingConnections();
+        Map<Long, String> failed = dynamicGraphQLProvider.getFailedConnections();
+        if (pending.isEmpty() && failed.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.status(DEGRADED)
+                .withDetail("pendingConnections", pending.values())
+                .withDetail("failedConnections", failed.values())
+                .build();
+    }
+}
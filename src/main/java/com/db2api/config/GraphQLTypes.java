@@ -0,0 +1,214 @@
+package com.db2api.config;
+
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.SchemaDiscoveryService;
+import com.db2api.service.api.TableSchema;
+import graphql.Scalars;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNamedType;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLTypeReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the types of the dynamic GraphQL schema programmatically. The parts
+ * of an API that require schema discovery are cached in a {@link Fragment},
+ * so a changed API can be rebuilt on its own and the schema assembled from
+ * the fragments without discovering other tables or parsing SDL.
+ */
+final class GraphQLTypes {
+
+    /** Page metadata of the connection fields, shared by all tables. */
+    static final GraphQLObjectType PAGE_INFO = GraphQLObjectType.newObject()
+            .name("PageInfo")
+            .field(field("hasNextPage", GraphQLNonNull.nonNull(Scalars.GraphQLBoolean)))
+            .field(field("endCursor", Scalars.GraphQLString))
+            .build();
+
+    private GraphQLTypes() {
+    }
+
+    /**
+     * The parts of an API definition that determine its fragment. A fragment
+     * is reused as long as its key is unchanged.
+     *
+     * @param tableName       the exposed table
+     * @param operations      the allowed operations
+     * @param includedColumns the exposed column list, may be null
+     * @param connectionId    the ID of the table's connection
+     */
+    record FragmentKey(String tableName, Set<String> operations, String includedColumns, Long connectionId) {
+
+        static FragmentKey of(ApiRoute api) {
+            return new FragmentKey(api.tableName(), api.operations(), api.includedColumns(),
+                    api.connection().getId());
+        }
+    }
+
+    /**
+     * The cached schema contribution of one GraphQL API. Its types reference
+     * only each other and the shared filter inputs, never the row type, whose
+     * relationship fields depend on other APIs; the row, edge and connection
+     * types and the query fields are built on every assembly instead.
+     *
+     * @param key            the definition parts the fragment was built from
+     * @param typeName       the name of the row type
+     * @param schema         the discovered schema of the table
+     * @param exposed        the columns the API exposes
+     * @param columnFields   the column fields of the row type
+     * @param types          the where, orderBy and input types of the API, as far as it has them
+     * @param mutationFields the fields the API adds to {@code Mutation}
+     */
+    record Fragment(FragmentKey key, String typeName, TableSchema schema, ColumnIndex exposed,
+            List<GraphQLFieldDefinition> columnFields, List<GraphQLNamedType> types,
+            List<GraphQLFieldDefinition> mutationFields) {
+    }
+
+    /**
+     * Builds the fragment of an API.
+     *
+     * @param api      the API route
+     * @param typeName the name of the row type
+     * @param schema   the discovered schema of the table
+     * @param exposed  the columns the API exposes
+     * @return the fragment
+     */
+    static Fragment fragment(ApiRoute api, String typeName, TableSchema schema, ColumnIndex exposed) {
+        List<GraphQLFieldDefinition> columnFields = new ArrayList<>();
+        GraphQLInputObjectType.Builder input = GraphQLInputObjectType.newInputObject().name(typeName + "Input");
+        for (Map.Entry<String, Integer> entry : schema.columnTypes().entrySet()) {
+            GraphQLScalarType scalar = scalar(entry.getValue());
+            columnFields.add(field(entry.getKey(), scalar));
+            input.field(GraphQLInputObjectField.newInputObjectField().name(entry.getKey()).type(scalar).build());
+        }
+
+        List<GraphQLNamedType> types = new ArrayList<>();
+        if (api.allows("GET") && exposed.size() > 0) {
+            types.add(GraphQLFilters.whereType(typeName, exposed));
+            types.add(GraphQLFilters.orderByType(typeName, exposed));
+        }
+
+        // Mutation fields (POST, PUT, DELETE)
+        List<GraphQLFieldDefinition> mutationFields = new ArrayList<>();
+        if (api.allows("POST") || api.allows("PUT") || api.allows("DELETE")) {
+            types.add(input.build());
+            GraphQLNonNull inputType = GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(typeName + "Input"));
+            if (api.allows("POST")) {
+                mutationFields.add(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("insert" + typeName)
+                        .type(Scalars.GraphQLString)
+                        .argument(argument("data", inputType))
+                        .build());
+            }
+            if (api.allows("PUT")) {
+                mutationFields.add(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("update" + typeName)
+                        .type(Scalars.GraphQLString)
+                        .argument(argument("data", inputType))
+                        .argument(argument("conditions", inputType))
+                        .build());
+            }
+            if (api.allows("DELETE")) {
+                mutationFields.add(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("delete" + typeName)
+                        .type(Scalars.GraphQLString)
+                        .argument(argument("conditions", inputType))
+                        .build());
+            }
+        }
+        return new Fragment(FragmentKey.of(api), typeName, schema, exposed, List.copyOf(columnFields),
+                List.copyOf(types), List.copyOf(mutationFields));
+    }
+
+    /**
+     * Builds the Relay edge and connection types of a readable table.
+     *
+     * @param typeName the name of the row type
+     * @return the edge and connection types
+     */
+    static List<GraphQLNamedType> connectionTypes(String typeName) {
+        return List.of(
+                GraphQLObjectType.newObject()
+                        .name(typeName + "Edge")
+                        .field(field("cursor", GraphQLNonNull.nonNull(Scalars.GraphQLString)))
+                        .field(field("node", GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(typeName))))
+                        .build(),
+                GraphQLObjectType.newObject()
+                        .name(typeName + "Connection")
+                        .field(field("edges", GraphQLNonNull.nonNull(GraphQLList.list(
+                                GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(typeName + "Edge"))))))
+                        .field(field("pageInfo", GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef("PageInfo"))))
+                        .build());
+    }
+
+    /**
+     * Builds the query fields of a readable table: {@code table(limit, offset,
+     * after)} and {@code tableConnection(first, after)}, both with the
+     * {@code where} and {@code orderBy} arguments when columns are exposed.
+     *
+     * @param api      the API route
+     * @param fragment the API's fragment
+     * @return the list field followed by the connection field
+     */
+    static List<GraphQLFieldDefinition> queryFields(ApiRoute api, Fragment fragment) {
+        String typeName = fragment.typeName();
+        List<GraphQLArgument> filterArgs = new ArrayList<>();
+        if (fragment.exposed().size() > 0) {
+            filterArgs.add(argument("where", GraphQLTypeReference.typeRef(typeName + "Where")));
+            filterArgs.add(argument("orderBy", GraphQLList.list(
+                    GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef(typeName + "OrderBy")))));
+        }
+        return List.of(
+                GraphQLFieldDefinition.newFieldDefinition()
+                        .name(api.tableName())
+                        .type(GraphQLList.list(GraphQLTypeReference.typeRef(typeName)))
+                        .argument(argument("limit", Scalars.GraphQLInt))
+                        .argument(argument("offset", Scalars.GraphQLInt))
+                        .argument(argument("after", Scalars.GraphQLString))
+                        .arguments(filterArgs)
+                        .build(),
+                GraphQLFieldDefinition.newFieldDefinition()
+                        .name(api.tableName() + "Connection")
+                        .type(GraphQLTypeReference.typeRef(typeName + "Connection"))
+                        .argument(argument("first", Scalars.GraphQLInt))
+                        .argument(argument("after", Scalars.GraphQLString))
+                        .arguments(filterArgs)
+                        .build());
+    }
+
+    /**
+     * Maps a SQL type to the GraphQL scalar its values are exposed as.
+     *
+     * @param sqlType the java.sql.Types constant
+     * @return the scalar type
+     */
+    static GraphQLScalarType scalar(int sqlType) {
+        return switch (SchemaDiscoveryService.mapSqlTypeToGraphQL(sqlType)) {
+            case "Int" -> Scalars.GraphQLInt;
+            case "Float" -> Scalars.GraphQLFloat;
+            case "Boolean" -> Scalars.GraphQLBoolean;
+            default -> Scalars.GraphQLString;
+        };
+    }
+
+    static GraphQLFieldDefinition field(String name, GraphQLOutputType type) {
+        return GraphQLFieldDefinition.newFieldDefinition().name(name).type(type).build();
+    }
+
+    private static GraphQLArgument argument(String name, GraphQLInputType type) {
+        return GraphQLArgument.newArgument().name(name).type(type).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.db2api.config;
+
+import com.db2api.security.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter of the API chain that applies the {@link RateLimiter} to
+ * authenticated requests. Rejected requests get 429 with a
+ * {@code Retry-After} header; served requests are charged for the rows they
+ * read, as reported in {@link RateLimiter#ROWS_READ_ATTRIBUTE}. Streamed
+ * reads finish after this filter and are charged by the controller when
+ * their stream ends.
+ * <p>
+ * Registered in {@link SecurityConfig} after bearer token authentication,
+ * not as a servlet filter of its own.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Constructs the RateLimitFilter.
+     *
+     * @param rateLimiter the limiter holding the buckets
+     */
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken token)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Jwt jwt = token.getToken();
+        long wait = rateLimiter.tryAcquire(jwt);
+        if (wait > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"rate_limit_exceeded\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.getAttribute(RateLimiter.ROWS_READ_ATTRIBUTE) instanceof Number rows) {
+                rateLimiter.chargeRows(jwt, rows.longValue());
+            }
+        }
+    }
+}
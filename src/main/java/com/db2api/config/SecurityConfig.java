@@ -1,7 +1,8 @@
 package com.db2api.config;
 
-import com.db2api.repository.auth.RevokedTokenRepository;
 import com.db2api.security.CustomUserDetailsService;
+import com.db2api.security.RateLimiter;
+import com.db2api.service.auth.TokenRevocationService;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
@@ -21,6 +22,7 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
@@ -30,7 +32,8 @@ import java.util.Base64;
 
 /**
  * Security configuration with two filter chains:
- * - API chain: JWT-based stateless auth for /api/dynamic/** and /graphql
+ * - API chain: JWT-based stateless auth for /api/dynamic/** and /graphql,
+ *   rate limited per client and organization
  * - UI chain: form-based login for the Vaadin admin interface
  */
 @Configuration
@@ -38,15 +41,17 @@ import java.util.Base64;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
-    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final RateLimiter rateLimiter;
 
     @Value("${app.jwt.secret:verylongsecretkeythatisatleast32byteslong}")
     private String jwtSecret;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
-            RevokedTokenRepository revokedTokenRepository) {
+            TokenRevocationService tokenRevocationService, RateLimiter rateLimiter) {
         this.userDetailsService = userDetailsService;
-        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -60,6 +65,7 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder())))
+                .addFilterAfter(new RateLimitFilter(rateLimiter), BearerTokenAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth.anyRequest().authenticated());
         return http.build();
     }
@@ -79,6 +85,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 AntPathRequestMatcher.antMatcher("/login"),
+                                AntPathRequestMatcher.antMatcher("/actuator/health/**"),
                                 AntPathRequestMatcher.antMatcher("/oauth2/**"),
                                 AntPathRequestMatcher.antMatcher("/VAADIN/**"),
                                 AntPathRequestMatcher.antMatcher("/vaadinServlet/**"),
@@ -114,7 +121,7 @@ public class SecurityConfig {
         return token -> {
             var jwt = decoder.decode(token);
             String jti = jwt.getClaimAsString("jti");
-            if (jti != null && revokedTokenRepository.existsByJti(jti)) {
+            if (jti != null && tokenRevocationService.isRevoked(jti)) {
                 throw new JwtValidationException("Token has been revoked",
                         java.util.List.of());
             }
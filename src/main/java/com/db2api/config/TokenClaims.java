@@ -0,0 +1,22 @@
+package com.db2api.config;
+
+/**
+ * Names of the custom claims of issued access tokens.
+ */
+public final class TokenClaims {
+
+    /** The ID of the organization owning the client. */
+    public static final String ORGANIZATION = "org";
+
+    /** The organization's maximum GraphQL operation cost, absent for the default. */
+    public static final String GRAPHQL_COST_BUDGET = "graphql_cost_budget";
+
+    /** The client's maximum requests per second, absent for the default. */
+    public static final String RATE_LIMIT = "rate_limit";
+
+    /** The organization's maximum requests per second, absent for the default. */
+    public static final String ORGANIZATION_RATE_LIMIT = "org_rate_limit";
+
+    private TokenClaims() {
+    }
+}
@@ -1,9 +1,10 @@
 package com.db2api.controller;
 
-import com.db2api.persistent.auth.RevokedToken;
+import com.db2api.config.TokenClaims;
 import com.db2api.persistent.organization.Client;
-import com.db2api.repository.auth.RevokedTokenRepository;
+import com.db2api.persistent.organization.Organization;
 import com.db2api.service.EncryptionService;
+import com.db2api.service.auth.TokenRevocationService;
 import com.db2api.service.organization.OrganizationService;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
@@ -33,7 +34,7 @@ public class AuthController {
 
     private final OrganizationService organizationService;
     private final EncryptionService encryptionService;
-    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
 
     @Value("${app.jwt.secret:verylongsecretkeythatisatleast32byteslong}")
     private String jwtSecret;
@@ -49,13 +50,13 @@ public class AuthController {
      *
      * @param organizationService     the service for organization and client management
      * @param encryptionService       the service for secret decryption
-     * @param revokedTokenRepository  the repository for token revocation
+     * @param tokenRevocationService  the service for token revocation
      */
     public AuthController(OrganizationService organizationService, EncryptionService encryptionService,
-            RevokedTokenRepository revokedTokenRepository) {
+            TokenRevocationService tokenRevocationService) {
         this.organizationService = organizationService;
         this.encryptionService = encryptionService;
-        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -101,13 +102,27 @@ public class AuthController {
             MACSigner signer = new MACSigner(jwtSecret.getBytes());
             String jti = UUID.randomUUID().toString();
             Date expiryTime = new Date(new Date().getTime() + (long) jwtExpirationHours * 3600 * 1000);
-            JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+            JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
                     .subject(clientId)
                     .claim("scope", "api:read api:write") // Default scopes
                     .jwtID(jti)
                     .issuer(jwtIssuer)
-                    .expirationTime(expiryTime)
-                    .build();
+                    .expirationTime(expiryTime);
+            // Organization limits travel with the token, so requests need no lookup
+            if (client.getRequestsPerSecond() != null) {
+                claims.claim(TokenClaims.RATE_LIMIT, client.getRequestsPerSecond());
+            }
+            Organization organization = client.getOrganization();
+            if (organization != null) {
+                claims.claim(TokenClaims.ORGANIZATION, organization.getId());
+                if (organization.getGraphqlCostBudget() != null) {
+                    claims.claim(TokenClaims.GRAPHQL_COST_BUDGET, organization.getGraphqlCostBudget());
+                }
+                if (organization.getRequestsPerSecond() != null) {
+                    claims.claim(TokenClaims.ORGANIZATION_RATE_LIMIT, organization.getRequestsPerSecond());
+                }
+            }
+            JWTClaimsSet claimsSet = claims.build();
 
             SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claimsSet);
             signedJWT.sign(signer);
@@ -124,7 +139,8 @@ public class AuthController {
 
     /**
      * Revokes (blacklists) a JWT token so it can no longer be used.
-     * The token's JTI is stored in the database until its natural expiration.
+     * The token's JTI is stored in the database until its natural expiration
+     * and takes effect on this instance immediately.
      *
      * @param token the access token to revoke (without "Bearer " prefix)
      * @return a success or error response
@@ -147,11 +163,8 @@ public class AuthController {
                 return ResponseEntity.ok(Map.of("status", "already_expired"));
             }
 
-            RevokedToken revokedToken = new RevokedToken();
-            revokedToken.setJti(jti);
-            revokedToken.setRevokedAt(Instant.now());
-            revokedToken.setExpiresAt(expiration != null ? expiration.toInstant() : Instant.now().plusSeconds(3600));
-            revokedTokenRepository.save(revokedToken);
+            tokenRevocationService.revoke(jti,
+                    expiration != null ? expiration.toInstant() : Instant.now().plusSeconds(3600));
 
             logger.info("Token revoked: jti={}", jti);
             return ResponseEntity.ok(Map.of("status", "revoked"));
@@ -1,26 +1,69 @@
 package com.db2api.controller;
 
-import com.db2api.persistent.api.ApiDefinition;
+import com.db2api.persistent.connection.DbConnection;
 import com.db2api.service.api.ApiDefinitionService;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.BulkLoadService;
+import com.db2api.service.api.CachedResult;
+import com.db2api.service.api.CompiledStatement;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.DynamicQueryExecutor;
+import com.db2api.service.api.PageToken;
+import com.db2api.service.api.PageTokenCodec;
+import com.db2api.service.api.QueryCompiler;
+import com.db2api.service.api.ReadQuery;
+import com.db2api.service.api.ResultCache;
+import com.db2api.service.api.ResultSetPage;
+import com.db2api.service.api.RowEncoder;
+import com.db2api.service.api.RowEncoders;
+import com.db2api.service.api.RowFormat;
 import com.db2api.service.api.SchemaDiscoveryService;
-import com.db2api.service.connection.ExternalConnectivityService;
-import org.apache.cayenne.DataRow;
-import org.apache.cayenne.ObjectContext;
-import org.apache.cayenne.query.SQLExec;
-import org.apache.cayenne.query.SQLSelect;
+import com.db2api.service.api.SortOrder;
+import com.db2api.service.api.TableFingerprint;
+import com.db2api.service.api.TableFingerprintService;
+import com.db2api.security.RateLimiter;
+import com.db2api.service.connection.ConnectionOverloadedException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
 
 /**
  * REST Controller that handles dynamic API requests.
  * It translates incoming HTTP requests (GET, PUT, DELETE) into SQL queries
- * executed against external databases based on ApiDefinitions.
+ * executed against external databases based on ApiDefinitions, resolved from
+ * the in-memory {@link com.db2api.service.api.ApiRouteTable}.
  */
 @RestController
 @RequestMapping("/api/dynamic")
@@ -28,90 +71,399 @@ public class DynamicRestController {
 
     private static final Logger logger = LoggerFactory.getLogger(DynamicRestController.class);
 
-    /** Pattern for valid SQL identifiers (table names, column names). */
-    private static final Pattern VALID_IDENTIFIER = Pattern.compile("^[a-zA-Z_][a-zA-Z0-9_]*$");
+    /** Response header carrying the continuation token of the next page. */
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
+    /** Media type of CSV uploads and downloads. */
+    static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
 
     private final ApiDefinitionService apiDefinitionService;
-    private final ExternalConnectivityService externalConnectivityService;
     private final SchemaDiscoveryService schemaDiscoveryService;
+    private final QueryCompiler queryCompiler;
+    private final DynamicQueryExecutor queryExecutor;
+    private final BulkLoadService bulkLoadService;
+    private final ResultCache resultCache;
+    private final PageTokenCodec pageTokenCodec;
+    private final TableFingerprintService fingerprintService;
+    private final RowEncoders rowEncoders;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dynamic.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.dynamic.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.dynamic.batch.chunk-size:500}")
+    private int batchChunkSize;
 
     /**
      * Constructs the DynamicRestController with required services.
      * 
-     * @param apiDefinitionService        the service for retrieving API mappings
-     * @param externalConnectivityService the service for external database
-     *                                    connectivity
-     * @param schemaDiscoveryService      the service for discovering database schemas
+     * @param apiDefinitionService   the service for retrieving API mappings
+     * @param schemaDiscoveryService the service for discovering database schemas
+     * @param queryCompiler          the compiler for generated statements
+     * @param queryExecutor          the executor for generated statements
+     * @param bulkLoadService        the service loading bulk uploads
+     * @param resultCache            the per-API cache of read results
+     * @param pageTokenCodec         the codec of the continuation tokens handed to clients
+     * @param fingerprintService     the service computing table fingerprints for conditional GETs
+     * @param rowEncoders            the encoders of streamed responses, by format
+     * @param rateLimiter            the limiter charged for the rows of streamed reads
+     * @param objectMapper           the JSON mapper used for requests and paged responses
      */
     public DynamicRestController(ApiDefinitionService apiDefinitionService,
-            ExternalConnectivityService externalConnectivityService,
-            SchemaDiscoveryService schemaDiscoveryService) {
+            SchemaDiscoveryService schemaDiscoveryService,
+            QueryCompiler queryCompiler,
+            DynamicQueryExecutor queryExecutor,
+            BulkLoadService bulkLoadService,
+            ResultCache resultCache,
+            PageTokenCodec pageTokenCodec,
+            TableFingerprintService fingerprintService,
+            RowEncoders rowEncoders,
+            RateLimiter rateLimiter,
+            ObjectMapper objectMapper) {
         this.apiDefinitionService = apiDefinitionService;
-        this.externalConnectivityService = externalConnectivityService;
         this.schemaDiscoveryService = schemaDiscoveryService;
-    }
-
-    /**
-     * Validates that a given identifier (table or column name) is safe to use in
-     * SQL by checking it against an allowlist from the database schema.
-     *
-     * @param identifier the identifier to validate
-     * @param allowedSet the set of valid identifiers
-     * @return true if the identifier is safe, false otherwise
-     */
-    private boolean isAllowedIdentifier(String identifier, Set<String> allowedSet) {
-        if (identifier == null || !VALID_IDENTIFIER.matcher(identifier).matches()) {
-            return false;
-        }
-        return allowedSet.stream()
-                .anyMatch(allowed -> allowed.equalsIgnoreCase(identifier));
+        this.queryCompiler = queryCompiler;
+        this.queryExecutor = queryExecutor;
+        this.bulkLoadService = bulkLoadService;
+        this.resultCache = resultCache;
+        this.pageTokenCodec = pageTokenCodec;
+        this.fingerprintService = fingerprintService;
+        this.rowEncoders = rowEncoders;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Retrieves data from a dynamic API endpoint.
-     * 
+     * By default one bounded page is returned: tables with a primary key are
+     * paged by key (keyset pagination), others by offset, and when more rows are
+     * available the {@code X-Next-Page-Token} response header carries an opaque
+     * token for the following page.
+     * <p>
+     * With {@code stream=true}, or when the {@code Accept} header prefers
+     * {@code application/x-ndjson}, {@code text/csv}, {@code application/msgpack}
+     * or {@code application/vnd.apache.arrow.stream}
+     * (see {@link RowFormat#negotiate(String)}), rows are instead written to the
+     * response as they are read from a server-side cursor, in the negotiated
+     * format. Only {@code stream=true} reads are not capped by the page size:
+     * without it a negotiated format carries one page, continued by the
+     * {@code X-Next-Page-Token} header just like a JSON page.
+     * <p>
+     * Rows can be narrowed with {@code fields=a,b}, filtered with repeatable
+     * {@code filter=column:operator:value} parameters and ordered with
+     * {@code sort=-a,b}; all of them are validated against the exposed columns
+     * and evaluated by the database.
+     * <p>
+     * For APIs with a result cache TTL, pages are served from the
+     * {@link ResultCache} until a write to the table invalidates them or, for
+     * tables with a fingerprint, until the fingerprint changes.
+     * <p>
+     * Pages carry an {@code ETag}, and a {@code Last-Modified} date when the
+     * table has a change-tracking column. When the table's
+     * {@link TableFingerprint} still matches the client's {@code If-None-Match}
+     * (or {@code If-Modified-Since}), 304 is returned without running the read;
+     * otherwise the tag is a hash of the page content.
+     *
      * @param tableName the name of the table to query
-     * @return a list of records from the external database
+     * @param limit     the requested page size, capped by the API's maximum page size
+     * @param offset    the number of rows to skip (cannot be combined with a page token)
+     * @param pageToken the continuation token returned by the previous page
+     * @param fields    comma-separated list of columns to return
+     * @param filter    filter expressions of the form {@code column:operator:value}
+     * @param sort      comma-separated sort columns, prefixed with {@code -} for descending order
+     * @param stream    whether to stream the rows instead of returning one page
+     * @param accept          the Accept header of the request
+     * @param ifNoneMatch     the If-None-Match header of the request
+     * @param ifModifiedSince the If-Modified-Since header of the request
+     * @return a page of records, or a streaming body, from the external database
      */
     @GetMapping("/{tableName}")
-    public ResponseEntity<List<Map<String, Object>>> getData(@PathVariable String tableName) {
-        ApiDefinition apiDef = apiDefinitionService.getApiDefinitionByTableNameAndType(tableName, "REST");
-        if (apiDef == null) {
+    public ResponseEntity<?> getData(@PathVariable String tableName,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long offset,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) List<String> filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean stream,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince) {
+        ApiRoute route = apiDefinitionService.getRoute(tableName, "REST");
+        if (route == null) {
             return ResponseEntity.notFound().build();
         }
 
-        if (!apiDef.getAllowedOperations().contains("GET")) {
+        if (!route.allows("GET")) {
             return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
         }
 
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be a positive number"));
+        }
+        if (offset != null && offset < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "offset must not be negative"));
+        }
+        if (offset != null && pageToken != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "offset and pageToken cannot be combined"));
+        }
+
         // Use the admin-configured table name from the API definition instead of
         // the raw path variable to prevent SQL injection
-        String safeTableName = apiDef.getTableName();
+        String safeTableName = route.tableName();
+        RowFormat format = RowFormat.negotiate(accept);
 
         try {
-            ObjectContext context = externalConnectivityService.getContext(apiDef.getConnection());
-
-            // Build column list from API definition (validated against schema)
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(apiDef.getConnection(), safeTableName));
-            String columns = buildColumnList(apiDef.getIncludedColumns(), schemaColumns);
-            String sql = "SELECT " + columns + " FROM " + safeTableName;
+            if (stream) {
+                ReadPlan plan = planRead(route, limit, offset, pageToken, fields, filter, sort, true);
+                return streamRows(route.connection(), safeTableName, queryCompiler.columns(route), plan.sql(),
+                        plan.params(), format);
+            }
+            if (format != RowFormat.JSON) {
+                return encodedPage(route, planRead(route, limit, offset, pageToken, fields, filter, sort, false),
+                        format);
+            }
 
-            List<DataRow> rows = SQLSelect.dataRowQuery(sql).select(context);
+            ReadRequest request = new ReadRequest(limit, offset, pageToken, fields, filter, sort);
+            TableFingerprint fingerprint = fingerprintService.fingerprint(route);
+            // The tag also covers the read parameters and the API settings shaping the response
+            String etag = fingerprint != null
+                    ? fingerprint.etag(route.id() + "|" + route.includedColumns() + "|" + route.maxPageSize()
+                            + "|" + request)
+                    : null;
+            if (etag != null && isNotModified(etag, fingerprint.lastModified(), ifNoneMatch, ifModifiedSince)) {
+                return notModified(etag, fingerprint.lastModified());
+            }
 
-            // Convert DataRows to List<Map<String, Object>>
-            List<Map<String, Object>> results = new ArrayList<>();
-            for (DataRow row : rows) {
-                results.add(new HashMap<>(row));
+            // A cached page is only served under the table state it was read at, so the tag never outruns the body
+            Object cacheKey = fingerprint != null ? new VersionedRead(request, fingerprint.version()) : request;
+            CachedResult page = resultCache.get(route, cacheKey,
+                    () -> readPage(route, planRead(route, limit, offset, pageToken, fields, filter, sort, false)));
+            if (etag == null) {
+                etag = page.etag();
+                if (isNotModified(etag, null, ifNoneMatch, null)) {
+                    return notModified(etag, null);
+                }
             }
 
-            return ResponseEntity.ok(results);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag);
+            if (fingerprint != null && fingerprint.lastModified() != null) {
+                response.lastModified(fingerprint.lastModified());
+            }
+            if (page.nextPageToken() != null) {
+                response.header(NEXT_PAGE_TOKEN_HEADER, page.nextPageToken());
+            }
+            return response.body(page.body());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConnectionOverloadedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error fetching data from table {}", safeTableName, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * Evaluates the conditional headers of a GET request. If-None-Match takes
+     * precedence; If-Modified-Since is only consulted without it.
+     *
+     * @param etag            the current entity tag
+     * @param lastModified    the current modification time, or null if unknown
+     * @param ifNoneMatch     the If-None-Match header, may be null
+     * @param ifModifiedSince the If-Modified-Since header, may be null
+     * @return true if the client's copy is current
+     */
+    private static boolean isNotModified(String etag, Instant lastModified, String ifNoneMatch,
+            String ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            String current = stripWeak(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || stripWeak(trimmed).equals(current)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ifModifiedSince != null && lastModified != null) {
+            try {
+                Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant();
+                // HTTP dates have a precision of one second
+                return !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(since);
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static ResponseEntity<?> notModified(String etag, Instant lastModified) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response.build();
+    }
+
+    /**
+     * The read parameters of a GET request, used as the result cache key.
+     */
+    private record ReadRequest(Integer limit, Long offset, String pageToken, String fields, List<String> filter,
+            String sort) {
+    }
+
+    /**
+     * The result cache key of a read of a fingerprinted table: the read and the
+     * table version it was made at. A page read after the table changed is
+     * cached under the new version, while the page of the old version expires
+     * unused.
+     */
+    private record VersionedRead(ReadRequest request, String version) {
+    }
+
+    /**
+     * A planned read: the query and what is needed to turn its rows into a page.
+     *
+     * @param sql         the query
+     * @param params      the positional parameters of the query
+     * @param ordering    the ORDER BY terms, ending with the primary key for keyset pages
+     * @param keyset      whether the page is continued by key instead of by offset
+     * @param hiddenKeys  ordering columns read only to build the next token
+     * @param startOffset the offset of the page
+     * @param pageSize    the number of rows in a full page
+     */
+    private record ReadPlan(String sql, List<Object> params, List<SortOrder> ordering, boolean keyset,
+            List<String> hiddenKeys, long startOffset, int pageSize) {
+    }
+
+    /**
+     * Validates the read parameters of a GET request and generates its query.
+     *
+     * @param route     the route of the API being read
+     * @param limit     the requested page size, or null
+     * @param offset    the number of rows to skip, or null
+     * @param pageToken the continuation token of the previous page, or null
+     * @param fields    comma-separated list of columns to return, or null
+     * @param filter    filter expressions, or null
+     * @param sort      comma-separated sort columns, or null
+     * @param streaming whether the rows are streamed instead of paged
+     * @return the planned read
+     * @throws IllegalArgumentException if a parameter is invalid
+     */
+    private ReadPlan planRead(ApiRoute route, Integer limit, Long offset, String pageToken, String fields,
+            List<String> filter, String sort, boolean streaming) {
+        String safeTableName = route.tableName();
+        DbConnection connection = route.connection();
+        int pageSize = resolvePageSize(route, limit);
+        PageToken token = pageToken != null ? pageTokenCodec.decode(pageToken) : null;
+        // Unbounded streams skip the ORDER BY, which only matters when resuming a scan
+        boolean paged = !streaming || limit != null || offset != null || token != null;
+
+        // Build column list from API definition (validated against schema)
+        ColumnIndex columns = queryCompiler.columns(route);
+        ColumnIndex exposedColumns = columns.restrict(route.includedColumns());
+        ReadQuery query = ReadQuery.parse(fields, filter, sort, exposedColumns);
+        List<String> selectColumns;
+        if (!query.fields().isEmpty()) {
+            selectColumns = query.fields();
+        } else if (exposedColumns.size() < columns.size()) {
+            selectColumns = new ArrayList<>(exposedColumns.columnTypes().keySet());
+        } else {
+            selectColumns = List.of();
+        }
+
+        // Requested sort terms first, then the primary key as a unique tie-breaker for keyset paging
+        List<SortOrder> ordering = new ArrayList<>(query.sort());
+        List<String> keyColumns = paged
+                ? schemaDiscoveryService.getPrimaryKeys(connection, safeTableName)
+                : List.of();
+        for (String key : keyColumns) {
+            if (ordering.stream().noneMatch(order -> order.column().equalsIgnoreCase(key))) {
+                ordering.add(new SortOrder(key, false));
+            }
+        }
+        boolean keyset = !keyColumns.isEmpty();
+
+        // Ordering columns must be read to build the next token even when they are not selected
+        List<String> hiddenKeys = new ArrayList<>();
+        if (!streaming && keyset && !selectColumns.isEmpty()) {
+            for (SortOrder order : ordering) {
+                if (selectColumns.stream().noneMatch(c -> c.equalsIgnoreCase(order.column()))) {
+                    hiddenKeys.add(order.column());
+                }
+            }
+        }
+
+        List<String> readColumns = new ArrayList<>(selectColumns);
+        readColumns.addAll(hiddenKeys);
+
+        long startOffset = offset != null ? offset : 0;
+        List<String> afterKeys = null;
+        if (token != null && token.isKeyset()) {
+            if (!keyset) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            afterKeys = token.keys();
+        } else if (token != null) {
+            startOffset = token.offset();
+        }
+        // Paged reads fetch one extra row to learn whether another page exists
+        CompiledStatement statement = queryCompiler.selectPage(route, readColumns, query.filters(), ordering,
+                afterKeys, streaming ? limit : Integer.valueOf(pageSize + 1), startOffset);
+        return new ReadPlan(statement.sql(), statement.params(), ordering, keyset, hiddenKeys, startOffset,
+                pageSize);
+    }
+
+    /**
+     * Runs a planned read and serializes the resulting page.
+     *
+     * @param route the route of the API being read
+     * @param plan  the planned read
+     * @return the serialized page and its continuation token
+     * @throws SQLException if the query fails
+     * @throws IOException  if the rows cannot be serialized
+     */
+    private CachedResult readPage(ApiRoute route, ReadPlan plan) throws SQLException, IOException {
+        int pageSize = plan.pageSize();
+        List<Map<String, Object>> results = queryExecutor.queryForList(route.connection(), plan.sql(),
+                plan.params());
+
+        String nextPageToken = null;
+        if (results.size() > pageSize) {
+            results.remove(pageSize);
+            Map<String, Object> last = results.get(pageSize - 1);
+            List<Object> keyValues = new ArrayList<>();
+            if (plan.keyset()) {
+                for (SortOrder order : plan.ordering()) {
+                    keyValues.add(getIgnoreCase(last, order.column()));
+                }
+            }
+            nextPageToken = nextPageToken(plan, keyValues);
+        }
+        chargeRows(results.size());
+        if (!plan.hiddenKeys().isEmpty()) {
+            for (Map<String, Object> row : results) {
+                row.keySet().removeIf(column -> plan.hiddenKeys().stream().anyMatch(column::equalsIgnoreCase));
+            }
+        }
+        return CachedResult.of(objectMapper.writeValueAsBytes(results), nextPageToken);
+    }
+
     /**
      * Updates data in a dynamic API endpoint.
      *
@@ -124,57 +476,26 @@ public class DynamicRestController {
     public ResponseEntity<?> updateData(@PathVariable String tableName,
             @RequestBody Map<String, Object> data,
             @RequestParam Map<String, String> conditions) {
-        ApiDefinition apiDef = apiDefinitionService.getApiDefinitionByTableNameAndType(tableName, "REST");
-        if (apiDef == null || !apiDef.getAllowedOperations().contains("PUT")) {
+        ApiRoute route = apiDefinitionService.getRoute(tableName, "REST");
+        if (route == null || !route.allows("PUT")) {
             return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
         }
 
         // Use the admin-configured table name from the API definition
-        String safeTableName = apiDef.getTableName();
+        String safeTableName = route.tableName();
 
         if (conditions.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "No conditions provided for update"));
         }
 
         try {
-            ObjectContext context = externalConnectivityService.getContext(apiDef.getConnection());
-
-            // Validate column names against schema
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(apiDef.getConnection(), safeTableName));
-
-            StringBuilder sql = new StringBuilder("UPDATE ").append(safeTableName).append(" SET ");
-            List<Object> params = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (!isAllowedIdentifier(entry.getKey(), schemaColumns)) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("error", "Invalid column: " + entry.getKey()));
-                }
-                sql.append(entry.getKey()).append(" = ?, ");
-                params.add(entry.getValue());
-            }
-
-            if (!params.isEmpty()) {
-                sql.setLength(sql.length() - 2); // Remove last ", "
-            }
-
-            sql.append(" WHERE ");
-            for (Map.Entry<String, String> entry : conditions.entrySet()) {
-                if (!isAllowedIdentifier(entry.getKey(), schemaColumns)) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("error", "Invalid column: " + entry.getKey()));
-                }
-                sql.append(entry.getKey()).append(" = ? AND ");
-                params.add(entry.getValue());
-            }
-            sql.setLength(sql.length() - 5); // Remove last " AND "
-
-            SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
-
+            queryExecutor.update(route.connection(), queryCompiler.update(route, data, conditions));
+            resultCache.invalidate(route.connection().getId(), safeTableName);
             return ResponseEntity.ok(Map.of("status", "success"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConnectionOverloadedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             logger.error("Error updating data in table {}", safeTableName, e);
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
@@ -183,62 +504,163 @@ public class DynamicRestController {
 
     /**
      * Creates new data in a dynamic API endpoint.
+     * <p>
+     * The body is either a single JSON object or a JSON array of objects. An
+     * array is parsed incrementally and inserted with JDBC batches of
+     * {@code app.dynamic.batch.chunk-size} rows within one transaction, so a
+     * large upload is never held in memory and either succeeds or fails as a
+     * whole. The response then reports the rows inserted per chunk.
      *
      * @param tableName the name of the table to insert into
-     * @param data      the data to be inserted
+     * @param body      the request body: a JSON object or an array of objects
      * @return a success or error response
      */
     @PostMapping("/{tableName}")
-    public ResponseEntity<?> createData(@PathVariable String tableName,
-            @RequestBody Map<String, Object> data) {
-        ApiDefinition apiDef = apiDefinitionService.getApiDefinitionByTableNameAndType(tableName, "REST");
-        if (apiDef == null || !apiDef.getAllowedOperations().contains("POST")) {
+    public ResponseEntity<?> createData(@PathVariable String tableName, InputStream body) {
+        ApiRoute route = apiDefinitionService.getRoute(tableName, "REST");
+        if (route == null || !route.allows("POST")) {
             return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
         }
 
-        if (data == null || data.isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Request body must contain data to insert"));
-        }
-
         // Use the admin-configured table name from the API definition
-        String safeTableName = apiDef.getTableName();
+        String safeTableName = route.tableName();
 
-        try {
-            ObjectContext context = externalConnectivityService.getContext(apiDef.getConnection());
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                return insertBatch(route, parser);
+            }
+            Map<String, Object> data = first == JsonToken.START_OBJECT
+                    ? objectMapper.readValue(parser, ROW_TYPE)
+                    : Map.of();
+            if (data.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Request body must contain data to insert"));
+            }
+            queryExecutor.update(route.connection(), queryCompiler.insert(route, data));
+            resultCache.invalidate(route.connection().getId(), safeTableName);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("status", "success"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Malformed JSON: " + e.getOriginalMessage()));
+        } catch (ConnectionOverloadedException e) {
+            return overloaded(e);
+        } catch (Exception e) {
+            logger.error("Error inserting data into table {}", safeTableName, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Bulk loads an upload of CSV (with a header row naming the columns) or
+     * newline-delimited JSON into a table. The body may be gzip-compressed
+     * ({@code Content-Encoding: gzip}) and is streamed, never buffered whole.
+     * PostgreSQL tables are loaded with {@code COPY}; other databases with
+     * batched inserts in one transaction.
+     *
+     * @param tableName       the name of the table to load
+     * @param contentType     the Content-Type header: {@code text/csv} or {@code application/x-ndjson}
+     * @param contentEncoding the Content-Encoding header, may be null
+     * @param body            the upload
+     * @return the number of loaded rows, or an error response
+     */
+    @PostMapping("/{tableName}/_bulk")
+    public ResponseEntity<?> bulkLoad(@PathVariable String tableName,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) {
+        ApiRoute route = apiDefinitionService.getRoute(tableName, "REST");
+        if (route == null || !route.allows("POST")) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
+        }
 
-            // Validate column names against schema
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(apiDef.getConnection(), safeTableName));
+        BulkLoadService.Format format = bulkFormat(contentType);
+        if (format == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(Map.of("error", "Content-Type must be text/csv or application/x-ndjson"));
+        }
+        boolean gzip = "gzip".equalsIgnoreCase(contentEncoding);
+        if (!gzip && contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding)) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body(Map.of("error", "Unsupported Content-Encoding: " + contentEncoding));
+        }
 
-            StringBuilder sql = new StringBuilder("INSERT INTO ").append(safeTableName).append(" (");
-            StringBuilder values = new StringBuilder("VALUES (");
-            List<Object> params = new ArrayList<>();
+        String safeTableName = route.tableName();
+        try (InputStream in = gzip ? new GZIPInputStream(body, 64 * 1024) : body) {
+            long loaded = bulkLoadService.load(route, in, format);
+            resultCache.invalidate(route.connection().getId(), safeTableName);
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("status", "success", "inserted", loaded));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Malformed JSON: " + e.getOriginalMessage()));
+        } catch (ZipException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Malformed gzip body: " + e.getMessage()));
+        } catch (ConnectionOverloadedException e) {
+            return overloaded(e);
+        } catch (Exception e) {
+            logger.error("Error bulk loading data into table {}", safeTableName, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                if (!isAllowedIdentifier(entry.getKey(), schemaColumns)) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("error", "Invalid column: " + entry.getKey()));
-                }
-                sql.append(entry.getKey()).append(", ");
-                values.append("?, ");
-                params.add(entry.getValue());
+    /**
+     * Maps the Content-Type of a bulk upload to its format.
+     *
+     * @param contentType the Content-Type header, may be null
+     * @return the format, or null if the type is not supported
+     */
+    private BulkLoadService.Format bulkFormat(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return null;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (TEXT_CSV.equalsTypeAndSubtype(mediaType)) {
+                return BulkLoadService.Format.CSV;
             }
-
-            if (!params.isEmpty()) {
-                sql.setLength(sql.length() - 2); // Remove last ", "
-                values.setLength(values.length() - 2);
+            if (MediaType.APPLICATION_NDJSON.equalsTypeAndSubtype(mediaType)) {
+                return BulkLoadService.Format.NDJSON;
             }
-            sql.append(") ").append(values).append(")");
+            return null;
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
 
-            SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
+    /**
+     * Inserts the objects of a JSON array as they are parsed.
+     *
+     * @param route  the route of the API being written
+     * @param parser the parser, positioned on the start of the array
+     * @return the response reporting the inserted rows
+     */
+    private ResponseEntity<?> insertBatch(ApiRoute route, JsonParser parser) throws SQLException, IOException {
+        long[] row = {0};
+        List<Integer> chunks = queryExecutor.executeBatch(route.connection(), () -> {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            row[0]++;
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Row " + row[0] + ": expected a JSON object");
+            }
+            Map<String, Object> data = objectMapper.readValue(parser, ROW_TYPE);
+            try {
+                return queryCompiler.insert(route, data);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Row " + row[0] + ": " + e.getMessage(), e);
+            }
+        }, batchChunkSize);
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("status", "success"));
-        } catch (Exception e) {
-            logger.error("Error inserting data into table {}", safeTableName, e);
-            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        if (chunks.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Request body must contain data to insert"));
         }
+        resultCache.invalidate(route.connection().getId(), route.tableName());
+        int inserted = chunks.stream().mapToInt(Integer::intValue).sum();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("status", "success", "inserted", inserted, "chunks", chunks));
     }
 
     /**
@@ -250,71 +672,182 @@ public class DynamicRestController {
      */
     @DeleteMapping("/{tableName}")
     public ResponseEntity<?> deleteData(@PathVariable String tableName, @RequestParam Map<String, String> conditions) {
-        ApiDefinition apiDef = apiDefinitionService.getApiDefinitionByTableNameAndType(tableName, "REST");
-        if (apiDef == null || !apiDef.getAllowedOperations().contains("DELETE")) {
+        ApiRoute route = apiDefinitionService.getRoute(tableName, "REST");
+        if (route == null || !route.allows("DELETE")) {
             return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
         }
 
         // Use the admin-configured table name from the API definition
-        String safeTableName = apiDef.getTableName();
+        String safeTableName = route.tableName();
 
         if (conditions.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "No conditions provided for delete"));
         }
 
         try {
-            ObjectContext context = externalConnectivityService.getContext(apiDef.getConnection());
+            queryExecutor.update(route.connection(), queryCompiler.delete(route, conditions));
+            resultCache.invalidate(route.connection().getId(), safeTableName);
+            return ResponseEntity.ok(Map.of("status", "success"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConnectionOverloadedException e) {
+            return overloaded(e);
+        } catch (Exception e) {
+            logger.error("Error deleting data from table {}", safeTableName, e);
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            // Validate column names against schema
-            Set<String> schemaColumns = new HashSet<>(
-                    schemaDiscoveryService.getColumns(apiDef.getConnection(), safeTableName));
+    /**
+     * Resolves the effective page size for a read, honouring the per-API cap.
+     *
+     * @param route the route of the API being read
+     * @param limit the page size requested by the client, or null
+     * @return the number of rows to return
+     */
+    private int resolvePageSize(ApiRoute route, Integer limit) {
+        return route.pageSize(limit, defaultPageSize, maxPageSize);
+    }
 
-            StringBuilder sql = new StringBuilder("DELETE FROM ").append(safeTableName).append(" WHERE ");
-            List<Object> params = new ArrayList<>();
+    /**
+     * Answers a request rejected by the bulkhead of its database, telling the
+     * client when to retry.
+     */
+    private static ResponseEntity<?> overloaded(ConnectionOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
 
-            for (Map.Entry<String, String> entry : conditions.entrySet()) {
-                if (!isAllowedIdentifier(entry.getKey(), schemaColumns)) {
-                    return ResponseEntity.badRequest()
-                            .body(Map.of("error", "Invalid column: " + entry.getKey()));
+    /**
+     * Runs a planned read and encodes the resulting page in a negotiated
+     * format. The page is bounded, so it is encoded in memory: the
+     * continuation token is only known after its last row, and it has to be
+     * sent as a header, before the body.
+     *
+     * @param route  the route of the API being read
+     * @param plan   the planned read, fetching one row more than the page
+     * @param format the response format
+     * @return the encoded page and its continuation token
+     * @throws SQLException if the query fails
+     * @throws IOException  if the rows cannot be encoded
+     */
+    private ResponseEntity<byte[]> encodedPage(ApiRoute route, ReadPlan plan, RowFormat format)
+            throws SQLException, IOException {
+        RowEncoder encoder = rowEncoders.get(format);
+        ColumnIndex columns = queryCompiler.columns(route);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        AtomicReference<String> nextPageToken = new AtomicReference<>();
+        queryExecutor.stream(route.connection(), plan.sql(), plan.params(), rs -> {
+            // Hidden keys are read last, so hiding them leaves the indexes of the other columns alone
+            int visibleCount = rs.getMetaData().getColumnCount() - plan.hiddenKeys().size();
+            long rows = encoder.encode(ResultSetPage.of(rs, plan.pageSize(), visibleCount), columns, body,
+                    queryExecutor.getFetchSize());
+            chargeRows(rows);
+            if (rows < plan.pageSize()) {
+                return;
+            }
+            // The set is still on the last row of the page; its keys continue the scan if another row follows
+            List<Object> keyValues = new ArrayList<>();
+            if (plan.keyset()) {
+                for (SortOrder order : plan.ordering()) {
+                    keyValues.add(rs.getObject(order.column()));
                 }
-                sql.append(entry.getKey()).append(" = ? AND ");
-                params.add(entry.getValue());
             }
+            if (rs.next()) {
+                nextPageToken.set(nextPageToken(plan, keyValues));
+            }
+        });
 
-            sql.setLength(sql.length() - 5); // Remove last " AND "
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(format.mediaType());
+        if (nextPageToken.get() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, nextPageToken.get());
+        }
+        return response.body(body.toByteArray());
+    }
 
-            SQLExec.query(sql.toString())
-                    .paramsArray(params.toArray())
-                    .execute(context);
+    /**
+     * Encodes the token of the page following a full page.
+     *
+     * @param plan      the planned read
+     * @param keyValues the ordering values of the page's last row, for keyset reads
+     * @return the encoded token
+     */
+    private String nextPageToken(ReadPlan plan, List<Object> keyValues) {
+        PageToken token = plan.keyset()
+                ? PageToken.ofKeys(keyValues)
+                : PageToken.ofOffset(plan.startOffset() + plan.pageSize());
+        return pageTokenCodec.encode(token);
+    }
 
-            return ResponseEntity.ok(Map.of("status", "success"));
-        } catch (Exception e) {
-            logger.error("Error deleting data from table {}", safeTableName, e);
-            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+    /**
+     * Records the rows of a page read for the rate limiter, which charges them
+     * once the request completes; pages served from the cache are not charged.
+     *
+     * @param rows the number of rows read
+     */
+    private static void chargeRows(long rows) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(RateLimiter.ROWS_READ_ATTRIBUTE, rows, RequestAttributes.SCOPE_REQUEST);
         }
     }
 
     /**
-     * Builds a safe column list for SELECT queries from the API definition's
-     * included columns, validated against the actual database schema.
+     * Builds a response that streams the rows of a query to the client while
+     * they are read from the database.
      *
-     * @param includedColumns comma-separated column list from API definition
-     * @param schemaColumns   the set of valid column names from the database
-     * @return a validated column list string, or "*" if all columns are allowed
+     * @param connection the external database connection
+     * @param tableName  the table being read, for logging
+     * @param columns    the discovered columns of the table
+     * @param sql        the query to execute
+     * @param params     the positional parameters of the query
+     * @param format     the response format
+     * @return the streaming response
+     * @throws SQLException if no connection can be obtained, e.g. because the database's bulkhead is full
      */
-    private String buildColumnList(String includedColumns, Set<String> schemaColumns) {
-        if (includedColumns == null || includedColumns.isEmpty()) {
-            return "*";
-        }
+    private ResponseEntity<StreamingResponseBody> streamRows(DbConnection connection, String tableName,
+            ColumnIndex columns, String sql, List<Object> params, RowFormat format) throws SQLException {
+        RowEncoder encoder = rowEncoders.get(format);
+        int flushInterval = queryExecutor.getFetchSize();
+        // The body runs on another thread after the rate limit filter has finished, so it charges its rows itself
+        Jwt jwt = SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken token
+                ? token.getToken()
+                : null;
+        // Borrow the connection while the status can still be 503; the body runs after the response is committed
+        Connection jdbc = queryExecutor.borrow(connection);
+        StreamingResponseBody body = outputStream -> {
+            try (jdbc) {
+                queryExecutor.stream(jdbc, sql, params, rs -> {
+                    long rows = encoder.encode(rs, columns, outputStream, flushInterval);
+                    if (jwt != null) {
+                        rateLimiter.chargeRows(jwt, rows);
+                    }
+                });
+            } catch (SQLException e) {
+                logger.error("Error streaming data from table {}", tableName, e);
+                throw new IOException("Error streaming data from table " + tableName, e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .body(body);
+    }
 
-        List<String> validColumns = new ArrayList<>();
-        for (String col : includedColumns.split(",")) {
-            String trimmed = col.trim();
-            if (isAllowedIdentifier(trimmed, schemaColumns)) {
-                validColumns.add(trimmed);
+    /**
+     * Looks up a map entry by key, ignoring case, since databases differ in how
+     * they report identifier case in metadata and result sets.
+     */
+    private static <V> V getIgnoreCase(Map<String, V> map, String key) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(key)) {
+                return entry.getValue();
             }
         }
-
-        return validColumns.isEmpty() ? "*" : String.join(", ", validColumns);
+        return null;
     }
 }
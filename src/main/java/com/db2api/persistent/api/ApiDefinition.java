@@ -65,6 +65,27 @@ public class ApiDefinition {
     @Column(name = "included_columns")
     private String includedColumns;
 
+    /**
+     * Maximum number of rows a single read may return. When null, the
+     * application-wide default from {@code app.dynamic.page.max-size} applies.
+     */
+    @Column(name = "max_page_size")
+    private Integer maxPageSize;
+
+    /**
+     * Time in seconds that GET results are served from the result cache.
+     * When null or zero, results are not cached.
+     */
+    @Column(name = "cache_ttl_seconds")
+    private Integer cacheTtlSeconds;
+
+    /**
+     * Maximum number of distinct GET results kept in the result cache. When
+     * null, {@code app.dynamic.result-cache.default-max-entries} applies.
+     */
+    @Column(name = "cache_max_entries")
+    private Integer cacheMaxEntries;
+
     /**
      * The database connection used by this API definition.
      */
@@ -67,6 +67,14 @@ public class DbConnection {
     @Column(name = "driver_class")
     private String driverClass;
 
+    /**
+     * Maximum number of keys per batched GraphQL relation query. When null,
+     * the application-wide default from {@code app.graphql.dataloader.batch-size}
+     * applies.
+     */
+    @Column(name = "graphql_batch_size")
+    private Integer graphqlBatchSize;
+
     /**
      * List of API definitions associated with this database connection.
      */
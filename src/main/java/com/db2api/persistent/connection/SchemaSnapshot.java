@@ -0,0 +1,44 @@
+package com.db2api.persistent.connection;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Entity representing the last discovered catalog of a database connection.
+ * Loaded on startup so APIs can be served before the external database has
+ * been introspected again.
+ */
+@Entity
+@Table(name = "schema_snapshot")
+@Getter
+@Setter
+public class SchemaSnapshot {
+
+    /**
+     * The ID of the connection the catalog belongs to.
+     */
+    @Id
+    @Column(name = "connection_id")
+    private Long connectionId;
+
+    /**
+     * The version of the stored catalog format; snapshots of other versions are ignored.
+     */
+    @Column(name = "format_version", nullable = false)
+    private int formatVersion;
+
+    /**
+     * Timestamp when the catalog was read from the database.
+     */
+    @Column(name = "discovered_at", nullable = false)
+    private Instant discoveredAt;
+
+    /**
+     * The tables of the catalog, as JSON.
+     */
+    @Column(name = "catalog", nullable = false, columnDefinition = "TEXT")
+    private String catalog;
+}
@@ -48,6 +48,14 @@ public class Client {
     @JoinColumn(name = "organization_id")
     private Organization organization;
 
+    /**
+     * Maximum API requests per second of this client. When null, the
+     * application-wide default from {@code app.rate-limit.client.requests-per-second}
+     * is used.
+     */
+    @Column(name = "requests_per_second")
+    private Integer requestsPerSecond;
+
     /**
      * The list of API definitions this client is authorized to access.
      */
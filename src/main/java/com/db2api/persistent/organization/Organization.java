@@ -42,6 +42,22 @@ public class Organization {
     @Column(name = "status")
     private String status;
 
+    /**
+     * Maximum cost of one GraphQL operation of this organization's clients.
+     * When null, the application-wide default from
+     * {@code app.graphql.cost.default-budget} is used.
+     */
+    @Column(name = "graphql_cost_budget")
+    private Integer graphqlCostBudget;
+
+    /**
+     * Maximum API requests per second of all this organization's clients
+     * together. When null, the application-wide default from
+     * {@code app.rate-limit.organization.requests-per-second} is used.
+     */
+    @Column(name = "requests_per_second")
+    private Integer requestsPerSecond;
+
     /**
      * List of clients belonging to this organization.
      */
@@ -2,8 +2,11 @@ package com.db2api.repository.api;
 
 import com.db2api.persistent.api.ApiDefinition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repository interface for {@link ApiDefinition} entities.
  */
@@ -18,4 +21,13 @@ public interface ApiDefinitionRepository extends JpaRepository<ApiDefinition, Lo
      * @return the ApiDefinition if found, or null otherwise
      */
     ApiDefinition findByTableNameAndApiType(String tableName, String apiType);
+
+    /**
+     * Finds all API definitions together with their database connections in a
+     * single query.
+     *
+     * @return all API definitions, with the connection association initialized
+     */
+    @Query("SELECT a FROM ApiDefinition a LEFT JOIN FETCH a.connection")
+    List<ApiDefinition> findAllWithConnection();
 }
@@ -3,8 +3,10 @@ package com.db2api.repository.auth;
 import com.db2api.persistent.auth.RevokedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Repository interface for {@link RevokedToken} entities.
@@ -20,6 +22,22 @@ public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Stri
      */
     boolean existsByJti(String jti);
 
+    /**
+     * Finds the revoked tokens that have not expired yet.
+     *
+     * @param now the current time
+     * @return the entries expiring after the given time
+     */
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    /**
+     * Finds the tokens revoked after the given time, e.g. by other instances.
+     *
+     * @param since the time of the last lookup
+     * @return the entries revoked after the given time
+     */
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+
     /**
      * Deletes all revoked token entries that have expired.
      * Useful for periodic cleanup.
@@ -27,5 +45,6 @@ public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Stri
      * @param now the current time
      * @return the number of entries deleted
      */
+    @Transactional
     long deleteByExpiresAtBefore(Instant now);
 }
@@ -0,0 +1,12 @@
+package com.db2api.repository.connection;
+
+import com.db2api.persistent.connection.SchemaSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for {@link SchemaSnapshot} entities.
+ */
+@Repository
+public interface SchemaSnapshotRepository extends JpaRepository<SchemaSnapshot, Long> {
+}
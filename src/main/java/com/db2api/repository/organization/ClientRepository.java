@@ -1,6 +1,7 @@
 package com.db2api.repository.organization;
 
 import com.db2api.persistent.organization.Client;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,5 +10,6 @@ import java.util.Optional;
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
+    @EntityGraph(attributePaths = "organization")
     Optional<Client> findByClientId(String clientId);
 }
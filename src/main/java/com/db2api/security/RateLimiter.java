@@ -0,0 +1,144 @@
+package com.db2api.security;
+
+import com.db2api.config.TokenClaims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits API requests per client, keyed by the subject of the access
+ * token, and per organization, keyed by its {@link TokenClaims#ORGANIZATION}
+ * claim. A request needs a token from both buckets.
+ * <p>
+ * Limits are requests per second, taken from the token's
+ * {@link TokenClaims#RATE_LIMIT} and {@link TokenClaims#ORGANIZATION_RATE_LIMIT}
+ * claims or else from the configured defaults; a limit of 0 disables the
+ * bucket. Buckets hold {@code app.rate-limit.burst-seconds} worth of tokens.
+ * Reads can additionally be charged per row returned, see
+ * {@link #chargeRows(Jwt, long)}.
+ * <p>
+ * Buckets live in a {@link ConcurrentHashMap}, whose reads take no lock, and
+ * are updated with a single compare-and-set (see {@link TokenBucket}), so a
+ * check costs a map lookup and an atomic update per bucket.
+ */
+@Component
+public class RateLimiter {
+
+    /** Request attribute holding the number of rows a request read from an external database. */
+    public static final String ROWS_READ_ATTRIBUTE = RateLimiter.class.getName() + ".rowsRead";
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long epoch = System.nanoTime();
+
+    private final int defaultClientLimit;
+    private final int defaultOrganizationLimit;
+    private final double burstSeconds;
+    private final double rowWeight;
+
+    /**
+     * Constructs the rate limiter.
+     *
+     * @param defaultClientLimit       the requests per second of clients without their own limit
+     * @param defaultOrganizationLimit the requests per second of organizations without their own limit
+     * @param burstSeconds             the seconds of requests a full bucket holds
+     * @param rowWeight                the requests charged per row read, 0 to charge requests only
+     */
+    public RateLimiter(@Value("${app.rate-limit.client.requests-per-second:50}") int defaultClientLimit,
+            @Value("${app.rate-limit.organization.requests-per-second:200}") int defaultOrganizationLimit,
+            @Value("${app.rate-limit.burst-seconds:2}") double burstSeconds,
+            @Value("${app.rate-limit.row-weight:0}") double rowWeight) {
+        this.defaultClientLimit = defaultClientLimit;
+        this.defaultOrganizationLimit = defaultOrganizationLimit;
+        this.burstSeconds = burstSeconds;
+        this.rowWeight = rowWeight;
+    }
+
+    /**
+     * Takes one request from the buckets of the token's client and
+     * organization.
+     *
+     * @param jwt the access token of the request
+     * @return 0 if the request may proceed, else the nanoseconds after which it may be retried
+     */
+    public long tryAcquire(Jwt jwt) {
+        return tryAcquire(jwt, now());
+    }
+
+    long tryAcquire(Jwt jwt, long now) {
+        int clientLimit = limit(jwt, TokenClaims.RATE_LIMIT, defaultClientLimit);
+        long clientCost = clientLimit > 0 ? SECOND / clientLimit : 0;
+        TokenBucket client = clientLimit > 0 ? bucket("client:" + jwt.getSubject()) : null;
+        if (client != null) {
+            long wait = client.tryTake(now, clientCost, burst(clientCost));
+            if (wait > 0) {
+                return wait;
+            }
+        }
+
+        Object organizationId = jwt.getClaims().get(TokenClaims.ORGANIZATION);
+        int organizationLimit = limit(jwt, TokenClaims.ORGANIZATION_RATE_LIMIT, defaultOrganizationLimit);
+        if (organizationId != null && organizationLimit > 0) {
+            long cost = SECOND / organizationLimit;
+            long wait = bucket("org:" + organizationId).tryTake(now, cost, burst(cost));
+            if (wait > 0) {
+                if (client != null) {
+                    // The request is not served, so it does not count against the client
+                    client.giveBack(clientCost);
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Charges the rows a request read against its client and organization,
+     * at {@code app.rate-limit.row-weight} requests per row. Buckets may go
+     * into debt, which delays the following requests.
+     *
+     * @param jwt  the access token of the request
+     * @param rows the number of rows read
+     */
+    public void chargeRows(Jwt jwt, long rows) {
+        chargeRows(jwt, rows, now());
+    }
+
+    void chargeRows(Jwt jwt, long rows, long now) {
+        if (rowWeight <= 0 || rows <= 0) {
+            return;
+        }
+        int clientLimit = limit(jwt, TokenClaims.RATE_LIMIT, defaultClientLimit);
+        if (clientLimit > 0) {
+            bucket("client:" + jwt.getSubject()).take(now, (long) (rows * rowWeight * SECOND / clientLimit));
+        }
+        Object organizationId = jwt.getClaims().get(TokenClaims.ORGANIZATION);
+        int organizationLimit = limit(jwt, TokenClaims.ORGANIZATION_RATE_LIMIT, defaultOrganizationLimit);
+        if (organizationId != null && organizationLimit > 0) {
+            bucket("org:" + organizationId).take(now, (long) (rows * rowWeight * SECOND / organizationLimit));
+        }
+    }
+
+    private TokenBucket bucket(String key) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket != null ? bucket : buckets.computeIfAbsent(key, ignored -> new TokenBucket());
+    }
+
+    private static int limit(Jwt jwt, String claim, int defaultLimit) {
+        return jwt.getClaims().get(claim) instanceof Number limit ? limit.intValue() : defaultLimit;
+    }
+
+    private long burst(long cost) {
+        // Always allow at least one request
+        return Math.max((long) (burstSeconds * SECOND), cost);
+    }
+
+    private long now() {
+        return System.nanoTime() - epoch;
+    }
+}
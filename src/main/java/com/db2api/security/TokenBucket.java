@@ -0,0 +1,58 @@
+package com.db2api.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single timestamp: the time at which the
+ * bucket would be full again (the "theoretical arrival time" of the generic
+ * cell rate algorithm). Taking tokens moves the timestamp forward by their
+ * refill time; a request is allowed while the timestamp stays within the
+ * burst allowance ahead of now. Each operation is one read and one
+ * compare-and-set.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt = new AtomicLong();
+
+    /**
+     * Takes tokens if the bucket holds enough.
+     *
+     * @param now        the current time in nanoseconds, never decreasing
+     * @param costNanos  the refill time of the tokens taken
+     * @param burstNanos the refill time of a full bucket
+     * @return 0 if the tokens were taken, else the nanoseconds until enough have been refilled
+     */
+    long tryTake(long now, long costNanos, long burstNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + costNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Takes tokens unconditionally, leaving the bucket in debt if it holds
+     * too few, so that later requests wait for the difference.
+     *
+     * @param now       the current time in nanoseconds
+     * @param costNanos the refill time of the tokens taken
+     */
+    void take(long now, long costNanos) {
+        fullAt.getAndUpdate(current -> Math.max(current, now) + costNanos);
+    }
+
+    /**
+     * Returns tokens taken by a request that was rejected elsewhere.
+     *
+     * @param costNanos the refill time of the tokens returned
+     */
+    void giveBack(long costNanos) {
+        fullAt.addAndGet(-costNanos);
+    }
+}
@@ -4,10 +4,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Arrays;
@@ -26,11 +28,13 @@ public class EncryptionService {
     private static final String ALGORITHM = "AES/GCM/NoPadding";
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 128;
+    private static final String IV_MAC_ALGORITHM = "HmacSHA256";
 
     @Value("${app.encryption.secret:defaultSecretKey123}")
     private String secret;
 
     private SecretKeySpec secretKey;
+    private SecretKeySpec ivKey;
     private final SecureRandom secureRandom = new SecureRandom();
 
     /**
@@ -43,6 +47,8 @@ public class EncryptionService {
             key = sha.digest(key);
             key = Arrays.copyOf(key, 32); // 256-bit key for AES-256
             secretKey = new SecretKeySpec(key, "AES");
+            // A separate key derives the IVs of deterministic encryption
+            ivKey = new SecretKeySpec(sha.digest(("iv:" + secret).getBytes(StandardCharsets.UTF_8)), IV_MAC_ALGORITHM);
         } catch (Exception e) {
             logger.error("Error while preparing key", e);
         }
@@ -114,4 +120,47 @@ public class EncryptionService {
         }
         return null;
     }
+
+    /**
+     * Encrypts the given bytes using AES/GCM with an IV derived from them, so
+     * equal inputs give equal ciphertexts. Only use it for values whose
+     * equality may be seen, such as continuation tokens that are cached and
+     * compared; the ciphertext is still authenticated.
+     *
+     * @param plaintext the bytes to encrypt
+     * @return the ciphertext with the IV prepended
+     * @throws GeneralSecurityException if the bytes cannot be encrypted
+     */
+    public byte[] encryptDeterministic(byte[] plaintext) throws GeneralSecurityException {
+        prepareSecretKey();
+        Mac mac = Mac.getInstance(IV_MAC_ALGORITHM);
+        mac.init(ivKey);
+        byte[] iv = Arrays.copyOf(mac.doFinal(plaintext), GCM_IV_LENGTH);
+
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        byte[] encrypted = cipher.doFinal(plaintext);
+
+        return ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+    }
+
+    /**
+     * Decrypts bytes produced by {@link #encryptDeterministic(byte[])}.
+     * Unlike {@link #decrypt(String)} failures are thrown rather than logged,
+     * since the input usually comes from a client.
+     *
+     * @param ciphertext the ciphertext with the IV prepended
+     * @return the plaintext
+     * @throws GeneralSecurityException if the ciphertext is malformed or was tampered with
+     */
+    public byte[] decryptBytes(byte[] ciphertext) throws GeneralSecurityException {
+        // Shorter input cannot hold the IV and tag, and the cipher would fail with an unchecked exception
+        if (ciphertext.length < GCM_IV_LENGTH + GCM_TAG_LENGTH / 8) {
+            throw new GeneralSecurityException("Ciphertext too short");
+        }
+        prepareSecretKey();
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_LENGTH, ciphertext, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(ciphertext, GCM_IV_LENGTH, ciphertext.length - GCM_IV_LENGTH);
+    }
 }
@@ -13,11 +13,15 @@ import java.util.List;
 public class ApiDefinitionService {
 
     private final ApiDefinitionRepository apiDefinitionRepository;
+    private final ApiRouteTable apiRouteTable;
+    private final ResultCache resultCache;
     private final DynamicGraphQLProvider dynamicGraphQLProvider;
 
-    public ApiDefinitionService(ApiDefinitionRepository apiDefinitionRepository,
-            @Lazy DynamicGraphQLProvider dynamicGraphQLProvider) {
+    public ApiDefinitionService(ApiDefinitionRepository apiDefinitionRepository, ApiRouteTable apiRouteTable,
+            ResultCache resultCache, @Lazy DynamicGraphQLProvider dynamicGraphQLProvider) {
         this.apiDefinitionRepository = apiDefinitionRepository;
+        this.apiRouteTable = apiRouteTable;
+        this.resultCache = resultCache;
         this.dynamicGraphQLProvider = dynamicGraphQLProvider;
     }
 
@@ -29,14 +33,30 @@ public class ApiDefinitionService {
         return apiDefinitionRepository.findByTableNameAndApiType(tableName, apiType);
     }
 
+    /**
+     * Resolves the route of an API from the in-memory route table, without a
+     * system database round trip.
+     *
+     * @param tableName the name of the exposed table
+     * @param apiType   the type of API (REST or GraphQL)
+     * @return the route, or null if no such API is defined
+     */
+    public ApiRoute getRoute(String tableName, String apiType) {
+        return apiRouteTable.find(tableName, apiType);
+    }
+
     public void saveApiDefinition(ApiDefinition apiDefinition) {
         apiDefinitionRepository.save(apiDefinition);
-        dynamicGraphQLProvider.refreshSchema();
+        apiRouteTable.rebuild();
+        resultCache.evict(apiDefinition.getId());
+        dynamicGraphQLProvider.refreshSchema(apiDefinition.getId());
     }
 
     public void deleteApiDefinition(ApiDefinition apiDefinition) {
         apiDefinitionRepository.delete(apiDefinition);
-        dynamicGraphQLProvider.refreshSchema();
+        apiRouteTable.rebuild();
+        resultCache.evict(apiDefinition.getId());
+        dynamicGraphQLProvider.refreshSchema(apiDefinition.getId());
     }
 
     public ApiDefinition createNewApiDefinition() {
@@ -0,0 +1,106 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.api.ApiDefinition;
+import com.db2api.persistent.connection.DbConnection;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, resolved view of an {@link ApiDefinition} used on the request
+ * path. Allowed operations are parsed into a set once, and the connection is a
+ * detached copy that never triggers lazy loading from the system database.
+ *
+ * @param id              the ID of the API definition
+ * @param name            the name of the API definition
+ * @param tableName       the exposed table
+ * @param apiType         the API type (REST or GraphQL)
+ * @param operations      the allowed operations, upper case
+ * @param includedColumns comma-separated list of exposed columns, may be null
+ * @param maxPageSize     the maximum page size, or null for the application default
+ * @param cacheTtlSeconds the result cache TTL in seconds, or null if results are not cached
+ * @param cacheMaxEntries the maximum number of cached results, or null for the application default
+ * @param connection      a detached copy of the definition's database connection
+ */
+public record ApiRoute(Long id, String name, String tableName, String apiType, Set<String> operations,
+        String includedColumns, Integer maxPageSize, Integer cacheTtlSeconds, Integer cacheMaxEntries,
+        DbConnection connection) {
+
+    /**
+     * Resolves a route from an API definition whose connection is loaded.
+     *
+     * @param definition the API definition
+     * @return the route
+     */
+    public static ApiRoute from(ApiDefinition definition) {
+        return new ApiRoute(definition.getId(), definition.getName(), definition.getTableName(),
+                definition.getApiType(), parseOperations(definition.getAllowedOperations()),
+                definition.getIncludedColumns(), definition.getMaxPageSize(), definition.getCacheTtlSeconds(),
+                definition.getCacheMaxEntries(), detach(definition.getConnection()));
+    }
+
+    /**
+     * @param operation the operation, e.g. GET
+     * @return true if the operation is allowed on this route
+     */
+    public boolean allows(String operation) {
+        return operations.contains(operation);
+    }
+
+    /**
+     * Resolves the effective page size of a read, capped by this route's
+     * maximum page size or, without one, by the application maximum.
+     *
+     * @param requested   the page size requested by the client, or null
+     * @param defaultSize the application default page size
+     * @param maxSize     the application maximum page size
+     * @return the number of rows to return
+     */
+    public int pageSize(Integer requested, int defaultSize, int maxSize) {
+        int cap = maxPageSize != null && maxPageSize > 0 ? maxPageSize : maxSize;
+        return Math.min(requested != null ? requested : defaultSize, cap);
+    }
+
+    /**
+     * @return true if GET results of this route are cached
+     */
+    public boolean isCached() {
+        return cacheTtlSeconds != null && cacheTtlSeconds > 0;
+    }
+
+    /**
+     * Parses a comma-separated operation list such as {@code GET,PUT}.
+     *
+     * @param allowedOperations the operation list, may be null
+     * @return the operations, upper case
+     */
+    static Set<String> parseOperations(String allowedOperations) {
+        if (allowedOperations == null || allowedOperations.isBlank()) {
+            return Set.of();
+        }
+        // Admins may list an operation twice, which Set.of would reject
+        return Arrays.stream(allowedOperations.split(","))
+                .map(String::trim)
+                .map(op -> op.toUpperCase(Locale.ROOT))
+                .filter(Predicate.not(String::isEmpty))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static DbConnection detach(DbConnection connection) {
+        if (connection == null) {
+            return null;
+        }
+        DbConnection copy = new DbConnection();
+        copy.setId(connection.getId());
+        copy.setName(connection.getName());
+        copy.setUrl(connection.getUrl());
+        copy.setUsername(connection.getUsername());
+        copy.setPassword(connection.getPassword());
+        copy.setDriverClass(connection.getDriverClass());
+        copy.setGraphqlBatchSize(connection.getGraphqlBatchSize());
+        return copy;
+    }
+}
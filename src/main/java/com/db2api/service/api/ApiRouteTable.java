@@ -0,0 +1,114 @@
+package com.db2api.service.api;
+
+import com.db2api.repository.api.ApiDefinitionRepository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory routing table resolving dynamic API requests to their
+ * {@link ApiRoute}s without touching the system database.
+ * <p>
+ * The table is an immutable snapshot replaced as a whole (copy-on-write)
+ * whenever API definitions or connections change. Because every defined route
+ * is present, a lookup that misses is an authoritative "not found" and never
+ * falls through to the database.
+ */
+@Component
+public class ApiRouteTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiRouteTable.class);
+
+    private final ApiDefinitionRepository apiDefinitionRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), List.of());
+
+    /**
+     * Constructs the ApiRouteTable.
+     *
+     * @param apiDefinitionRepository the repository the routes are loaded from
+     */
+    public ApiRouteTable(ApiDefinitionRepository apiDefinitionRepository) {
+        this.apiDefinitionRepository = apiDefinitionRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Looks up the route for a table and API type.
+     *
+     * @param tableName the table name from the request
+     * @param apiType   the API type (REST or GraphQL)
+     * @return the route, or null if no such API is defined
+     */
+    public ApiRoute find(String tableName, String apiType) {
+        if (tableName == null || apiType == null) {
+            return null;
+        }
+        return snapshot.routes().get(new RouteKey(tableName, apiType.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @return all routes, in definition order
+     */
+    public List<ApiRoute> getRoutes() {
+        return snapshot.all();
+    }
+
+    /**
+     * Returns all routes of the given API type.
+     *
+     * @param apiType the API type (REST or GraphQL)
+     * @return the matching routes, in definition order
+     */
+    public List<ApiRoute> getRoutes(String apiType) {
+        return snapshot.all().stream()
+                .filter(route -> apiType.equalsIgnoreCase(route.apiType()))
+                .toList();
+    }
+
+    /**
+     * @return the version of the current snapshot, incremented on every rebuild
+     */
+    public long getVersion() {
+        return snapshot.version();
+    }
+
+    /**
+     * Reloads all API definitions and atomically replaces the routing table.
+     * Requests in flight keep using the snapshot they started with.
+     */
+    public synchronized void rebuild() {
+        List<ApiRoute> routes = apiDefinitionRepository.findAllWithConnection().stream()
+                .filter(def -> def.getTableName() != null && def.getApiType() != null)
+                .map(ApiRoute::from)
+                .toList();
+
+        Map<RouteKey, ApiRoute> index = new HashMap<>();
+        for (ApiRoute route : routes) {
+            RouteKey key = new RouteKey(route.tableName(), route.apiType().toUpperCase(Locale.ROOT));
+            if (index.putIfAbsent(key, route) != null) {
+                logger.warn("Duplicate {} API definition for table {}, keeping the first",
+                        route.apiType(), route.tableName());
+            }
+        }
+        snapshot = new Snapshot(snapshot.version() + 1, Map.copyOf(index), routes);
+        logger.debug("Rebuilt API route table version {} with {} routes", snapshot.version(), routes.size());
+    }
+
+    private record RouteKey(String tableName, String apiType) {
+    }
+
+    private record Snapshot(long version, Map<RouteKey, ApiRoute> routes, List<ApiRoute> all) {
+    }
+}
@@ -0,0 +1,350 @@
+package com.db2api.service.api;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes rows in the Arrow IPC streaming format: a schema message followed by
+ * record batches of up to the configured number of rows. Column types come
+ * from the discovered {@link ColumnIndex}, falling back to the result set
+ * metadata for columns discovery does not know, and values are copied by
+ * column index straight into typed vectors, so clients such as pandas or
+ * Polars can map the batches without parsing.
+ * <p>
+ * Numeric, boolean, date/time and binary columns map to their Arrow
+ * counterparts; timestamps are written with microsecond precision, and all
+ * other types as UTF-8 strings.
+ */
+public class ArrowRowEncoder implements RowEncoder {
+
+    /** The largest precision an Arrow 128-bit decimal can hold. */
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private final BufferAllocator allocator;
+    private final int batchRows;
+
+    /**
+     * Creates an Arrow encoder.
+     *
+     * @param allocator the allocator the per-request vectors are allocated from
+     * @param batchRows the maximum number of rows per record batch
+     */
+    public ArrowRowEncoder(BufferAllocator allocator, int batchRows) {
+        this.allocator = allocator;
+        this.batchRows = batchRows;
+    }
+
+    @Override
+    public RowFormat format() {
+        return RowFormat.ARROW;
+    }
+
+    /**
+     * Writes the rows as record batches. Every batch is flushed once written,
+     * so the flush interval is superseded by the batch row count.
+     */
+    @Override
+    public long encode(ResultSet rs, ColumnIndex columns, OutputStream out, int flushInterval)
+            throws SQLException, IOException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<Field> fields = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            fields.add(field(metaData, i, columns));
+        }
+
+        try (BufferAllocator requestAllocator = allocator.newChildAllocator("arrow-export", 0, Long.MAX_VALUE);
+                VectorSchemaRoot root = VectorSchemaRoot.create(new Schema(fields), requestAllocator);
+                ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(nonClosing(out)))) {
+            List<ColumnWriter> writers = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                writers.add(columnWriter(root.getVector(i)));
+            }
+
+            writer.start();
+            long count = 0;
+            boolean more = rs.next();
+            while (more) {
+                root.allocateNew();
+                int row = 0;
+                do {
+                    for (int i = 0; i < columnCount; i++) {
+                        writers.get(i).write(rs, i + 1, row);
+                    }
+                    row++;
+                    more = rs.next();
+                } while (more && row < batchRows);
+                root.setRowCount(row);
+                count += row;
+                writer.writeBatch();
+                out.flush();
+            }
+            writer.end();
+            out.flush();
+            return count;
+        }
+    }
+
+    /**
+     * Shields the response stream from the writer, which closes its channel.
+     */
+    private static OutputStream nonClosing(OutputStream out) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Copies the value of one column of the current row into a vector.
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(ResultSet rs, int column, int row) throws SQLException;
+    }
+
+    /**
+     * Declares the Arrow field of a result column.
+     */
+    private static Field field(ResultSetMetaData metaData, int column, ColumnIndex columns) throws SQLException {
+        String label = metaData.getColumnLabel(column);
+        Integer discovered = columns.sqlType(label);
+        int sqlType = discovered != null ? discovered : metaData.getColumnType(column);
+        return new Field(label, FieldType.nullable(arrowType(sqlType, metaData, column)), null);
+    }
+
+    private static ArrowType arrowType(int sqlType, ResultSetMetaData metaData, int column) throws SQLException {
+        return switch (sqlType) {
+            case Types.BIT, Types.BOOLEAN -> ArrowType.Bool.INSTANCE;
+            case Types.TINYINT -> new ArrowType.Int(8, true);
+            case Types.SMALLINT -> new ArrowType.Int(16, true);
+            case Types.INTEGER -> new ArrowType.Int(32, true);
+            case Types.BIGINT -> new ArrowType.Int(64, true);
+            case Types.REAL -> new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+            case Types.FLOAT, Types.DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case Types.NUMERIC, Types.DECIMAL -> {
+                // Unconstrained numerics (precision 0) and oversized ones do not fit a decimal128
+                int precision = metaData.getPrecision(column);
+                int scale = metaData.getScale(column);
+                yield precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision
+                        ? new ArrowType.Decimal(precision, scale, 128)
+                        : ArrowType.Utf8.INSTANCE;
+            }
+            case Types.DATE -> new ArrowType.Date(DateUnit.DAY);
+            case Types.TIME -> new ArrowType.Time(TimeUnit.MICROSECOND, 64);
+            case Types.TIMESTAMP -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+            case Types.TIMESTAMP_WITH_TIMEZONE -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> ArrowType.Binary.INSTANCE;
+            default -> ArrowType.Utf8.INSTANCE;
+        };
+    }
+
+    /**
+     * Creates the writer filling a vector, choosing the typed JDBC getter
+     * that matches the vector so values are not boxed.
+     */
+    private static ColumnWriter columnWriter(FieldVector vector) {
+        if (vector instanceof BitVector v) {
+            return (rs, column, row) -> {
+                boolean value = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value ? 1 : 0);
+                }
+            };
+        }
+        if (vector instanceof TinyIntVector v) {
+            return (rs, column, row) -> {
+                byte value = rs.getByte(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof SmallIntVector v) {
+            return (rs, column, row) -> {
+                short value = rs.getShort(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof IntVector v) {
+            return (rs, column, row) -> {
+                int value = rs.getInt(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof BigIntVector v) {
+            return (rs, column, row) -> {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof Float4Vector v) {
+            return (rs, column, row) -> {
+                float value = rs.getFloat(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof Float8Vector v) {
+            return (rs, column, row) -> {
+                double value = rs.getDouble(column);
+                if (rs.wasNull()) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        if (vector instanceof DecimalVector v) {
+            int scale = v.getScale();
+            return (rs, column, row) -> {
+                BigDecimal value = rs.getBigDecimal(column);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value.setScale(scale, RoundingMode.HALF_UP));
+                }
+            };
+        }
+        if (vector instanceof DateDayVector v) {
+            return (rs, column, row) -> {
+                Date value = rs.getDate(column);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, (int) value.toLocalDate().toEpochDay());
+                }
+            };
+        }
+        if (vector instanceof TimeMicroVector v) {
+            return (rs, column, row) -> {
+                Time value = rs.getTime(column);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value.toLocalTime().toNanoOfDay() / 1000);
+                }
+            };
+        }
+        if (vector instanceof TimeStampMicroTZVector v) {
+            return (rs, column, row) -> {
+                OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, ChronoUnit.MICROS.between(Instant.EPOCH, value.toInstant()));
+                }
+            };
+        }
+        if (vector instanceof TimeStampMicroVector v) {
+            return (rs, column, row) -> {
+                Timestamp value = rs.getTimestamp(column);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    // Zone-less timestamps keep their wall-clock value, as Arrow expects
+                    v.setSafe(row, ChronoUnit.MICROS.between(Instant.EPOCH,
+                            value.toLocalDateTime().toInstant(ZoneOffset.UTC)));
+                }
+            };
+        }
+        if (vector instanceof VarBinaryVector v) {
+            return (rs, column, row) -> {
+                byte[] value = rs.getBytes(column);
+                if (value == null) {
+                    v.setNull(row);
+                } else {
+                    v.setSafe(row, value);
+                }
+            };
+        }
+        VarCharVector v = (VarCharVector) vector;
+        return (rs, column, row) -> {
+            String value = SqlValues.format(rs.getObject(column));
+            if (value == null) {
+                v.setNull(row);
+            } else {
+                v.setSafe(row, value.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+}
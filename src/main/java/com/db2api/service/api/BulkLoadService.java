@@ -0,0 +1,305 @@
+package com.db2api.service.api;
+
+import com.db2api.service.connection.ExternalConnectivityService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads large uploads of CSV or newline-delimited JSON into a table.
+ * <p>
+ * On PostgreSQL the request body is streamed into {@code COPY ... FROM STDIN}
+ * on a pooled connection, so the upload is never held in memory and is loaded
+ * in a single statement. Other databases fall back to chunked JDBC batches
+ * within one transaction.
+ */
+@Service
+public class BulkLoadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkLoadService.class);
+
+    /** Size of the chunks of CSV sent to the server during a COPY. */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    private final ExternalConnectivityService externalConnectivityService;
+    private final QueryCompiler queryCompiler;
+    private final DynamicQueryExecutor queryExecutor;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dynamic.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    /**
+     * Constructs the BulkLoadService.
+     *
+     * @param externalConnectivityService the service providing pooled data sources
+     * @param queryCompiler               the compiler validating columns and building inserts
+     * @param queryExecutor               the executor for the batched fallback
+     * @param objectMapper                the JSON mapper used to read NDJSON uploads
+     */
+    public BulkLoadService(ExternalConnectivityService externalConnectivityService, QueryCompiler queryCompiler,
+            DynamicQueryExecutor queryExecutor, ObjectMapper objectMapper) {
+        this.externalConnectivityService = externalConnectivityService;
+        this.queryCompiler = queryCompiler;
+        this.queryExecutor = queryExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Formats accepted by {@link #load(ApiRoute, InputStream, Format)}.
+     */
+    public enum Format {
+        /** Comma-separated values with a header row naming the columns. */
+        CSV,
+        /** One JSON object per line. */
+        NDJSON
+    }
+
+    /**
+     * Loads all rows of an upload into the route's table.
+     *
+     * @param route  the API route
+     * @param body   the upload, already decompressed
+     * @param format the format of the upload
+     * @return the number of rows loaded
+     * @throws IllegalArgumentException if the upload names unknown columns or is malformed
+     * @throws SQLException             if the database rejects the data
+     * @throws IOException              if reading the upload fails
+     */
+    public long load(ApiRoute route, InputStream body, Format format) throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        long rows;
+        if (SqlDialect.of(route.connection()) == SqlDialect.POSTGRESQL) {
+            rows = format == Format.CSV ? copyCsv(route, body) : copyNdjson(route, body);
+        } else {
+            rows = format == Format.CSV ? batchCsv(route, body) : batchNdjson(route, body);
+        }
+        logger.info("Bulk loaded {} rows into {} in {} ms", rows, route.tableName(),
+                System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Streams a CSV upload into COPY. Only the header row is parsed here; the
+     * data rows are passed to the server untouched.
+     */
+    private long copyCsv(ApiRoute route, InputStream body) throws SQLException, IOException {
+        InputStream in = new BufferedInputStream(body, COPY_BUFFER_SIZE);
+        List<String> header = readHeader(in);
+        if (header == null) {
+            return 0;
+        }
+        List<String> columns = resolveHeader(route, header);
+        try (Connection jdbc = externalConnectivityService.getDataSource(route.connection()).getConnection()) {
+            CopyManager copyManager = jdbc.unwrap(PGConnection.class).getCopyAPI();
+            return copyManager.copyIn(copySql(route, columns), in, COPY_BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Converts an NDJSON upload to CSV on the fly and streams it into COPY. The
+     * first object determines the column list; later objects may omit columns
+     * (loaded as NULL) but not add new ones.
+     */
+    private long copyNdjson(ApiRoute route, InputStream body) throws SQLException, IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            Map<String, Object> first = nextObject(parser, 1);
+            if (first == null) {
+                return 0;
+            }
+            ColumnIndex index = queryCompiler.columns(route);
+            List<String> columns = index.canonicalOrder(first.keySet());
+
+            try (Connection jdbc = externalConnectivityService.getDataSource(route.connection()).getConnection()) {
+                CopyIn copyIn = jdbc.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql(route, columns));
+                try {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE + 1024);
+                    Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+                    CsvWriter csv = new CsvWriter(writer);
+                    long row = 1;
+                    for (Map<String, Object> data = first; data != null; data = nextObject(parser, ++row)) {
+                        csv.writeRecord(toRecord(index, columns, data, row));
+                        writer.flush();
+                        if (buffer.size() >= COPY_BUFFER_SIZE) {
+                            copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                            buffer.reset();
+                        }
+                    }
+                    if (buffer.size() > 0) {
+                        copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    }
+                    return copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+            }
+        }
+    }
+
+    private long batchCsv(ApiRoute route, InputStream body) throws SQLException, IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(new BufferedInputStream(body), StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        if (header == null) {
+            return 0;
+        }
+        List<String> columns = resolveHeader(route, header);
+        long[] row = {0};
+        return sum(queryExecutor.executeBatch(route.connection(), () -> {
+            List<String> record = reader.next();
+            if (record == null) {
+                return null;
+            }
+            row[0]++;
+            if (record.size() != columns.size()) {
+                throw new IllegalArgumentException("Row " + row[0] + ": expected " + columns.size()
+                        + " fields but found " + record.size());
+            }
+            Map<String, Object> data = new LinkedHashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                data.put(columns.get(i), record.get(i));
+            }
+            return insert(route, data, row[0]);
+        }, batchChunkSize));
+    }
+
+    private long batchNdjson(ApiRoute route, InputStream body) throws SQLException, IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            long[] row = {0};
+            return sum(queryExecutor.executeBatch(route.connection(), () -> {
+                Map<String, Object> data = nextObject(parser, ++row[0]);
+                return data != null ? insert(route, data, row[0]) : null;
+            }, batchChunkSize));
+        }
+    }
+
+    private CompiledStatement insert(ApiRoute route, Map<String, Object> data, long row) {
+        try {
+            return queryCompiler.insert(route, data);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Row " + row + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the next top-level JSON object of an NDJSON stream.
+     *
+     * @return the object, or null at the end of the stream
+     */
+    private Map<String, Object> nextObject(JsonParser parser, long row) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Row " + row + ": expected a JSON object");
+        }
+        return objectMapper.readValue(parser, ROW_TYPE);
+    }
+
+    /**
+     * Orders the values of an NDJSON object by the COPY column list. Nested
+     * objects and arrays are loaded as their JSON text.
+     */
+    private List<Object> toRecord(ColumnIndex index, List<String> columns, Map<String, Object> data, long row)
+            throws IOException {
+        Map<String, Object> byColumn = new HashMap<>(data.size() * 2);
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            String column = index.resolve(entry.getKey());
+            if (column == null || !columns.contains(column)) {
+                throw new IllegalArgumentException("Row " + row + ": column " + entry.getKey()
+                        + " is unknown or missing from the first row");
+            }
+            Object value = entry.getValue();
+            byColumn.put(column, value instanceof Map || value instanceof Collection
+                    ? objectMapper.writeValueAsString(value)
+                    : value);
+        }
+        List<Object> record = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            record.add(byColumn.get(column));
+        }
+        return record;
+    }
+
+    /**
+     * Validates the CSV header against the table's columns, keeping its order.
+     */
+    private List<String> resolveHeader(ApiRoute route, List<String> header) {
+        ColumnIndex index = queryCompiler.columns(route);
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            String column = index.require(name != null ? name.trim() : "");
+            if (columns.contains(column)) {
+                throw new IllegalArgumentException("Duplicate column in CSV header: " + name);
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * Reads the header row byte by byte, leaving the stream positioned on the
+     * first data row.
+     *
+     * @return the header fields, or null if the upload is empty
+     */
+    private static List<String> readHeader(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        boolean inQuotes = false;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                break;
+            }
+            line.write(b);
+        }
+        String header = line.toString(StandardCharsets.UTF_8);
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Reader reader = new StringReader(header);
+        return new CsvReader(reader).next();
+    }
+
+    private static String copySql(ApiRoute route, List<String> columns) {
+        return "COPY " + route.tableName() + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+    }
+
+    private static long sum(List<Integer> counts) {
+        return counts.stream().mapToLong(Integer::longValue).sum();
+    }
+}
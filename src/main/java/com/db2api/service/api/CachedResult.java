@@ -0,0 +1,40 @@
+package com.db2api.service.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A serialized read result as kept in the {@link ResultCache}.
+ *
+ * @param body          the JSON response body
+ * @param nextPageToken the continuation token of the next page, or null on the last page
+ * @param etag          the strong entity tag of the result, derived from its content
+ */
+public record CachedResult(byte[] body, String nextPageToken, String etag) {
+
+    /**
+     * Creates a result, computing its entity tag from the body and token.
+     *
+     * @param body          the JSON response body
+     * @param nextPageToken the continuation token of the next page, or null
+     * @return the result
+     */
+    public static CachedResult of(byte[] body, String nextPageToken) {
+        MessageDigest digest = sha256();
+        digest.update(body);
+        if (nextPageToken != null) {
+            digest.update(nextPageToken.getBytes(StandardCharsets.US_ASCII));
+        }
+        return new CachedResult(body, nextPageToken, "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"");
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.db2api.service.api;
+
+/**
+ * Published by {@link SchemaDiscoveryService} when the discovered catalog of
+ * a connection differs from the one it replaces, for example when a
+ * background revalidation finds a table that changed since the stored
+ * snapshot was taken.
+ *
+ * @param connectionId the ID of the connection whose catalog changed
+ */
+public record CatalogChangedEvent(Long connectionId) {
+}
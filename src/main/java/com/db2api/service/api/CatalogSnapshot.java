@@ -0,0 +1,95 @@
+package com.db2api.service.api;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the catalog of one external database connection:
+ * every table and view with its columns, types, nullability, primary key and
+ * foreign keys. Produced by one bulk metadata sweep in
+ * {@link SchemaDiscoveryService} and shared by schema generation, request
+ * validation and the admin UI.
+ */
+public final class CatalogSnapshot {
+
+    private final Long connectionId;
+    private final long version;
+    private final Instant discoveredAt;
+    private final Map<String, TableSchema> tables;
+    private final Map<String, TableSchema> tablesByLowerName;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param connectionId the ID of the connection the catalog belongs to
+     * @param version      the version of the snapshot, increasing with each discovery
+     * @param discoveredAt the time the catalog was read
+     * @param tables       the tables in discovery order
+     */
+    public CatalogSnapshot(Long connectionId, long version, Instant discoveredAt, List<TableSchema> tables) {
+        this.connectionId = connectionId;
+        this.version = version;
+        this.discoveredAt = discoveredAt;
+        Map<String, TableSchema> byName = new LinkedHashMap<>();
+        Map<String, TableSchema> byLowerName = new HashMap<>();
+        for (TableSchema table : tables) {
+            byName.put(table.tableName(), table);
+            byLowerName.putIfAbsent(table.tableName().toLowerCase(Locale.ROOT), table);
+        }
+        this.tables = Collections.unmodifiableMap(byName);
+        this.tablesByLowerName = Collections.unmodifiableMap(byLowerName);
+    }
+
+    /**
+     * @return the ID of the connection the catalog belongs to
+     */
+    public Long getConnectionId() {
+        return connectionId;
+    }
+
+    /**
+     * @return the version of the snapshot, increasing with each discovery
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the time the catalog was read
+     */
+    public Instant getDiscoveredAt() {
+        return discoveredAt;
+    }
+
+    /**
+     * @return the names of all tables and views, in discovery order
+     */
+    public List<String> getTableNames() {
+        return List.copyOf(tables.keySet());
+    }
+
+    /**
+     * @return all tables of the catalog, in discovery order
+     */
+    public Collection<TableSchema> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * Looks up a table by name, preferring an exact match over a
+     * case-insensitive one.
+     *
+     * @param tableName the table name
+     * @return the table, or null if the catalog has no such table
+     */
+    public TableSchema getTable(String tableName) {
+        TableSchema table = tables.get(tableName);
+        return table != null ? table : tablesByLowerName.get(tableName.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,174 @@
+package com.db2api.service.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Case-insensitive index of a table's columns. Resolves client-supplied
+ * column names to their schema spelling in constant time and orders column
+ * sets canonically (by schema position), so the same set of columns always
+ * produces the same SQL text.
+ * <p>
+ * Only columns whose names are plain SQL identifiers are indexed; anything
+ * else can never be referenced from generated SQL.
+ */
+public final class ColumnIndex {
+
+    /** Pattern for valid SQL identifiers (table names, column names). */
+    private static final Pattern VALID_IDENTIFIER = Pattern.compile("^[a-zA-Z_][a-zA-Z0-9_]*$");
+
+    private final Map<String, Integer> columnTypes;
+    private final Map<String, String> canonicalNames;
+    private final Map<String, Integer> positions;
+    private final Map<String, ColumnIndex> restrictions = new ConcurrentHashMap<>();
+
+    private ColumnIndex(Map<String, Integer> columnTypes) {
+        this.columnTypes = Collections.unmodifiableMap(columnTypes);
+        this.canonicalNames = new HashMap<>(columnTypes.size() * 2);
+        this.positions = new HashMap<>(columnTypes.size() * 2);
+        int position = 0;
+        for (String column : columnTypes.keySet()) {
+            canonicalNames.putIfAbsent(column.toLowerCase(Locale.ROOT), column);
+            positions.put(column, position++);
+        }
+    }
+
+    /**
+     * Builds an index over the given columns, in schema order.
+     *
+     * @param columnTypes the table's columns mapped to their SQL types
+     * @return the index
+     */
+    public static ColumnIndex of(Map<String, Integer> columnTypes) {
+        Map<String, Integer> safe = new LinkedHashMap<>();
+        columnTypes.forEach((column, type) -> {
+            if (isValidIdentifier(column)) {
+                safe.put(column, type);
+            }
+        });
+        return new ColumnIndex(safe);
+    }
+
+    /**
+     * @param identifier the identifier to check
+     * @return true if the identifier can be used unquoted in generated SQL
+     */
+    public static boolean isValidIdentifier(String identifier) {
+        return identifier != null && VALID_IDENTIFIER.matcher(identifier).matches();
+    }
+
+    /**
+     * @return the indexed columns mapped to their SQL types, in schema order
+     */
+    public Map<String, Integer> columnTypes() {
+        return columnTypes;
+    }
+
+    /**
+     * @return the number of indexed columns
+     */
+    public int size() {
+        return columnTypes.size();
+    }
+
+    /**
+     * Resolves a column name, ignoring case.
+     *
+     * @param name the client-supplied column name
+     * @return the column name in schema spelling, or null if unknown
+     */
+    public String resolve(String name) {
+        return name != null ? canonicalNames.get(name.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Resolves a column name, ignoring case.
+     *
+     * @param name the client-supplied column name
+     * @return the column name in schema spelling
+     * @throws IllegalArgumentException if the column is unknown
+     */
+    public String require(String name) {
+        String column = resolve(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Invalid column: " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Returns the SQL type of a column.
+     *
+     * @param column the column name, in any case
+     * @return the java.sql.Types constant, or null if the column is unknown
+     */
+    public Integer sqlType(String column) {
+        Integer type = columnTypes.get(column);
+        if (type == null) {
+            String canonical = resolve(column);
+            type = canonical != null ? columnTypes.get(canonical) : null;
+        }
+        return type;
+    }
+
+    /**
+     * Resolves a set of column names and orders them by schema position,
+     * dropping duplicates.
+     *
+     * @param names the client-supplied column names
+     * @return the columns in schema spelling and order
+     * @throws IllegalArgumentException if a column is unknown
+     */
+    public List<String> canonicalOrder(Collection<String> names) {
+        List<String> columns = new ArrayList<>(names.size());
+        for (String name : names) {
+            String column = require(name);
+            if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        columns.sort(Comparator.comparingInt(positions::get));
+        return columns;
+    }
+
+    /**
+     * Returns the index of the columns exposed by an API, given its
+     * comma-separated column list. Unknown entries are ignored; an empty or
+     * entirely unknown list exposes all columns.
+     *
+     * @param includedColumns the API's column list, may be null
+     * @return the index of the exposed columns
+     */
+    public ColumnIndex restrict(String includedColumns) {
+        if (includedColumns == null || includedColumns.isBlank()) {
+            return this;
+        }
+        return restrictions.computeIfAbsent(includedColumns, list -> {
+            Map<String, Integer> exposed = new LinkedHashMap<>();
+            for (String name : list.split(",")) {
+                String column = resolve(name.trim());
+                if (column != null) {
+                    exposed.put(column, columnTypes.get(column));
+                }
+            }
+            if (exposed.isEmpty()) {
+                return this;
+            }
+            // Keep the exposed columns in schema order
+            Map<String, Integer> ordered = new LinkedHashMap<>();
+            for (String column : canonicalOrder(exposed.keySet())) {
+                ordered.put(column, exposed.get(column));
+            }
+            return new ColumnIndex(ordered);
+        });
+    }
+}
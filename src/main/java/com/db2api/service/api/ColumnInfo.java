@@ -0,0 +1,12 @@
+package com.db2api.service.api;
+
+/**
+ * Metadata of one column of an external table.
+ *
+ * @param name     the column name as stored in the database
+ * @param sqlType  the java.sql.Types constant of the column
+ * @param typeName the database-specific type name, e.g. {@code int4}
+ * @param nullable whether the column accepts NULL values
+ */
+public record ColumnInfo(String name, int sqlType, String typeName, boolean nullable) {
+}
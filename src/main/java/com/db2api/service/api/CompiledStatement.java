@@ -0,0 +1,13 @@
+package com.db2api.service.api;
+
+import java.util.List;
+
+/**
+ * A generated SQL statement together with the values bound to its
+ * positional parameters.
+ *
+ * @param sql    the SQL text, with {@code ?} placeholders
+ * @param params the parameter values, in placeholder order
+ */
+public record CompiledStatement(String sql, List<Object> params) {
+}
@@ -0,0 +1,102 @@
+package com.db2api.service.api;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV reader returning one record at a time. Quoted fields
+ * may contain commas, doubled quotes and line breaks. Following PostgreSQL's
+ * CSV conventions, an unquoted empty field reads as null and a quoted empty
+ * field as the empty string. Blank lines are skipped.
+ */
+public final class CsvReader {
+
+    private final PushbackReader reader;
+
+    /**
+     * Creates a reader over the given character stream.
+     *
+     * @param reader the CSV input; buffering is left to the caller
+     */
+    public CsvReader(Reader reader) {
+        this.reader = new PushbackReader(reader, 1);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or null at the end of the input
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if a quoted field is not terminated
+     */
+    public List<String> next() throws IOException {
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\n') {
+                continue;
+            }
+            if (c == '\r') {
+                skipLineFeed();
+                continue;
+            }
+            return readRecord(c);
+        }
+    }
+
+    private List<String> readRecord(int c) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in CSV input");
+                }
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0 && !quoted) {
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(value(field, quoted));
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                skipLineFeed();
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(value(field, quoted));
+        return fields;
+    }
+
+    private void skipLineFeed() throws IOException {
+        int next = reader.read();
+        if (next != '\n' && next != -1) {
+            reader.unread(next);
+        }
+    }
+
+    private static String value(StringBuilder field, boolean quoted) {
+        return field.length() == 0 && !quoted ? null : field.toString();
+    }
+}
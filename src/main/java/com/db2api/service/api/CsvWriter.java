@@ -0,0 +1,74 @@
+package com.db2api.service.api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV writer, the counterpart of {@link CsvReader}: null is
+ * written as an unquoted empty field and the empty string as {@code ""}, so
+ * both survive a round trip through PostgreSQL's {@code COPY ... CSV}.
+ */
+public final class CsvWriter {
+
+    private final Writer writer;
+
+    /**
+     * Creates a writer over the given character stream.
+     *
+     * @param writer the CSV output; buffering is left to the caller
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes one record followed by a line break.
+     *
+     * @param fields the field values; non-string values are written with {@code toString()}
+     * @throws IOException if writing fails
+     */
+    public void writeRecord(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write('\n');
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.isEmpty() || needsQuotes(text)) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        // PostgreSQL reads an unquoted \. line as the end of the data
+        return text.equals("\\.");
+    }
+
+    /**
+     * Flushes the underlying writer.
+     *
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
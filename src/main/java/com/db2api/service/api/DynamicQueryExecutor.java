@@ -0,0 +1,327 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.connection.ExternalConnectivityService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes generated SQL against external databases on connections borrowed
+ * from the per-connection Hikari pools. Reads go straight from the JDBC
+ * ResultSet to the caller, without an intermediate ORM representation, and
+ * writes run as plain prepared statements.
+ */
+@Service
+public class DynamicQueryExecutor {
+
+    private final ExternalConnectivityService externalConnectivityService;
+
+    @Value("${app.dynamic.stream.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Constructs the DynamicQueryExecutor.
+     *
+     * @param externalConnectivityService the service providing pooled data sources
+     */
+    public DynamicQueryExecutor(ExternalConnectivityService externalConnectivityService) {
+        this.externalConnectivityService = externalConnectivityService;
+    }
+
+    /**
+     * Callback receiving the open ResultSet of a streamed query.
+     */
+    @FunctionalInterface
+    public interface ResultSetHandler {
+
+        /**
+         * Consumes the result set. The handler drives {@link ResultSet#next()}
+         * itself; the set and its connection are closed once it returns.
+         *
+         * @param rs the open result set
+         * @throws SQLException if reading fails
+         * @throws IOException  if writing the rows fails
+         */
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * Supplies the statements of a batch one at a time, so a large input can
+     * be read while it is executed.
+     */
+    @FunctionalInterface
+    public interface StatementSource {
+
+        /**
+         * @return the next statement, or null when the input is exhausted
+         * @throws IOException if reading the input fails
+         */
+        CompiledStatement next() throws IOException;
+    }
+
+    /**
+     * @return the number of rows fetched from the database per round trip
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Executes a query and returns all rows as maps keyed by column label.
+     *
+     * @param connection the external database connection
+     * @param sql        the query to execute
+     * @param params     the positional parameters of the query
+     * @return the rows returned by the query
+     * @throws SQLException if the query fails
+     */
+    public List<Map<String, Object>> queryForList(DbConnection connection, String sql, List<Object> params)
+            throws SQLException {
+        try (Connection jdbc = externalConnectivityService.getDataSource(connection).getConnection();
+                PreparedStatement statement = jdbc.prepareStatement(sql)) {
+            bind(statement, params);
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                String[] labels = columnLabels(rs);
+                List<Map<String, Object>> results = new ArrayList<>();
+                while (rs.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>(labels.length * 2);
+                    for (int i = 0; i < labels.length; i++) {
+                        row.put(labels[i], rs.getObject(i + 1));
+                    }
+                    results.add(row);
+                }
+                return results;
+            }
+        }
+    }
+
+    /**
+     * Executes a query through a server-side cursor and hands the live result
+     * set to the given handler. Rows are fetched from the database in batches
+     * of the configured fetch size, so memory use does not depend on the size
+     * of the result.
+     *
+     * @param connection the external database connection
+     * @param sql        the query to execute
+     * @param params     the positional parameters of the query
+     * @param handler    the consumer of the result set
+     * @throws SQLException if the query fails
+     * @throws IOException  if the handler fails to write
+     */
+    public void stream(DbConnection connection, String sql, List<Object> params, ResultSetHandler handler)
+            throws SQLException, IOException {
+        try (Connection jdbc = borrow(connection)) {
+            stream(jdbc, sql, params, handler);
+        }
+    }
+
+    /**
+     * Takes a connection from the pool of the given database, e.g. to hold
+     * it for a read that runs after the response status has been sent.
+     *
+     * @param connection the external database connection
+     * @return the pooled connection, to be closed by the caller
+     * @throws SQLException if no connection can be obtained, in particular a
+     *                      {@link com.db2api.service.connection.ConnectionOverloadedException}
+     */
+    public Connection borrow(DbConnection connection) throws SQLException {
+        return externalConnectivityService.getDataSource(connection).getConnection();
+    }
+
+    /**
+     * Like {@link #stream(DbConnection, String, List, ResultSetHandler)}, on
+     * a connection the caller has borrowed and remains responsible for.
+     *
+     * @param jdbc    the borrowed connection
+     * @param sql     the query to execute
+     * @param params  the positional parameters of the query
+     * @param handler the consumer of the result set
+     * @throws SQLException if the query fails
+     * @throws IOException  if the handler fails to write
+     */
+    public void stream(Connection jdbc, String sql, List<Object> params, ResultSetHandler handler)
+            throws SQLException, IOException {
+        // PostgreSQL only uses a cursor (and honours the fetch size) outside auto-commit mode
+        jdbc.setAutoCommit(false);
+        try (PreparedStatement statement = jdbc.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            bind(statement, params);
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                handler.handle(rs);
+            }
+            jdbc.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            jdbc.rollback();
+            throw e;
+        } finally {
+            jdbc.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Executes an INSERT, UPDATE or DELETE statement in auto-commit mode.
+     *
+     * @param connection the external database connection
+     * @param statement  the statement to execute
+     * @return the number of affected rows
+     * @throws SQLException if the statement fails
+     */
+    public int update(DbConnection connection, CompiledStatement statement) throws SQLException {
+        try (Connection jdbc = externalConnectivityService.getDataSource(connection).getConnection();
+                PreparedStatement prepared = jdbc.prepareStatement(statement.sql())) {
+            bind(prepared, statement.params());
+            return prepared.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes a sequence of statements as JDBC batches within a single
+     * transaction. Statements are read and sent to the database in chunks of
+     * the given size. Within a chunk, statements sharing the same SQL text are
+     * batched on one prepared statement, which is kept for the following
+     * chunks, so statements of different shapes may execute out of their
+     * original order. A chunk is read completely before it is sent, and the
+     * connection is only borrowed once the first chunk has been read. If any
+     * statement fails, the whole transaction is rolled back.
+     *
+     * @param connection the external database connection
+     * @param source     the supplier of the statements
+     * @param chunkSize  the number of statements per batch round trip
+     * @return the number of affected rows per chunk
+     * @throws SQLException if a statement fails
+     * @throws IOException  if the source fails to read its input
+     */
+    public List<Integer> executeBatch(DbConnection connection, StatementSource source, int chunkSize)
+            throws SQLException, IOException {
+        List<CompiledStatement> chunk = readChunk(source, chunkSize);
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> chunkCounts = new ArrayList<>();
+        Map<String, PreparedStatement> prepared = new LinkedHashMap<>();
+        try (Connection jdbc = externalConnectivityService.getDataSource(connection).getConnection()) {
+            jdbc.setAutoCommit(false);
+            try {
+                do {
+                    chunkCounts.add(executeChunk(jdbc, prepared, chunk));
+                    chunk = readChunk(source, chunkSize);
+                } while (!chunk.isEmpty());
+                jdbc.commit();
+                return chunkCounts;
+            } catch (SQLException | IOException | RuntimeException e) {
+                jdbc.rollback();
+                throw e;
+            } finally {
+                for (PreparedStatement statement : prepared.values()) {
+                    statement.close();
+                }
+                jdbc.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static List<CompiledStatement> readChunk(StatementSource source, int chunkSize) throws IOException {
+        List<CompiledStatement> chunk = new ArrayList<>();
+        CompiledStatement statement;
+        while (chunk.size() < chunkSize && (statement = source.next()) != null) {
+            chunk.add(statement);
+        }
+        return chunk;
+    }
+
+    /**
+     * Executes a chunk as one batch per SQL shape, reusing the statements
+     * prepared for earlier chunks and closing those this chunk does not use.
+     *
+     * @return the number of affected rows
+     */
+    private static int executeChunk(Connection jdbc, Map<String, PreparedStatement> prepared,
+            List<CompiledStatement> chunk) throws SQLException {
+        Map<String, List<CompiledStatement>> shapes = new LinkedHashMap<>();
+        for (CompiledStatement statement : chunk) {
+            shapes.computeIfAbsent(statement.sql(), sql -> new ArrayList<>()).add(statement);
+        }
+        Iterator<Map.Entry<String, PreparedStatement>> unused = prepared.entrySet().iterator();
+        while (unused.hasNext()) {
+            Map.Entry<String, PreparedStatement> entry = unused.next();
+            if (!shapes.containsKey(entry.getKey())) {
+                unused.remove();
+                entry.getValue().close();
+            }
+        }
+        int count = 0;
+        for (Map.Entry<String, List<CompiledStatement>> shape : shapes.entrySet()) {
+            PreparedStatement statement = prepared.get(shape.getKey());
+            if (statement == null) {
+                statement = jdbc.prepareStatement(shape.getKey());
+                prepared.put(shape.getKey(), statement);
+            }
+            for (CompiledStatement row : shape.getValue()) {
+                bind(statement, row.params());
+                statement.addBatch();
+            }
+            count += sum(statement.executeBatch());
+        }
+        return count;
+    }
+
+    /**
+     * Adds up the update counts of an executed batch. Drivers that rewrite
+     * batches may only report {@link java.sql.Statement#SUCCESS_NO_INFO}, which
+     * is counted as one row.
+     */
+    private static int sum(int[] updateCounts) {
+        int total = 0;
+        for (int count : updateCounts) {
+            total += count >= 0 ? count : 1;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the labels of all columns of a result set, in column order.
+     *
+     * @param rs the result set
+     * @return the column labels
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static String[] columnLabels(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return labels;
+    }
+
+    private static void bind(PreparedStatement statement, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            if (params.get(i) instanceof SqlValues.Untyped untyped) {
+                try {
+                    statement.setObject(i + 1, untyped.text(), Types.OTHER);
+                } catch (SQLFeatureNotSupportedException e) {
+                    // Drivers without a notion of untyped parameters get the text
+                    statement.setString(i + 1, untyped.text());
+                }
+            } else {
+                statement.setObject(i + 1, params.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.db2api.service.api;
+
+import java.util.List;
+
+/**
+ * A single validated predicate of a dynamic read, rendered as a parameterized
+ * SQL condition.
+ *
+ * @param column   the canonical column name from the table schema
+ * @param operator the comparison operator
+ * @param values   the typed operands (empty for unary operators, several for IN)
+ */
+public record FilterCondition(String column, FilterOperator operator, List<Object> values) implements SqlPredicate {
+
+    /**
+     * Appends this condition to a query and adds its parameters.
+     *
+     * @param sql    the query being built
+     * @param params the positional parameters of the query
+     */
+    @Override
+    public void appendTo(StringBuilder sql, List<Object> params) {
+        sql.append(column).append(' ').append(operator.getSql());
+        if (operator.isUnary()) {
+            return;
+        }
+        if (operator == FilterOperator.IN) {
+            sql.append(" (");
+            for (int i = 0; i < values.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        } else {
+            sql.append(" ?");
+        }
+        params.addAll(values);
+    }
+}
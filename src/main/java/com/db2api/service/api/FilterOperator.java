@@ -0,0 +1,67 @@
+package com.db2api.service.api;
+
+import java.util.Locale;
+
+/**
+ * Comparison operators accepted in dynamic read filters, e.g.
+ * {@code filter=price:gte:10}.
+ */
+public enum FilterOperator {
+
+    EQ("eq", "="),
+    NE("ne", "<>"),
+    GT("gt", ">"),
+    GTE("gte", ">="),
+    LT("lt", "<"),
+    LTE("lte", "<="),
+    LIKE("like", "LIKE"),
+    IN("in", "IN"),
+    IS_NULL("null", "IS NULL"),
+    NOT_NULL("notnull", "IS NOT NULL");
+
+    private final String token;
+    private final String sql;
+
+    FilterOperator(String token, String sql) {
+        this.token = token;
+        this.sql = sql;
+    }
+
+    /**
+     * @return the operator name used in query parameters
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return the SQL operator
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return true if the operator takes no operand
+     */
+    public boolean isUnary() {
+        return this == IS_NULL || this == NOT_NULL;
+    }
+
+    /**
+     * Resolves an operator from its query parameter name.
+     *
+     * @param token the operator name, case-insensitive
+     * @return the operator
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static FilterOperator fromToken(String token) {
+        String normalized = token.toLowerCase(Locale.ROOT);
+        for (FilterOperator operator : values()) {
+            if (operator.token.equals(normalized)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown filter operator: " + token);
+    }
+}
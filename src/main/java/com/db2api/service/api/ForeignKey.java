@@ -0,0 +1,23 @@
+package com.db2api.service.api;
+
+import java.util.List;
+
+/**
+ * A foreign key of an external table.
+ *
+ * @param name              the constraint name, may be null if the driver does not report it
+ * @param columns           the referencing columns, in key sequence order
+ * @param referencedTable   the referenced table
+ * @param referencedColumns the referenced columns, matching {@code columns} position by position
+ */
+public record ForeignKey(String name, List<String> columns, String referencedTable,
+        List<String> referencedColumns) {
+
+    /**
+     * Creates a foreign key, taking immutable copies of the column lists.
+     */
+    public ForeignKey {
+        columns = List.copyOf(columns);
+        referencedColumns = List.copyOf(referencedColumns);
+    }
+}
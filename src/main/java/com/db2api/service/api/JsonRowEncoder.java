@@ -0,0 +1,67 @@
+package com.db2api.service.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes rows as JSON objects keyed by column label, either wrapped in one
+ * array or as newline-delimited JSON.
+ */
+public class JsonRowEncoder implements RowEncoder {
+
+    private final ObjectWriter writer;
+    private final boolean ndjson;
+
+    /**
+     * Creates a JSON encoder.
+     *
+     * @param objectMapper the mapper used to serialize column values
+     * @param ndjson       whether to write one object per line instead of an array
+     */
+    public JsonRowEncoder(ObjectMapper objectMapper, boolean ndjson) {
+        // NDJSON separates top-level rows with a newline
+        this.writer = objectMapper.writer().withRootValueSeparator("\n");
+        this.ndjson = ndjson;
+    }
+
+    @Override
+    public RowFormat format() {
+        return ndjson ? RowFormat.NDJSON : RowFormat.JSON;
+    }
+
+    @Override
+    public long encode(ResultSet rs, ColumnIndex columns, OutputStream out, int flushInterval)
+            throws SQLException, IOException {
+        String[] labels = DynamicQueryExecutor.columnLabels(rs);
+        try (JsonGenerator generator = writer.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            long count = 0;
+            while (rs.next()) {
+                generator.writeStartObject();
+                for (int i = 0; i < labels.length; i++) {
+                    generator.writeFieldName(labels[i]);
+                    generator.writeObject(rs.getObject(i + 1));
+                }
+                generator.writeEndObject();
+                if (++count % flushInterval == 0) {
+                    generator.flush();
+                }
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            } else if (count > 0) {
+                generator.writeRaw('\n');
+            }
+            return count;
+        }
+    }
+}
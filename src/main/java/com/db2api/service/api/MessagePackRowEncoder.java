@@ -0,0 +1,45 @@
+package com.db2api.service.api;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes rows as a stream of MessagePack values: first an array of the column
+ * labels, then one array of column values per row, in label order. Keys are
+ * therefore sent once instead of with every row, and clients can decode the
+ * stream incrementally.
+ */
+public class MessagePackRowEncoder implements RowEncoder {
+
+    @Override
+    public RowFormat format() {
+        return RowFormat.MSGPACK;
+    }
+
+    @Override
+    public long encode(ResultSet rs, ColumnIndex columns, OutputStream out, int flushInterval)
+            throws SQLException, IOException {
+        MessagePackWriter writer = new MessagePackWriter(new BufferedOutputStream(out, 64 * 1024));
+        String[] labels = DynamicQueryExecutor.columnLabels(rs);
+        writer.writeArrayHeader(labels.length);
+        for (String label : labels) {
+            writer.writeString(label);
+        }
+
+        long count = 0;
+        while (rs.next()) {
+            writer.writeArrayHeader(labels.length);
+            for (int i = 1; i <= labels.length; i++) {
+                writer.writeValue(rs.getObject(i));
+            }
+            if (++count % flushInterval == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+}
@@ -0,0 +1,234 @@
+package com.db2api.service.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal MessagePack serializer covering the types JDBC drivers return:
+ * nil, booleans, integers, floats, strings, binary and arrays. Every value
+ * uses the smallest encoding the specification allows. Values without a
+ * MessagePack counterpart (decimals, dates, driver objects) are written as
+ * strings via {@link SqlValues#format(Object)}.
+ */
+public final class MessagePackWriter {
+
+    private final OutputStream out;
+
+    /**
+     * Creates a writer over the given stream.
+     *
+     * @param out the MessagePack output; buffering is left to the caller
+     */
+    public MessagePackWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes an arbitrary column value.
+     *
+     * @param value the value, may be null
+     * @throws IOException if writing fails
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeNil();
+        } else if (value instanceof String text) {
+            writeString(text);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            writeBoolean(bool);
+        } else if (value instanceof Double number) {
+            writeDouble(number);
+        } else if (value instanceof Float number) {
+            writeFloat(number);
+        } else if (value instanceof BigInteger number) {
+            writeBigInteger(number);
+        } else if (value instanceof BigDecimal number) {
+            // A double would silently lose precision
+            writeString(number.toPlainString());
+        } else if (value instanceof byte[] bytes) {
+            writeBinary(bytes);
+        } else {
+            writeString(SqlValues.format(value));
+        }
+    }
+
+    /**
+     * @throws IOException if writing fails
+     */
+    public void writeNil() throws IOException {
+        out.write(0xc0);
+    }
+
+    /**
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        out.write(value ? 0xc3 : 0xc2);
+    }
+
+    /**
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    public void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            if (value < 0x80) {
+                out.write((int) value);
+            } else if (value < 0x100) {
+                out.write(0xcc);
+                out.write((int) value);
+            } else if (value < 0x10000) {
+                out.write(0xcd);
+                writeShort((int) value);
+            } else if (value < 0x100000000L) {
+                out.write(0xce);
+                writeInt((int) value);
+            } else {
+                out.write(0xcf);
+                writeLong64(value);
+            }
+        } else if (value >= -32) {
+            out.write((int) value & 0xff);
+        } else if (value >= Byte.MIN_VALUE) {
+            out.write(0xd0);
+            out.write((int) value & 0xff);
+        } else if (value >= Short.MIN_VALUE) {
+            out.write(0xd1);
+            writeShort((int) value);
+        } else if (value >= Integer.MIN_VALUE) {
+            out.write(0xd2);
+            writeInt((int) value);
+        } else {
+            out.write(0xd3);
+            writeLong64(value);
+        }
+    }
+
+    /**
+     * Writes an integer, as uint 64 when it exceeds a long and as a string
+     * when it exceeds 64 bits.
+     *
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    public void writeBigInteger(BigInteger value) throws IOException {
+        if (value.bitLength() < 64) {
+            writeLong(value.longValue());
+        } else if (value.signum() > 0 && value.bitLength() == 64) {
+            out.write(0xcf);
+            writeLong64(value.longValue());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    /**
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    public void writeFloat(float value) throws IOException {
+        out.write(0xca);
+        writeInt(Float.floatToIntBits(value));
+    }
+
+    /**
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    public void writeDouble(double value) throws IOException {
+        out.write(0xcb);
+        writeLong64(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * @param value the value to write, encoded as UTF-8
+     * @throws IOException if writing fails
+     */
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        if (length < 32) {
+            out.write(0xa0 | length);
+        } else if (length < 0x100) {
+            out.write(0xd9);
+            out.write(length);
+        } else if (length < 0x10000) {
+            out.write(0xda);
+            writeShort(length);
+        } else {
+            out.write(0xdb);
+            writeInt(length);
+        }
+        out.write(bytes);
+    }
+
+    /**
+     * @param value the bytes to write
+     * @throws IOException if writing fails
+     */
+    public void writeBinary(byte[] value) throws IOException {
+        int length = value.length;
+        if (length < 0x100) {
+            out.write(0xc4);
+            out.write(length);
+        } else if (length < 0x10000) {
+            out.write(0xc5);
+            writeShort(length);
+        } else {
+            out.write(0xc6);
+            writeInt(length);
+        }
+        out.write(value);
+    }
+
+    /**
+     * Starts an array; the next {@code size} values are its elements.
+     *
+     * @param size the number of elements
+     * @throws IOException if writing fails
+     */
+    public void writeArrayHeader(int size) throws IOException {
+        if (size < 16) {
+            out.write(0x90 | size);
+        } else if (size < 0x10000) {
+            out.write(0xdc);
+            writeShort(size);
+        } else {
+            out.write(0xdd);
+            writeInt(size);
+        }
+    }
+
+    /**
+     * Flushes the underlying stream.
+     *
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private void writeLong64(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+}
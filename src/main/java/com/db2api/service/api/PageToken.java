@@ -0,0 +1,85 @@
+package com.db2api.service.api;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * Opaque continuation token handed to clients of paginated dynamic reads.
+ * For tables with a primary key the token carries the key values of the last
+ * row returned (keyset pagination); for tables without one it carries the
+ * offset of the next page. Tokens reach clients only through
+ * {@link PageTokenCodec}, which encrypts them.
+ *
+ * @param keys   the string form of the last row's key values, or null for offset pages
+ * @param offset the offset of the next page when no keys are present
+ */
+public record PageToken(List<String> keys, long offset) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Creates a keyset token from the key values of the last returned row.
+     *
+     * @param keyValues the key values, in key column order
+     * @return the token
+     */
+    public static PageToken ofKeys(List<Object> keyValues) {
+        return new PageToken(keyValues.stream().map(v -> v != null ? v.toString() : null).toList(), 0);
+    }
+
+    /**
+     * Creates an offset token pointing at the next page.
+     *
+     * @param offset the offset of the next page
+     * @return the token
+     */
+    public static PageToken ofOffset(long offset) {
+        return new PageToken(null, offset);
+    }
+
+    /**
+     * @return true if this token continues a keyset scan
+     */
+    @JsonIgnore
+    public boolean isKeyset() {
+        return keys != null;
+    }
+
+    /**
+     * Serializes this token to JSON. The JSON holds the key values of a row
+     * in the clear, so it is only handed to clients encrypted, by
+     * {@link PageTokenCodec}.
+     *
+     * @return the serialized token
+     */
+    byte[] toJson() {
+        try {
+            return MAPPER.writeValueAsBytes(this);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to encode page token", e);
+        }
+    }
+
+    /**
+     * Parses a token serialized by {@link #toJson()}.
+     *
+     * @param json the serialized token
+     * @return the parsed token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static PageToken fromJson(byte[] json) {
+        try {
+            PageToken decoded = MAPPER.readValue(json, PageToken.class);
+            if (decoded.offset() < 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.db2api.service.api;
+
+import com.db2api.service.EncryptionService;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Turns {@link PageToken}s into the opaque strings handed to clients and back.
+ * <p>
+ * A keyset token carries the key values of the last row of a page, and those
+ * may belong to columns the API does not expose, so tokens are encrypted
+ * with the application secret rather than merely encoded. Encryption is
+ * authenticated: a token that was altered or made up fails to decode instead
+ * of reaching the generated SQL. It is also deterministic, so that the same
+ * page always carries the same token and its ETag stays stable.
+ */
+@Component
+public class PageTokenCodec {
+
+    private final EncryptionService encryptionService;
+
+    /**
+     * Constructs the PageTokenCodec.
+     *
+     * @param encryptionService the service encrypting tokens
+     */
+    public PageTokenCodec(EncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+    }
+
+    /**
+     * Encrypts a token to its URL-safe string form.
+     *
+     * @param token the token
+     * @return the encoded token
+     */
+    public String encode(PageToken token) {
+        try {
+            byte[] encrypted = encryptionService.encryptDeterministic(token.toJson());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(encrypted);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encode page token", e);
+        }
+    }
+
+    /**
+     * Decrypts a token previously produced by {@link #encode(PageToken)}.
+     *
+     * @param token the encoded token
+     * @return the decoded token
+     * @throws IllegalArgumentException if the token is malformed or was not issued by this application
+     */
+    public PageToken decode(String token) {
+        try {
+            byte[] encrypted = Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII));
+            return PageToken.fromJson(encryptionService.decryptBytes(encrypted));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.db2api.service.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the SQL statements of the dynamic REST and GraphQL APIs.
+ * <p>
+ * Column names are resolved through a per-table {@link ColumnIndex} and put in
+ * schema order, so requests touching the same columns always produce the same
+ * SQL text regardless of the order of the request's fields. The resulting
+ * statement shapes are cached per API and column set, and the stable text lets
+ * the JDBC driver reuse its prepared statements.
+ */
+@Component
+public class QueryCompiler {
+
+    /** Key classes the PostgreSQL driver binds as typed arrays. */
+    private static final Set<Class<?>> ARRAY_TYPES = Set.of(Integer.class, Long.class, Short.class, String.class,
+            Double.class, Float.class, Boolean.class);
+
+    private final SchemaDiscoveryService schemaDiscoveryService;
+
+    /** Indexes keyed by schema instance; a rediscovered table gets a fresh index. */
+    private final Cache<TableSchema, ColumnIndex> indexes;
+
+    private final Cache<ShapeKey, String> shapes;
+
+    /**
+     * Constructs the QueryCompiler.
+     *
+     * @param schemaDiscoveryService the service providing table metadata
+     * @param maxShapes              the maximum number of cached statement shapes
+     */
+    public QueryCompiler(SchemaDiscoveryService schemaDiscoveryService,
+            @Value("${app.dynamic.statement-cache.max-size:10000}") long maxShapes) {
+        this.schemaDiscoveryService = schemaDiscoveryService;
+        this.indexes = Caffeine.newBuilder().weakKeys().build();
+        this.shapes = Caffeine.newBuilder().maximumSize(maxShapes).build();
+    }
+
+    /**
+     * Statement kinds, each with its own shape.
+     */
+    private enum Kind {
+        SELECT, INSERT, UPDATE, DELETE
+    }
+
+    /**
+     * Identifies a statement shape: the API, its table and the canonical
+     * column lists that appear in the statement.
+     */
+    private record ShapeKey(Long apiId, String tableName, Kind kind, List<String> columns,
+            List<String> conditionColumns) {
+    }
+
+    /**
+     * Returns the index of all columns of a route's table.
+     *
+     * @param route the API route
+     * @return the column index, empty if the table is unknown
+     */
+    public ColumnIndex columns(ApiRoute route) {
+        TableSchema schema = schemaDiscoveryService.getTableSchema(route.connection(), route.tableName());
+        return indexes.get(schema, s -> ColumnIndex.of(s.columnTypes()));
+    }
+
+    /**
+     * Returns the index of the columns a route exposes to clients.
+     *
+     * @param route the API route
+     * @return the exposed columns
+     */
+    public ColumnIndex exposedColumns(ApiRoute route) {
+        return columns(route).restrict(route.includedColumns());
+    }
+
+    /**
+     * Compiles a query returning all rows of a route's table, limited to the
+     * exposed columns.
+     *
+     * @param route the API route
+     * @return the statement
+     */
+    public CompiledStatement select(ApiRoute route) {
+        ColumnIndex all = columns(route);
+        ColumnIndex exposed = all.restrict(route.includedColumns());
+        List<String> columns = exposed.size() < all.size()
+                ? List.copyOf(exposed.columnTypes().keySet())
+                : List.of();
+        String sql = shapes.get(new ShapeKey(route.id(), route.tableName(), Kind.SELECT, columns, List.of()),
+                key -> "SELECT " + (columns.isEmpty() ? "*" : String.join(", ", columns))
+                        + " FROM " + route.tableName());
+        return new CompiledStatement(sql, List.of());
+    }
+
+    /**
+     * Compiles a read of one page of a route's table.
+     * <p>
+     * With {@code afterKeys}, only rows sorting after those values of the
+     * ordering columns are read (keyset pagination), e.g.
+     * {@code ((a > ?) OR (a = ? AND b < ?))} for {@code ORDER BY a, b DESC}.
+     * NULLs in nullable ordering columns sort after all values (see
+     * {@link SortOrder#toSql(boolean, SqlDialect)}), and the predicate
+     * accounts for them, e.g. {@code (a > ? OR a IS NULL)}, or
+     * {@code a IS NULL AND ...} when the last row held NULL.
+     *
+     * @param route     the API route
+     * @param columns   the canonical columns to read, or empty for all columns
+     * @param filters   the validated predicates, combined with AND
+     * @param ordering  the ORDER BY terms, ending with a unique key for keyset pages
+     * @param afterKeys the textual ordering values of the last row already read, or null
+     * @param limit     the maximum number of rows, or null for no limit
+     * @param offset    the number of rows to skip
+     * @return the statement
+     * @throws IllegalArgumentException if the key values do not match the ordering or their types
+     */
+    public CompiledStatement selectPage(ApiRoute route, List<String> columns, List<? extends SqlPredicate> filters,
+            List<SortOrder> ordering, List<String> afterKeys, Integer limit, long offset) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(columns.isEmpty() ? "*" : String.join(", ", columns));
+        sql.append(" FROM ").append(route.tableName());
+        List<Object> params = new ArrayList<>();
+
+        String clause = " WHERE ";
+        for (SqlPredicate condition : filters) {
+            sql.append(clause);
+            condition.appendTo(sql, params);
+            clause = " AND ";
+        }
+        SqlDialect dialect = SqlDialect.of(route.connection());
+        TableSchema schema = schemaDiscoveryService.getTableSchema(route.connection(), route.tableName());
+        if (afterKeys != null) {
+            if (ordering.isEmpty() || afterKeys.size() != ordering.size()) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            sql.append(clause);
+            appendKeysetPredicate(sql, params, ordering, afterKeys, columns(route), schema);
+        }
+        if (!ordering.isEmpty()) {
+            sql.append(" ORDER BY ").append(String.join(", ", ordering.stream()
+                    .map(order -> order.toSql(isNullable(schema, order.column()), dialect)).toList()));
+        }
+        if (limit != null || offset > 0) {
+            dialect.appendLimitOffset(sql, params,
+                    limit != null ? limit : Integer.MAX_VALUE, offset, !ordering.isEmpty());
+        }
+        return new CompiledStatement(sql.toString(), params);
+    }
+
+    /**
+     * Compiles a read of the rows whose key column equals any of the given
+     * values, used to load related rows in one batch. PostgreSQL receives the
+     * keys as one array parameter ({@code = ANY(?)}), so the statement text
+     * does not depend on the number of keys; other databases, and keys of
+     * mixed or unsupported types, use an {@code IN} list.
+     *
+     * @param route     the API route of the table to read
+     * @param columns   the canonical columns to read, or empty for all columns
+     * @param keyColumn the canonical column to match
+     * @param keys      the key values, not empty
+     * @return the statement
+     */
+    public CompiledStatement selectIn(ApiRoute route, List<String> columns, String keyColumn, List<?> keys) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(columns.isEmpty() ? "*" : String.join(", ", columns));
+        sql.append(" FROM ").append(route.tableName()).append(" WHERE ").append(keyColumn);
+        Object array = SqlDialect.of(route.connection()) == SqlDialect.POSTGRESQL ? typedArray(keys) : null;
+        if (array != null) {
+            sql.append(" = ANY(?)");
+            return new CompiledStatement(sql.toString(), List.of(array));
+        }
+        sql.append(" IN (").append(String.join(", ", Collections.nCopies(keys.size(), "?"))).append(")");
+        return new CompiledStatement(sql.toString(), new ArrayList<>(keys));
+    }
+
+    /**
+     * Copies the keys into an array of their common class, if the PostgreSQL
+     * driver can bind arrays of that class.
+     */
+    private static Object typedArray(List<?> keys) {
+        Class<?> type = keys.get(0).getClass();
+        if (!ARRAY_TYPES.contains(type) || keys.stream().anyMatch(key -> key.getClass() != type)) {
+            return null;
+        }
+        Object array = Array.newInstance(type, keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Array.set(array, i, keys.get(i));
+        }
+        return array;
+    }
+
+    private static void appendKeysetPredicate(StringBuilder sql, List<Object> params, List<SortOrder> ordering,
+            List<String> keyValues, ColumnIndex columns, TableSchema schema) {
+        List<Object> typedValues = new ArrayList<>();
+        for (int i = 0; i < ordering.size(); i++) {
+            Integer sqlType = columns.sqlType(ordering.get(i).column());
+            typedValues.add(SqlValues.coerce(keyValues.get(i), sqlType != null ? sqlType : Types.VARCHAR));
+        }
+
+        sql.append("(");
+        String separator = "";
+        for (int i = 0; i < ordering.size(); i++) {
+            SortOrder order = ordering.get(i);
+            Object value = typedValues.get(i);
+            // The rows sorting after the key in this column, with NULLs after all values
+            String after;
+            if (value == null) {
+                after = order.descending() ? order.column() + " IS NOT NULL" : null;
+            } else if (order.descending()) {
+                after = order.column() + " < ?";
+            } else if (isNullable(schema, order.column())) {
+                after = i > 0
+                        ? "(" + order.column() + " > ? OR " + order.column() + " IS NULL)"
+                        : order.column() + " > ? OR " + order.column() + " IS NULL";
+            } else {
+                after = order.column() + " > ?";
+            }
+            if (after == null) {
+                // Nothing sorts after NULL in ascending order
+                continue;
+            }
+            sql.append(separator).append("(");
+            for (int j = 0; j < i; j++) {
+                Object previous = typedValues.get(j);
+                sql.append(ordering.get(j).column()).append(previous == null ? " IS NULL AND " : " = ? AND ");
+                if (previous != null) {
+                    params.add(previous);
+                }
+            }
+            sql.append(after).append(")");
+            if (value != null) {
+                params.add(value);
+            }
+            separator = " OR ";
+        }
+        if (separator.isEmpty()) {
+            sql.append("1 = 0");
+        }
+        sql.append(")");
+    }
+
+    /**
+     * Checks whether a column may hold NULLs; columns missing from the schema
+     * are assumed to.
+     */
+    private static boolean isNullable(TableSchema schema, String column) {
+        for (ColumnInfo info : schema.columns()) {
+            if (info.name().equalsIgnoreCase(column)) {
+                return info.nullable();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compiles an INSERT of one row.
+     *
+     * @param route the API route
+     * @param data  the column values of the new row
+     * @return the statement
+     * @throws IllegalArgumentException if no data is given or a column is unknown
+     */
+    public CompiledStatement insert(ApiRoute route, Map<String, ?> data) {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("No data provided for insert");
+        }
+        ColumnIndex index = columns(route);
+        List<String> columns = index.canonicalOrder(data.keySet());
+        String sql = shapes.get(new ShapeKey(route.id(), route.tableName(), Kind.INSERT, columns, List.of()),
+                key -> "INSERT INTO " + route.tableName() + " (" + String.join(", ", columns) + ") VALUES ("
+                        + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")");
+        List<Object> params = new ArrayList<>(columns.size());
+        bindAll(params, columns, data, index);
+        return new CompiledStatement(sql, params);
+    }
+
+    /**
+     * Compiles an UPDATE of the rows matching all given column values.
+     *
+     * @param route      the API route
+     * @param data       the new column values
+     * @param conditions the column values identifying the rows to update
+     * @return the statement
+     * @throws IllegalArgumentException if data or conditions are missing or a column is unknown
+     */
+    public CompiledStatement update(ApiRoute route, Map<String, ?> data, Map<String, ?> conditions) {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("No data provided for update");
+        }
+        if (conditions == null || conditions.isEmpty()) {
+            throw new IllegalArgumentException("No conditions provided for update");
+        }
+        ColumnIndex index = columns(route);
+        List<String> columns = index.canonicalOrder(data.keySet());
+        List<String> conditionColumns = index.canonicalOrder(conditions.keySet());
+        String sql = shapes.get(
+                new ShapeKey(route.id(), route.tableName(), Kind.UPDATE, columns, conditionColumns),
+                key -> "UPDATE " + route.tableName() + " SET " + assignments(columns, ", ")
+                        + " WHERE " + assignments(conditionColumns, " AND "));
+        List<Object> params = new ArrayList<>(columns.size() + conditionColumns.size());
+        bindAll(params, columns, data, index);
+        bindAll(params, conditionColumns, conditions, index);
+        return new CompiledStatement(sql, params);
+    }
+
+    /**
+     * Compiles a DELETE of the rows matching all given column values.
+     *
+     * @param route      the API route
+     * @param conditions the column values identifying the rows to delete
+     * @return the statement
+     * @throws IllegalArgumentException if no conditions are given or a column is unknown
+     */
+    public CompiledStatement delete(ApiRoute route, Map<String, ?> conditions) {
+        if (conditions == null || conditions.isEmpty()) {
+            throw new IllegalArgumentException("No conditions provided for delete");
+        }
+        ColumnIndex index = columns(route);
+        List<String> conditionColumns = index.canonicalOrder(conditions.keySet());
+        String sql = shapes.get(
+                new ShapeKey(route.id(), route.tableName(), Kind.DELETE, List.of(), conditionColumns),
+                key -> "DELETE FROM " + route.tableName() + " WHERE " + assignments(conditionColumns, " AND "));
+        List<Object> params = new ArrayList<>(conditionColumns.size());
+        bindAll(params, conditionColumns, conditions, index);
+        return new CompiledStatement(sql, params);
+    }
+
+    private static String assignments(List<String> columns, String separator) {
+        return String.join(separator, columns.stream().map(column -> column + " = ?").toList());
+    }
+
+    /**
+     * Adds the values of the given columns to the parameter list. The request
+     * keys may differ in case from the canonical column names; textual values
+     * are converted to the column's type.
+     */
+    private static void bindAll(List<Object> params, List<String> columns, Map<String, ?> values,
+            ColumnIndex index) {
+        Map<String, Object> byColumn = new HashMap<>(values.size() * 2);
+        values.forEach((name, value) -> byColumn.put(index.resolve(name), value));
+        for (String column : columns) {
+            Object value = byColumn.get(column);
+            if (value instanceof String text) {
+                try {
+                    value = SqlValues.coerce(text, index.sqlType(column));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid value for column " + column + ": " + text, e);
+                }
+            }
+            params.add(value);
+        }
+    }
+}
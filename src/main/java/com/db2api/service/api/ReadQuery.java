@@ -0,0 +1,136 @@
+package com.db2api.service.api;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The client-controlled parts of a dynamic read: the selected fields, the
+ * filters and the sort order, each validated against the columns the API
+ * exposes.
+ * <p>
+ * Parsed from query parameters of the form {@code fields=a,b},
+ * {@code filter=col:op:value} (repeatable; {@code in} takes a comma-separated
+ * list, {@code null}/{@code notnull} take no value) and {@code sort=-col,col2}.
+ *
+ * @param fields  the columns to return, or empty for all exposed columns
+ * @param filters the predicates, combined with AND
+ * @param sort    the ORDER BY terms, in order
+ */
+public record ReadQuery(List<String> fields, List<FilterCondition> filters, List<SortOrder> sort) {
+
+    /** A read without fields, filters or sort. */
+    public static final ReadQuery ALL = new ReadQuery(List.of(), List.of(), List.of());
+
+    /**
+     * Parses and validates the read parameters of a request.
+     *
+     * @param fields         comma-separated field list, may be null
+     * @param filters        filter expressions, may be null
+     * @param sort           comma-separated sort list, may be null
+     * @param exposedColumns the columns the API exposes, mapped to their SQL types
+     * @return the validated read
+     * @throws IllegalArgumentException if a parameter is malformed or names an unknown column
+     */
+    public static ReadQuery parse(String fields, List<String> filters, String sort,
+            Map<String, Integer> exposedColumns) {
+        return parse(fields, filters, sort, ColumnIndex.of(exposedColumns));
+    }
+
+    /**
+     * Parses and validates the read parameters of a request.
+     *
+     * @param fields         comma-separated field list, may be null
+     * @param filters        filter expressions, may be null
+     * @param sort           comma-separated sort list, may be null
+     * @param exposedColumns the index of the columns the API exposes
+     * @return the validated read
+     * @throws IllegalArgumentException if a parameter is malformed or names an unknown column
+     */
+    public static ReadQuery parse(String fields, List<String> filters, String sort, ColumnIndex exposedColumns) {
+        return new ReadQuery(parseFields(fields, exposedColumns), parseFilters(filters, exposedColumns),
+                parseSort(sort, exposedColumns));
+    }
+
+    private static List<String> parseFields(String fields, ColumnIndex exposedColumns) {
+        List<String> result = new ArrayList<>();
+        if (fields == null || fields.isBlank()) {
+            return result;
+        }
+        for (String field : fields.split(",")) {
+            String column = resolveColumn(field.trim(), exposedColumns);
+            if (!result.contains(column)) {
+                result.add(column);
+            }
+        }
+        return result;
+    }
+
+    private static List<FilterCondition> parseFilters(List<String> filters, ColumnIndex exposedColumns) {
+        List<FilterCondition> result = new ArrayList<>();
+        if (filters == null) {
+            return result;
+        }
+        for (String filter : filters) {
+            String[] parts = filter.split(":", 3);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("Invalid filter, expected column:operator:value: " + filter);
+            }
+            String column = resolveColumn(parts[0].trim(), exposedColumns);
+            FilterOperator operator = FilterOperator.fromToken(parts[1].trim());
+            if (operator.isUnary() != (parts.length == 2)) {
+                throw new IllegalArgumentException("Invalid operand for filter: " + filter);
+            }
+
+            Integer type = exposedColumns.sqlType(column);
+            int sqlType = type != null ? type : Types.VARCHAR;
+            List<Object> values = new ArrayList<>();
+            if (operator == FilterOperator.IN) {
+                for (String value : parts[2].split(",")) {
+                    values.add(coerce(column, value, sqlType));
+                }
+            } else if (operator == FilterOperator.LIKE) {
+                values.add(parts[2]);
+            } else if (!operator.isUnary()) {
+                values.add(coerce(column, parts[2], sqlType));
+            }
+            result.add(new FilterCondition(column, operator, values));
+        }
+        return result;
+    }
+
+    private static List<SortOrder> parseSort(String sort, ColumnIndex exposedColumns) {
+        List<SortOrder> result = new ArrayList<>();
+        if (sort == null || sort.isBlank()) {
+            return result;
+        }
+        for (String term : sort.split(",")) {
+            String trimmed = term.trim();
+            boolean descending = trimmed.startsWith("-");
+            if (descending || trimmed.startsWith("+")) {
+                trimmed = trimmed.substring(1);
+            }
+            String column = resolveColumn(trimmed, exposedColumns);
+            if (result.stream().noneMatch(order -> order.column().equals(column))) {
+                result.add(new SortOrder(column, descending));
+            }
+        }
+        return result;
+    }
+
+    private static Object coerce(String column, String value, int sqlType) {
+        try {
+            return SqlValues.coerce(value, sqlType);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for column " + column + ": " + value, e);
+        }
+    }
+
+    /**
+     * Resolves a client-supplied column name to its canonical schema spelling.
+     */
+    private static String resolveColumn(String name, ColumnIndex exposedColumns) {
+        return exposedColumns.require(name);
+    }
+}
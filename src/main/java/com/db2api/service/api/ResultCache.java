@@ -0,0 +1,205 @@
+package com.db2api.service.api;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional per-API cache of serialized read results.
+ * <p>
+ * Each API with a cache TTL gets its own bounded cache. Concurrent misses for
+ * the same key are coalesced: the first caller runs the query and the others
+ * wait for its result (single-flight). Writes to a table invalidate the
+ * caches of every API exposing that table on the same connection.
+ */
+@Component
+public class ResultCache {
+
+    private final Map<Long, RouteCache> caches = new ConcurrentHashMap<>();
+
+    /** Number of writes made through the dynamic APIs, per connection and table. */
+    private final Map<TableKey, AtomicLong> writeCounts = new ConcurrentHashMap<>();
+
+    @Value("${app.dynamic.result-cache.default-max-entries:1000}")
+    private long defaultMaxEntries;
+
+    /**
+     * Produces a result on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * @return the result to cache
+         * @throws Exception if the query fails; failures are not cached
+         */
+        CachedResult load() throws Exception;
+    }
+
+    /**
+     * Returns the cached result for a key, loading it on a miss. Routes
+     * without a cache TTL always load.
+     *
+     * @param route  the API route being read
+     * @param key    the canonical form of the request
+     * @param loader the query producing the result
+     * @return the result
+     * @throws Exception if loading fails
+     */
+    public CachedResult get(ApiRoute route, Object key, Loader loader) throws Exception {
+        if (!route.isCached()) {
+            return loader.load();
+        }
+        RouteCache routeCache = cacheFor(route);
+        long generation = routeCache.generation().get();
+        CompletableFuture<CachedResult> pending = new CompletableFuture<>();
+        CompletableFuture<CachedResult> existing = routeCache.cache().asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            pending.complete(loader.load());
+        } catch (Throwable e) {
+            // Fail the waiting requests and drop the entry, so the next request retries; errors included,
+            // or waiters would block forever on a future that never completes
+            pending.completeExceptionally(e);
+            routeCache.cache().asMap().remove(key, pending);
+            throw e;
+        }
+        if (routeCache.generation().get() != generation) {
+            // A write invalidated the table while the query ran; do not keep the stale result
+            routeCache.cache().asMap().remove(key, pending);
+        }
+        return pending.join();
+    }
+
+    /**
+     * Invalidates the cached results of every API exposing the given table.
+     *
+     * @param connectionId the ID of the table's connection
+     * @param tableName    the table that was written
+     */
+    public void invalidate(Long connectionId, String tableName) {
+        writeCounts.computeIfAbsent(TableKey.of(connectionId, tableName), key -> new AtomicLong()).incrementAndGet();
+        caches.values().forEach(routeCache -> {
+            if (routeCache.matches(connectionId, tableName)) {
+                routeCache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of writes made to a table through the dynamic APIs
+     * since startup. Combined with a database-side fingerprint, it makes local
+     * writes visible immediately.
+     *
+     * @param connectionId the ID of the table's connection
+     * @param tableName    the table
+     * @return the write count
+     */
+    public long getWriteCount(Long connectionId, String tableName) {
+        AtomicLong count = writeCounts.get(TableKey.of(connectionId, tableName));
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Drops the caches of all APIs on a connection.
+     *
+     * @param connectionId the ID of the connection
+     */
+    public void invalidateConnection(Long connectionId) {
+        caches.values().forEach(routeCache -> {
+            if (routeCache.connectionId() != null && routeCache.connectionId().equals(connectionId)) {
+                routeCache.invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Drops the cache of an API definition, e.g. after it was changed or deleted.
+     *
+     * @param apiId the ID of the API definition
+     */
+    public void evict(Long apiId) {
+        if (apiId != null) {
+            RouteCache removed = caches.remove(apiId);
+            if (removed != null) {
+                removed.invalidateAll();
+            }
+        }
+    }
+
+    private RouteCache cacheFor(ApiRoute route) {
+        long maxEntries = route.cacheMaxEntries() != null && route.cacheMaxEntries() > 0
+                ? route.cacheMaxEntries()
+                : defaultMaxEntries;
+        RouteCache current = caches.get(route.id());
+        if (current != null && current.isConfiguredFor(route, maxEntries)) {
+            return current;
+        }
+        // The route was redefined; start over with its new settings
+        return caches.compute(route.id(), (id, existing) -> existing != null
+                && existing.isConfiguredFor(route, maxEntries) ? existing : RouteCache.create(route, maxEntries));
+    }
+
+    private static CachedResult join(CompletableFuture<CachedResult> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record TableKey(Long connectionId, String tableName) {
+
+        static TableKey of(Long connectionId, String tableName) {
+            return new TableKey(connectionId, tableName.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * The cache of one API, with the settings it was built for.
+     */
+    private record RouteCache(Long connectionId, String tableName, int ttlSeconds, long maxEntries,
+            AsyncCache<Object, CachedResult> cache, AtomicLong generation) {
+
+        static RouteCache create(ApiRoute route, long maxEntries) {
+            AsyncCache<Object, CachedResult> cache = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofSeconds(route.cacheTtlSeconds()))
+                    .maximumSize(maxEntries)
+                    .buildAsync();
+            Long connectionId = route.connection() != null ? route.connection().getId() : null;
+            return new RouteCache(connectionId, route.tableName(), route.cacheTtlSeconds(), maxEntries, cache,
+                    new AtomicLong());
+        }
+
+        boolean isConfiguredFor(ApiRoute route, long expectedMaxEntries) {
+            return route.cacheTtlSeconds() == ttlSeconds && expectedMaxEntries == maxEntries
+                    && matches(route.connection() != null ? route.connection().getId() : null, route.tableName());
+        }
+
+        boolean matches(Long otherConnectionId, String otherTableName) {
+            return Objects.equals(connectionId, otherConnectionId)
+                    && tableName.equalsIgnoreCase(otherTableName);
+        }
+
+        void invalidateAll() {
+            generation.incrementAndGet();
+            cache.synchronous().invalidateAll();
+        }
+    }
+}
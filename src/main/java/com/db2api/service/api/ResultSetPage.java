@@ -0,0 +1,60 @@
+package com.db2api.service.api;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+
+/**
+ * Restricts a result set to one page for a {@link RowEncoder}: the view ends
+ * after a number of rows and hides the trailing columns that were only read
+ * to continue the scan. The underlying set is left on the last row of the
+ * page, so the caller can read that row's keys and then look for a next one.
+ */
+public final class ResultSetPage {
+
+    private ResultSetPage() {
+    }
+
+    /**
+     * Wraps a result set.
+     *
+     * @param rs           the open result set
+     * @param maxRows      the number of rows in the page
+     * @param visibleCount the number of leading columns to expose
+     * @return the page view
+     */
+    public static ResultSet of(ResultSet rs, int maxRows, int visibleCount) {
+        int[] rows = new int[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> {
+                        if (rows[0] >= maxRows) {
+                            yield false;
+                        }
+                        boolean more = rs.next();
+                        if (more) {
+                            rows[0]++;
+                        }
+                        yield more;
+                    }
+                    case "getMetaData" -> visibleColumns(rs.getMetaData(), visibleCount);
+                    default -> invoke(rs, method, args);
+                });
+    }
+
+    private static ResultSetMetaData visibleColumns(ResultSetMetaData metaData, int visibleCount) {
+        return (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[] { ResultSetMetaData.class }, (proxy, method, args) -> method.getName()
+                        .equals("getColumnCount") ? visibleCount : invoke(metaData, method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.db2api.service.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the rows of a live result set to a response in one
+ * {@link RowFormat}. Encoders read the column labels from the result set
+ * metadata once and then copy values by column index, so no per-row map is
+ * built.
+ */
+public interface RowEncoder {
+
+    /**
+     * @return the format this encoder writes
+     */
+    RowFormat format();
+
+    /**
+     * Drives the result set to its end and writes every row, flushing after
+     * each {@code flushInterval} rows so the client receives rows as soon as
+     * the database returns them. The output stream is left open.
+     *
+     * @param rs            the open result set
+     * @param columns       the discovered columns of the table being read, for
+     *                      encoders that declare a schema before the first row
+     * @param out           the response stream
+     * @param flushInterval the number of rows between flushes
+     * @return the number of rows written
+     * @throws SQLException if reading fails
+     * @throws IOException  if writing fails
+     */
+    long encode(ResultSet rs, ColumnIndex columns, OutputStream out, int flushInterval)
+            throws SQLException, IOException;
+}
@@ -0,0 +1,56 @@
+package com.db2api.service.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of the {@link RowEncoder} for each {@link RowFormat}.
+ */
+@Component
+public class RowEncoders {
+
+    private final Map<RowFormat, RowEncoder> encoders = new EnumMap<>(RowFormat.class);
+    private final BufferAllocator arrowAllocator = new RootAllocator();
+
+    /**
+     * Constructs the registry.
+     *
+     * @param objectMapper   the JSON mapper used by the JSON encoders
+     * @param arrowBatchRows the maximum number of rows per Arrow record batch
+     */
+    public RowEncoders(ObjectMapper objectMapper,
+            @Value("${app.dynamic.arrow.batch-rows:10000}") int arrowBatchRows) {
+        register(new JsonRowEncoder(objectMapper, false));
+        register(new JsonRowEncoder(objectMapper, true));
+        register(new CsvRowEncoder());
+        register(new MessagePackRowEncoder());
+        register(new ArrowRowEncoder(arrowAllocator, arrowBatchRows));
+    }
+
+    private void register(RowEncoder encoder) {
+        encoders.put(encoder.format(), encoder);
+    }
+
+    /**
+     * @param format the response format
+     * @return the encoder writing that format
+     */
+    public RowEncoder get(RowFormat format) {
+        return encoders.get(format);
+    }
+
+    /**
+     * Releases the Arrow memory pool.
+     */
+    @PreDestroy
+    public void close() {
+        arrowAllocator.close();
+    }
+}
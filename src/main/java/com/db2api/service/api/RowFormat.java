@@ -0,0 +1,90 @@
+package com.db2api.service.api;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The representations a dynamic read can be written in, negotiated from the
+ * request's {@code Accept} header.
+ */
+public enum RowFormat {
+
+    /** One JSON array of objects. */
+    JSON(MediaType.APPLICATION_JSON),
+
+    /** One JSON object per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    /** A header record with the column labels followed by one record per row. */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)),
+
+    /** A MessagePack array of column labels followed by one array per row. */
+    MSGPACK(new MediaType("application", "msgpack")),
+
+    /** The Arrow IPC stream format: a schema followed by columnar record batches. */
+    ARROW(new MediaType("application", "vnd.apache.arrow.stream"));
+
+    private static final MediaType X_MSGPACK = new MediaType("application", "x-msgpack");
+
+    private final MediaType mediaType;
+
+    RowFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the Content-Type of responses in this format
+     */
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the format with the highest quality value among the media types the
+     * client accepts; on a tie the type listed first wins. Wildcards select
+     * JSON, as does a header naming no supported type.
+     *
+     * @param accept the Accept header, may be null
+     * @return the negotiated format
+     */
+    public static RowFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        RowFormat best = JSON;
+        double bestQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            RowFormat format = forMediaType(mediaType);
+            double quality = mediaType.getQualityValue();
+            if (format != null && quality > bestQuality) {
+                best = format;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static RowFormat forMediaType(MediaType mediaType) {
+        if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return JSON;
+        }
+        if (X_MSGPACK.equalsTypeAndSubtype(mediaType)) {
+            return MSGPACK;
+        }
+        for (RowFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -1,69 +1,111 @@
 package com.db2api.service.api;
 
-import com.db2api.service.EncryptionService;
-
 import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.connection.ExternalConnectivityService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for discovering database schema information such as tables, columns,
  * and their SQL types.
+ * <p>
+ * Each connection's catalog is read in one bulk sweep (all columns, then all
+ * primary and foreign keys) into an immutable {@link CatalogSnapshot}, which is
+ * cached per connection: snapshots are refreshed in the background after
+ * {@code app.schema-cache.refresh-seconds}, expire after
+ * {@code app.schema-cache.ttl-seconds} and are dropped explicitly through
+ * {@link #invalidate(Long)} when a connection changes. Metadata queries borrow
+ * connections from the pool maintained by {@link ExternalConnectivityService}.
+ * <p>
+ * Discovered catalogs are persisted through {@link SchemaSnapshotStore}; on
+ * startup {@link #loadPersisted(DbConnection)} serves them right away while
+ * the live catalogs are read again in the background.
  */
 @Service
 public class SchemaDiscoveryService {
 
     private static final Logger logger = LoggerFactory.getLogger(SchemaDiscoveryService.class);
 
-    private final EncryptionService encryptionService;
+    private static final String[] TABLE_TYPES = { "TABLE", "VIEW" };
+
+    private final ExternalConnectivityService externalConnectivityService;
+    private final SchemaSnapshotStore snapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadingCache<CatalogKey, CatalogSnapshot> catalogs;
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Cache key identifying a connection. Equality only considers the connection
+     * ID, the connection itself is carried along for loading.
+     */
+    private record CatalogKey(DbConnection connection) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CatalogKey other && Objects.equals(connection.getId(), other.connection.getId());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(connection.getId());
+        }
+    }
 
-    public SchemaDiscoveryService(EncryptionService encryptionService) {
-        this.encryptionService = encryptionService;
+    /**
+     * Constructs the SchemaDiscoveryService.
+     *
+     * @param externalConnectivityService the service providing pooled data sources
+     * @param snapshotStore               the store of persisted catalogs
+     * @param eventPublisher              the publisher of {@link CatalogChangedEvent}s
+     * @param maxConnections              the maximum number of cached catalogs
+     * @param ttlSeconds                  the time after which a cached catalog expires
+     * @param refreshSeconds              the time after which a cached catalog is refreshed in the background
+     */
+    public SchemaDiscoveryService(ExternalConnectivityService externalConnectivityService,
+            SchemaSnapshotStore snapshotStore, ApplicationEventPublisher eventPublisher,
+            @Value("${app.schema-cache.max-connections:100}") long maxConnections,
+            @Value("${app.schema-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${app.schema-cache.refresh-seconds:60}") long refreshSeconds) {
+        this.externalConnectivityService = externalConnectivityService;
+        this.snapshotStore = snapshotStore;
+        this.eventPublisher = eventPublisher;
+        this.catalogs = Caffeine.newBuilder()
+                .maximumSize(maxConnections)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+                .build(key -> loadCatalog(key.connection()));
     }
 
     public List<String> getTables(DbConnection conn) {
-        List<String> tables = new ArrayList<>();
-        String decryptedPassword = encryptionService.decrypt(conn.getPassword());
-        try (Connection connection = DriverManager.getConnection(conn.getUrl(), conn.getUsername(),
-                decryptedPassword)) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            try (ResultSet rs = metaData.getTables(null, null, "%", new String[] { "TABLE", "VIEW" })) {
-                while (rs.next()) {
-                    tables.add(rs.getString("TABLE_NAME"));
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error discovering tables", e);
-        }
-        return tables;
+        CatalogSnapshot catalog = getCatalog(conn);
+        return catalog != null ? catalog.getTableNames() : new ArrayList<>();
     }
 
     public List<String> getColumns(DbConnection conn, String tableName) {
-        List<String> columns = new ArrayList<>();
-        String decryptedPassword = encryptionService.decrypt(conn.getPassword());
-        try (Connection connection = DriverManager.getConnection(conn.getUrl(), conn.getUsername(),
-                decryptedPassword)) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            try (ResultSet rs = metaData.getColumns(null, null, tableName, null)) {
-                while (rs.next()) {
-                    columns.add(rs.getString("COLUMN_NAME"));
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error discovering columns", e);
-        }
-        return columns;
+        return new ArrayList<>(getTableSchema(conn, tableName).columnTypes().keySet());
     }
 
     /**
@@ -71,23 +113,210 @@ public class SchemaDiscoveryService {
      *
      * @param conn      the database connection to inspect
      * @param tableName the table to inspect
-     * @return an ordered map of column name to java.sql.Types constant
+     * @return an ordered, unmodifiable map of column name to java.sql.Types constant
      */
     public Map<String, Integer> getColumnTypes(DbConnection conn, String tableName) {
-        Map<String, Integer> columns = new LinkedHashMap<>();
-        String decryptedPassword = encryptionService.decrypt(conn.getPassword());
-        try (Connection connection = DriverManager.getConnection(conn.getUrl(), conn.getUsername(),
-                decryptedPassword)) {
+        return getTableSchema(conn, tableName).columnTypes();
+    }
+
+    /**
+     * Returns the primary key columns of the given table in key sequence order.
+     *
+     * @param conn      the database connection to inspect
+     * @param tableName the table to inspect
+     * @return the primary key column names, or an empty list if the table has none
+     */
+    public List<String> getPrimaryKeys(DbConnection conn, String tableName) {
+        return getTableSchema(conn, tableName).primaryKeys();
+    }
+
+    /**
+     * Returns the metadata of a table from the connection's catalog snapshot.
+     *
+     * @param conn      the database connection to inspect
+     * @param tableName the table to inspect
+     * @return the table metadata, empty if the table is unknown or discovery failed
+     */
+    public TableSchema getTableSchema(DbConnection conn, String tableName) {
+        CatalogSnapshot catalog = getCatalog(conn);
+        TableSchema table = catalog != null ? catalog.getTable(tableName) : null;
+        return table != null ? table : TableSchema.empty(tableName);
+    }
+
+    /**
+     * Returns the cached catalog snapshot of a connection, discovering it on
+     * first use. Discovery failures are logged and not cached.
+     *
+     * @param conn the database connection to inspect
+     * @return the catalog snapshot, or null if discovery failed
+     */
+    public CatalogSnapshot getCatalog(DbConnection conn) {
+        try {
+            return catalogs.get(new CatalogKey(conn));
+        } catch (Exception e) {
+            logger.error("Error discovering catalog of connection {}", conn.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Seeds the cache with the persisted catalog of a connection, unless a
+     * catalog is cached already, and revalidates it against the live database
+     * in the background. A revalidated catalog that differs from the persisted
+     * one replaces it and is announced through a {@link CatalogChangedEvent}.
+     *
+     * @param conn the database connection
+     * @return true if a catalog is available without discovery
+     */
+    public boolean loadPersisted(DbConnection conn) {
+        CatalogKey key = new CatalogKey(conn);
+        if (catalogs.getIfPresent(key) != null) {
+            return true;
+        }
+        CatalogSnapshot snapshot = snapshotStore.load(conn.getId(), versions.incrementAndGet());
+        if (snapshot == null) {
+            return false;
+        }
+        catalogs.put(key, snapshot);
+        catalogs.refresh(key);
+        logger.info("Loaded stored catalog of connection {} discovered at {}, revalidating in the background",
+                conn.getId(), snapshot.getDiscoveredAt());
+        return true;
+    }
+
+    /**
+     * Drops the cached and the persisted catalog of the given connection.
+     * Should be called when a connection is updated or deleted.
+     *
+     * @param connectionId the ID of the connection to invalidate
+     */
+    public void invalidate(Long connectionId) {
+        catalogs.asMap().keySet().removeIf(key -> Objects.equals(key.connection().getId(), connectionId));
+        snapshotStore.delete(connectionId);
+    }
+
+    /**
+     * Reads the whole catalog of a connection on one pooled connection: one
+     * table sweep, one column sweep and one sweep each for primary and foreign
+     * keys. Drivers that cannot list keys for all tables at once are queried
+     * table by table instead.
+     */
+    private CatalogSnapshot loadCatalog(DbConnection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = externalConnectivityService.getDataSource(conn).getConnection()) {
             DatabaseMetaData metaData = connection.getMetaData();
-            try (ResultSet rs = metaData.getColumns(null, null, tableName, null)) {
+            String catalog = connection.getCatalog();
+            String schema = currentSchema(connection);
+
+            Map<String, List<ColumnInfo>> columns = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getTables(catalog, schema, "%", TABLE_TYPES)) {
                 while (rs.next()) {
-                    columns.put(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"));
+                    columns.putIfAbsent(rs.getString("TABLE_NAME"), new ArrayList<>());
                 }
             }
-        } catch (Exception e) {
-            logger.error("Error discovering column types", e);
+            try (ResultSet rs = metaData.getColumns(catalog, schema, "%", "%")) {
+                while (rs.next()) {
+                    List<ColumnInfo> tableColumns = columns.get(rs.getString("TABLE_NAME"));
+                    if (tableColumns != null) {
+                        tableColumns.add(new ColumnInfo(rs.getString("COLUMN_NAME"), rs.getInt("DATA_TYPE"),
+                                rs.getString("TYPE_NAME"),
+                                rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls));
+                    }
+                }
+            }
+
+            Map<String, Map<Integer, String>> primaryKeys = new HashMap<>();
+            sweep(metaData, columns.keySet(), table -> metaData.getPrimaryKeys(catalog, schema, table), rs ->
+                    primaryKeys.computeIfAbsent(rs.getString("TABLE_NAME"), t -> new TreeMap<>())
+                            .put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME")));
+
+            Map<String, Map<String, List<ForeignKeyColumn>>> foreignKeys = new HashMap<>();
+            sweep(metaData, columns.keySet(), table -> metaData.getImportedKeys(catalog, schema, table), rs -> {
+                ForeignKeyColumn column = new ForeignKeyColumn(rs.getString("FK_NAME"), rs.getString("PKTABLE_NAME"),
+                        rs.getString("FKCOLUMN_NAME"), rs.getString("PKCOLUMN_NAME"), rs.getInt("KEY_SEQ"));
+                foreignKeys.computeIfAbsent(rs.getString("FKTABLE_NAME"), t -> new LinkedHashMap<>())
+                        .computeIfAbsent(column.name() != null ? column.name() : column.referencedTable(),
+                                n -> new ArrayList<>())
+                        .add(column);
+            });
+
+            List<TableSchema> tables = new ArrayList<>();
+            for (Map.Entry<String, List<ColumnInfo>> entry : columns.entrySet()) {
+                String table = entry.getKey();
+                List<String> keys = new ArrayList<>(primaryKeys.getOrDefault(table, Map.of()).values());
+                List<ForeignKey> fks = new ArrayList<>();
+                for (List<ForeignKeyColumn> parts : foreignKeys.getOrDefault(table, Map.of()).values()) {
+                    parts.sort(Comparator.comparingInt(ForeignKeyColumn::keySeq));
+                    fks.add(new ForeignKey(parts.get(0).name(),
+                            parts.stream().map(ForeignKeyColumn::column).toList(),
+                            parts.get(0).referencedTable(),
+                            parts.stream().map(ForeignKeyColumn::referencedColumn).toList()));
+                }
+                tables.add(TableSchema.of(table, entry.getValue(), keys, fks));
+            }
+
+            CatalogSnapshot snapshot = new CatalogSnapshot(conn.getId(), versions.incrementAndGet(), Instant.now(),
+                    tables);
+            logger.info("Discovered catalog of connection {} with {} tables in {} ms", conn.getId(), tables.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            if (snapshotStore.save(snapshot)) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(conn.getId()));
+            }
+            return snapshot;
+        }
+    }
+
+    /** One column pair of a foreign key, as reported by {@link DatabaseMetaData#getImportedKeys}. */
+    private record ForeignKeyColumn(String name, String referencedTable, String column, String referencedColumn,
+            int keySeq) {
+    }
+
+    /** Opens a metadata result set for one table, or for all tables when given null. */
+    @FunctionalInterface
+    private interface MetadataQuery {
+        ResultSet open(String table) throws SQLException;
+    }
+
+    /** Consumes one row of a metadata result set. */
+    @FunctionalInterface
+    private interface MetadataRowHandler {
+        void accept(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Runs a key metadata query for all tables at once, falling back to one
+     * query per table when the driver rejects a null table name.
+     */
+    private void sweep(DatabaseMetaData metaData, Collection<String> tables, MetadataQuery query,
+            MetadataRowHandler handler) throws SQLException {
+        try (ResultSet rs = query.open(null)) {
+            while (rs.next()) {
+                handler.accept(rs);
+            }
+            return;
+        } catch (SQLException e) {
+            logger.debug("Bulk key discovery not supported by {}, querying per table",
+                    metaData.getDatabaseProductName(), e);
+        }
+        for (String table : tables) {
+            try (ResultSet rs = query.open(table)) {
+                while (rs.next()) {
+                    handler.accept(rs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the schema unqualified table names resolve against, so the sweep
+     * does not pick up system schemas.
+     */
+    private static String currentSchema(Connection connection) {
+        try {
+            return connection.getSchema();
+        } catch (SQLException | AbstractMethodError e) {
+            return null;
         }
-        return columns;
     }
 
     /**
@@ -0,0 +1,135 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.SchemaSnapshot;
+import com.db2api.repository.connection.SchemaSnapshotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists discovered catalogs in the system database, one
+ * {@link SchemaSnapshot} per connection, so a restart can serve from the last
+ * known catalog instead of introspecting every external database first.
+ * <p>
+ * A catalog is written only when its tables differ from the stored ones, so
+ * the periodic background refresh of unchanged catalogs costs no writes.
+ * Failures of the system database are logged and treated as a missing
+ * snapshot; discovery then proceeds as without persistence.
+ */
+@Component
+public class SchemaSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaSnapshotStore.class);
+
+    /** The version of the stored catalog format, to be raised when the stored JSON changes shape. */
+    static final int FORMAT_VERSION = 1;
+
+    private static final TypeReference<List<TableSchema>> TABLES = new TypeReference<>() {
+    };
+
+    private final SchemaSnapshotRepository schemaSnapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    /** The catalog JSON last stored or loaded, by connection ID. */
+    private final Map<Long, String> stored = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the store.
+     *
+     * @param schemaSnapshotRepository the repository of stored snapshots
+     * @param objectMapper             the JSON mapper the catalogs are stored with
+     * @param enabled                  whether catalogs are persisted at all
+     */
+    public SchemaSnapshotStore(SchemaSnapshotRepository schemaSnapshotRepository, ObjectMapper objectMapper,
+            @Value("${app.schema-cache.persist:true}") boolean enabled) {
+        this.schemaSnapshotRepository = schemaSnapshotRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads the stored catalog of a connection.
+     *
+     * @param connectionId the ID of the connection
+     * @param version      the version to give the loaded snapshot
+     * @return the catalog, or null if none is stored or it cannot be read
+     */
+    public CatalogSnapshot load(Long connectionId, long version) {
+        if (!enabled || connectionId == null) {
+            return null;
+        }
+        try {
+            SchemaSnapshot snapshot = schemaSnapshotRepository.findById(connectionId).orElse(null);
+            if (snapshot == null || snapshot.getFormatVersion() != FORMAT_VERSION) {
+                return null;
+            }
+            List<TableSchema> tables = objectMapper.readerFor(TABLES)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(snapshot.getCatalog());
+            stored.put(connectionId, snapshot.getCatalog());
+            return new CatalogSnapshot(connectionId, version, snapshot.getDiscoveredAt(), tables);
+        } catch (Exception e) {
+            logger.warn("Cannot load stored catalog of connection {}, discovering it instead", connectionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a catalog unless its tables equal the stored ones.
+     *
+     * @param catalog the discovered catalog
+     * @return true if the tables differ from the stored or loaded ones, including when none were stored
+     */
+    public boolean save(CatalogSnapshot catalog) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(catalog.getTables());
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot serialize catalog of connection {}", catalog.getConnectionId(), e);
+            return true;
+        }
+        if (json.equals(stored.put(catalog.getConnectionId(), json))) {
+            return false;
+        }
+        if (enabled) {
+            try {
+                SchemaSnapshot snapshot = new SchemaSnapshot();
+                snapshot.setConnectionId(catalog.getConnectionId());
+                snapshot.setFormatVersion(FORMAT_VERSION);
+                snapshot.setDiscoveredAt(catalog.getDiscoveredAt());
+                snapshot.setCatalog(json);
+                schemaSnapshotRepository.save(snapshot);
+            } catch (Exception e) {
+                logger.warn("Cannot store catalog of connection {}", catalog.getConnectionId(), e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the stored catalog of a connection.
+     *
+     * @param connectionId the ID of the connection
+     */
+    public void delete(Long connectionId) {
+        stored.remove(connectionId);
+        if (!enabled) {
+            return;
+        }
+        try {
+            schemaSnapshotRepository.deleteById(connectionId);
+        } catch (Exception e) {
+            logger.warn("Cannot delete stored catalog of connection {}", connectionId, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.db2api.service.api;
+
+/**
+ * One ORDER BY term of a dynamic read.
+ *
+ * @param column     the canonical column name from the table schema
+ * @param descending whether the column is sorted in descending order
+ */
+public record SortOrder(String column, boolean descending) {
+
+    /**
+     * @return the ORDER BY term, e.g. {@code price DESC}
+     */
+    public String toSql() {
+        return descending ? column + " DESC" : column;
+    }
+
+    /**
+     * Renders the term with NULLs sorting after all values, i.e. last in
+     * ascending and first in descending order. That is PostgreSQL's default,
+     * which is stated explicitly there; other databases differ, so the
+     * placement is forced with a leading NULL flag.
+     *
+     * @param nullable whether the column may hold NULLs
+     * @param dialect  the dialect of the database
+     * @return the ORDER BY term(s), e.g. {@code price DESC NULLS FIRST}
+     */
+    public String toSql(boolean nullable, SqlDialect dialect) {
+        if (!nullable) {
+            return toSql();
+        }
+        if (dialect == SqlDialect.POSTGRESQL) {
+            return toSql() + (descending ? " NULLS FIRST" : " NULLS LAST");
+        }
+        return "CASE WHEN " + column + " IS NULL THEN 1 ELSE 0 END" + (descending ? " DESC, " : ", ") + toSql();
+    }
+}
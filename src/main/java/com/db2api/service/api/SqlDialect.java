@@ -0,0 +1,67 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The SQL dialect of an external database, as far as the dynamic APIs need to
+ * know it. Only the syntax that differs between vendors is modelled here.
+ */
+public enum SqlDialect {
+
+    /** PostgreSQL. Supports {@code LIMIT/OFFSET} and {@code COPY}. */
+    POSTGRESQL,
+
+    /** Databases using {@code LIMIT ? OFFSET ?} (MySQL, MariaDB, SQLite, H2). */
+    LIMIT_OFFSET,
+
+    /** Databases using the SQL:2008 {@code OFFSET ... FETCH NEXT} clause (Oracle, SQL Server, DB2). */
+    OFFSET_FETCH;
+
+    /**
+     * Detects the dialect from the JDBC driver class of the given connection.
+     *
+     * @param connection the connection configuration
+     * @return the dialect to generate SQL for
+     */
+    public static SqlDialect of(DbConnection connection) {
+        String driver = connection.getDriverClass() != null
+                ? connection.getDriverClass().toLowerCase(Locale.ROOT)
+                : "";
+        if (driver.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (driver.contains("oracle") || driver.contains("sqlserver") || driver.contains("db2")) {
+            return OFFSET_FETCH;
+        }
+        return LIMIT_OFFSET;
+    }
+
+    /**
+     * Appends a row-limiting clause to the given query and adds its parameters.
+     *
+     * @param sql     the query being built
+     * @param params  the positional parameters of the query
+     * @param limit   the maximum number of rows to return
+     * @param offset  the number of rows to skip
+     * @param ordered whether the query already has an ORDER BY clause
+     */
+    public void appendLimitOffset(StringBuilder sql, List<Object> params, int limit, long offset,
+            boolean ordered) {
+        if (this == OFFSET_FETCH) {
+            if (!ordered) {
+                // SQL Server rejects OFFSET without ORDER BY
+                sql.append(" ORDER BY 1");
+            }
+            sql.append(" OFFSET ? ROWS FETCH NEXT ? ROWS ONLY");
+            params.add(offset);
+            params.add(limit);
+        } else {
+            sql.append(" LIMIT ? OFFSET ?");
+            params.add(limit);
+            params.add(offset);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.db2api.service.api;
+
+import java.util.List;
+
+/**
+ * A validated, parameterized boolean expression of a dynamic read: a single
+ * {@link FilterCondition} or a conjunction or disjunction of predicates.
+ */
+public sealed interface SqlPredicate permits FilterCondition, SqlPredicate.All, SqlPredicate.Any {
+
+    /**
+     * Appends this predicate to a query and adds its parameters.
+     *
+     * @param sql    the query being built
+     * @param params the positional parameters of the query
+     */
+    void appendTo(StringBuilder sql, List<Object> params);
+
+    /**
+     * Predicates that must all hold; true when empty.
+     *
+     * @param predicates the operands
+     */
+    record All(List<SqlPredicate> predicates) implements SqlPredicate {
+
+        @Override
+        public void appendTo(StringBuilder sql, List<Object> params) {
+            appendGroup(sql, params, predicates, " AND ", "1 = 1");
+        }
+    }
+
+    /**
+     * Predicates of which at least one must hold; false when empty.
+     *
+     * @param predicates the operands
+     */
+    record Any(List<SqlPredicate> predicates) implements SqlPredicate {
+
+        @Override
+        public void appendTo(StringBuilder sql, List<Object> params) {
+            appendGroup(sql, params, predicates, " OR ", "1 = 0");
+        }
+    }
+
+    private static void appendGroup(StringBuilder sql, List<Object> params, List<SqlPredicate> predicates,
+            String separator, String empty) {
+        if (predicates.isEmpty()) {
+            sql.append(empty);
+            return;
+        }
+        sql.append('(');
+        for (int i = 0; i < predicates.size(); i++) {
+            if (i > 0) {
+                sql.append(separator);
+            }
+            predicates.get(i).appendTo(sql, params);
+        }
+        sql.append(')');
+    }
+}
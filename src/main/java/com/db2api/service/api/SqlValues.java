@@ -0,0 +1,102 @@
+package com.db2api.service.api;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Base64;
+
+/**
+ * Converts textual values (query parameters, page tokens) into Java objects
+ * matching a column's SQL type, so they can be bound to prepared statements
+ * without relying on implicit casts in the database, and column values back
+ * into text for the non-JSON response formats.
+ */
+public final class SqlValues {
+
+    private SqlValues() {
+    }
+
+    /**
+     * Converts a string to the Java type JDBC expects for the given SQL type.
+     * Values of {@link Types#OTHER} columns become {@link Untyped}; other types
+     * without a dedicated mapping are passed through as strings.
+     *
+     * @param raw     the textual value, may be null
+     * @param sqlType the java.sql.Types constant of the target column
+     * @return the converted value
+     * @throws IllegalArgumentException if the value cannot be parsed for the type
+     */
+    public static Object coerce(String raw, int sqlType) {
+        if (raw == null) {
+            return null;
+        }
+        return switch (sqlType) {
+            case Types.SMALLINT, Types.TINYINT, Types.INTEGER -> Integer.valueOf(raw.trim());
+            case Types.BIGINT -> Long.valueOf(raw.trim());
+            case Types.REAL -> Float.valueOf(raw.trim());
+            case Types.FLOAT, Types.DOUBLE -> Double.valueOf(raw.trim());
+            case Types.NUMERIC, Types.DECIMAL -> new BigDecimal(raw.trim());
+            case Types.BIT, Types.BOOLEAN -> parseBoolean(raw.trim());
+            case Types.DATE -> Date.valueOf(raw.trim());
+            case Types.TIME -> Time.valueOf(raw.trim());
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> Timestamp.valueOf(raw.trim().replace('T', ' '));
+            case Types.OTHER -> new Untyped(raw);
+            default -> raw;
+        };
+    }
+
+    /**
+     * Renders a column value as text: timestamps in ISO-8601 form, decimals
+     * without an exponent and binary values in Base64. Other values use
+     * {@code toString()}.
+     *
+     * @param value the column value, may be null
+     * @return the textual value, or null for SQL NULL
+     */
+    public static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String text) {
+            return text;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof byte[] bytes) {
+            return Base64.getEncoder().encodeToString(bytes);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Text for a column of a type JDBC has no Java mapping for, such as
+     * PostgreSQL's {@code uuid}, {@code json} or enum types. It is bound as
+     * {@link Types#OTHER}, so the database converts it to the column's type;
+     * bound as a string, PostgreSQL would reject e.g. {@code uuid > varchar}.
+     *
+     * @param text the textual value
+     */
+    public record Untyped(String text) {
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static Boolean parseBoolean(String raw) {
+        if ("true".equalsIgnoreCase(raw) || "1".equals(raw) || "t".equalsIgnoreCase(raw)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(raw) || "0".equals(raw) || "f".equalsIgnoreCase(raw)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + raw);
+    }
+}
@@ -0,0 +1,31 @@
+package com.db2api.service.api;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * A cheap summary of a table's state that changes whenever its rows change.
+ *
+ * @param version      an opaque value that differs after every change
+ * @param lastModified the time of the latest change, or null if unknown
+ */
+public record TableFingerprint(String version, Instant lastModified) {
+
+    /**
+     * Derives a weak entity tag for one view of the table. Weak, because the
+     * fingerprint identifies the table's state rather than the exact bytes of
+     * the response.
+     *
+     * @param variant identifies the request and settings the view depends on
+     * @return the entity tag
+     */
+    public String etag(String variant) {
+        MessageDigest digest = CachedResult.sha256();
+        digest.update(version.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(variant.getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+}
@@ -0,0 +1,193 @@
+package com.db2api.service.api;
+
+import com.db2api.service.connection.ExternalConnectivityService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes {@link TableFingerprint}s used as validators for conditional GETs,
+ * so unchanged tables can be answered with 304 without running the read.
+ * <p>
+ * Tables with a change-tracking column (one of
+ * {@code app.dynamic.etag.change-columns}, e.g. {@code updated_at}) are
+ * fingerprinted by the column's maximum and, since deletes do not move the
+ * maximum, on PostgreSQL by the delete counter of {@code pg_stat_user_tables}
+ * and elsewhere by the row count. Counting scans the table, so on other
+ * databases only tables estimated at up to
+ * {@code app.dynamic.etag.count-max-rows} rows are fingerprinted; larger
+ * ones fall back to content hashing. Other PostgreSQL tables use the insert/update/delete counters,
+ * which the server publishes with a delay of up to about a second. Tables
+ * without a cheap source have no fingerprint.
+ * <p>
+ * The database part of a fingerprint is reused for
+ * {@code app.dynamic.etag.fingerprint-ttl-ms}, so polling clients cost at
+ * most one lookup per table and interval. It is combined with the number of
+ * writes made through the dynamic APIs, so local writes, including deletes
+ * on other databases, are seen at once.
+ */
+@Service
+public class TableFingerprintService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableFingerprintService.class);
+
+    /** The casts to text are needed before PostgreSQL 14, where to_regclass only takes cstring. */
+    private static final String PG_STAT_SQL = "SELECT n_tup_ins, n_tup_upd, n_tup_del FROM pg_stat_user_tables"
+            + " WHERE relid = to_regclass(?::text)";
+
+    private static final String PG_DELETES_SQL = "(SELECT n_tup_del FROM pg_stat_user_tables"
+            + " WHERE relid = to_regclass(?::text))";
+
+    /** Marks tables without a cheap change source in the cache, which cannot hold nulls. */
+    private static final Optional<TableFingerprint> NONE = Optional.empty();
+
+    private final ExternalConnectivityService externalConnectivityService;
+    private final QueryCompiler queryCompiler;
+    private final ResultCache resultCache;
+    private final TableStatistics tableStatistics;
+    private final Cache<TableKey, Optional<TableFingerprint>> fingerprints;
+    private final Set<TableKey> warned = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.dynamic.etag.change-columns:updated_at,last_modified,modified_at,last_updated}")
+    private List<String> changeColumns;
+
+    @Value("${app.dynamic.etag.count-max-rows:100000}")
+    private long countMaxRows;
+
+    /**
+     * Constructs the TableFingerprintService.
+     *
+     * @param externalConnectivityService the service providing pooled data sources
+     * @param queryCompiler               the compiler providing column indexes
+     * @param resultCache                 the cache counting local writes
+     * @param tableStatistics             the row estimates deciding whether a table is small enough to count
+     * @param ttlMs                       how long the database part of a fingerprint is reused
+     */
+    public TableFingerprintService(ExternalConnectivityService externalConnectivityService,
+            QueryCompiler queryCompiler, ResultCache resultCache, TableStatistics tableStatistics,
+            @Value("${app.dynamic.etag.fingerprint-ttl-ms:1000}") long ttlMs) {
+        this.externalConnectivityService = externalConnectivityService;
+        this.queryCompiler = queryCompiler;
+        this.resultCache = resultCache;
+        this.tableStatistics = tableStatistics;
+        this.fingerprints = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Computes the fingerprint of a route's table.
+     *
+     * @param route the API route
+     * @return the fingerprint, or null if the table has no cheap change source
+     */
+    public TableFingerprint fingerprint(ApiRoute route) {
+        TableKey key = new TableKey(route.connection().getId(), route.tableName().toLowerCase(Locale.ROOT));
+        Optional<TableFingerprint> source = fingerprints.get(key, ignored -> readFingerprint(key, route));
+        if (source.isEmpty()) {
+            return null;
+        }
+        long localWrites = resultCache.getWriteCount(route.connection().getId(), route.tableName());
+        return new TableFingerprint(source.get().version() + ":" + localWrites, source.get().lastModified());
+    }
+
+    /**
+     * Reads the database part of a table's fingerprint.
+     */
+    private Optional<TableFingerprint> readFingerprint(TableKey key, ApiRoute route) {
+        String changeColumn = findChangeColumn(route);
+        boolean postgres = SqlDialect.of(route.connection()) == SqlDialect.POSTGRESQL;
+        if (changeColumn == null && !postgres) {
+            return NONE;
+        }
+        // Without delete statistics a deleted row is only seen by counting, which is kept to small tables
+        boolean count = !postgres && tableStatistics.estimateRows(route) <= countMaxRows;
+        if (!postgres && !count) {
+            return NONE;
+        }
+
+        try (Connection jdbc = externalConnectivityService.getDataSource(route.connection()).getConnection()) {
+            if (changeColumn != null) {
+                // MAX of the column is answered from an index where there is one
+                String sql = "SELECT MAX(" + changeColumn + ")"
+                        + (postgres ? ", " + PG_DELETES_SQL : ", COUNT(*)")
+                        + " FROM " + route.tableName();
+                try (PreparedStatement statement = jdbc.prepareStatement(sql)) {
+                    if (postgres) {
+                        statement.setString(1, route.tableName());
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rs.next();
+                        Object max = rs.getObject(1);
+                        Instant lastModified = max instanceof Timestamp timestamp ? timestamp.toInstant() : null;
+                        return Optional.of(new TableFingerprint("c:" + max + ":" + rs.getLong(2), lastModified));
+                    }
+                }
+            }
+            try (PreparedStatement statement = jdbc.prepareStatement(PG_STAT_SQL)) {
+                statement.setString(1, route.tableName());
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) {
+                        // Views and foreign tables have no statistics
+                        return NONE;
+                    }
+                    return Optional.of(new TableFingerprint(
+                            "s:" + rs.getLong(1) + ":" + rs.getLong(2) + ":" + rs.getLong(3), null));
+                }
+            }
+        } catch (SQLException e) {
+            // Warn once per table; the fingerprint is retried whenever it expires
+            if (warned.add(key)) {
+                logger.warn("Unable to fingerprint table {}, falling back to content hashing", route.tableName(), e);
+            } else {
+                logger.debug("Unable to fingerprint table {}, falling back to content hashing", route.tableName(), e);
+            }
+            return NONE;
+        }
+    }
+
+    /**
+     * Finds the first configured change-tracking column of the table that
+     * holds a timestamp, date or number.
+     */
+    private String findChangeColumn(ApiRoute route) {
+        ColumnIndex columns = queryCompiler.columns(route);
+        for (String candidate : changeColumns) {
+            String column = columns.resolve(candidate.trim());
+            if (column != null && isOrderedType(columns.sqlType(column))) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOrderedType(int sqlType) {
+        return switch (sqlType) {
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE, Types.INTEGER, Types.BIGINT,
+                    Types.NUMERIC, Types.DECIMAL -> true;
+            default -> false;
+        };
+    }
+
+    /** Identifies a table across route table snapshots. */
+    private record TableKey(Long connectionId, String tableName) {
+    }
+}
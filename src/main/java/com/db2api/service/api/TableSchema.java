@@ -0,0 +1,65 @@
+package com.db2api.service.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable metadata of one external table as discovered from
+ * {@link java.sql.DatabaseMetaData}.
+ *
+ * @param tableName   the table name as stored in the database
+ * @param columns     the columns in ordinal order
+ * @param columnTypes the columns in ordinal order, mapped to their java.sql.Types constant
+ * @param primaryKeys the primary key columns in key sequence order
+ * @param foreignKeys the foreign keys declared on the table
+ */
+public record TableSchema(String tableName, List<ColumnInfo> columns, Map<String, Integer> columnTypes,
+        List<String> primaryKeys, List<ForeignKey> foreignKeys) {
+
+    /**
+     * Creates a schema, taking immutable copies of the given collections.
+     */
+    public TableSchema {
+        columns = List.copyOf(columns);
+        columnTypes = Collections.unmodifiableMap(new LinkedHashMap<>(columnTypes));
+        primaryKeys = List.copyOf(primaryKeys);
+        foreignKeys = List.copyOf(foreignKeys);
+    }
+
+    /**
+     * Creates a schema from its columns, deriving the column type map.
+     *
+     * @param tableName   the table name as stored in the database
+     * @param columns     the columns in ordinal order
+     * @param primaryKeys the primary key columns in key sequence order
+     * @param foreignKeys the foreign keys declared on the table
+     * @return the schema
+     */
+    public static TableSchema of(String tableName, List<ColumnInfo> columns, List<String> primaryKeys,
+            List<ForeignKey> foreignKeys) {
+        Map<String, Integer> columnTypes = new LinkedHashMap<>();
+        for (ColumnInfo column : columns) {
+            columnTypes.put(column.name(), column.sqlType());
+        }
+        return new TableSchema(tableName, columns, columnTypes, primaryKeys, foreignKeys);
+    }
+
+    /**
+     * Creates a schema for a table that could not be discovered.
+     *
+     * @param tableName the table name
+     * @return a schema without columns
+     */
+    public static TableSchema empty(String tableName) {
+        return of(tableName, List.of(), List.of(), List.of());
+    }
+
+    /**
+     * @return true if no columns were discovered for the table
+     */
+    public boolean isEmpty() {
+        return columns.isEmpty();
+    }
+}
@@ -0,0 +1,116 @@
+package com.db2api.service.api;
+
+import com.db2api.service.connection.ExternalConnectivityService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the number of rows of external tables from the statistics the
+ * databases keep for their planners, without counting rows.
+ * <p>
+ * PostgreSQL tables are estimated by {@code pg_class.reltuples}, other
+ * databases by the table statistic row of the JDBC index information. Tables
+ * without statistics, e.g. never analyzed ones, get the configured default.
+ * Estimates are cached per table for the configured time.
+ */
+@Service
+public class TableStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableStatistics.class);
+
+    /** The cast to text is needed before PostgreSQL 14, where to_regclass only takes cstring. */
+    private static final String PG_RELTUPLES_SQL = "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?::text)";
+
+    private final ExternalConnectivityService externalConnectivityService;
+    private final long unknownRows;
+    private final Cache<TableKey, Long> estimates;
+    private final Set<TableKey> warned = ConcurrentHashMap.newKeySet();
+
+    /** Identifies a table across route table snapshots. */
+    private record TableKey(Long connectionId, String tableName) {
+    }
+
+    /**
+     * Constructs the TableStatistics.
+     *
+     * @param externalConnectivityService the service providing pooled data sources
+     * @param unknownRows                 the estimate of tables without statistics
+     * @param ttlSeconds                  how long an estimate is reused
+     */
+    public TableStatistics(ExternalConnectivityService externalConnectivityService,
+            @Value("${app.graphql.cost.unknown-table-rows:10000}") long unknownRows,
+            @Value("${app.graphql.cost.statistics-ttl-seconds:300}") long ttlSeconds) {
+        this.externalConnectivityService = externalConnectivityService;
+        this.unknownRows = unknownRows;
+        this.estimates = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Estimates the number of rows of a route's table.
+     *
+     * @param route the API route
+     * @return the estimated number of rows, at least 1
+     */
+    public long estimateRows(ApiRoute route) {
+        TableKey key = new TableKey(route.connection().getId(), route.tableName());
+        return estimates.get(key, ignored -> readEstimate(key, route));
+    }
+
+    private long readEstimate(TableKey key, ApiRoute route) {
+        try (Connection jdbc = externalConnectivityService.getDataSource(route.connection()).getConnection()) {
+            long rows = SqlDialect.of(route.connection()) == SqlDialect.POSTGRESQL
+                    ? readReltuples(jdbc, route.tableName())
+                    : readCardinality(jdbc, route.tableName());
+            // Never analyzed tables report -1 or 0
+            return rows > 0 ? rows : unknownRows;
+        } catch (SQLException | RuntimeException e) {
+            // Warn once per table; the estimate is retried whenever it expires
+            if (warned.add(key)) {
+                logger.warn("Unable to read statistics of table {}, assuming {} rows", route.tableName(),
+                        unknownRows, e);
+            } else {
+                logger.debug("Unable to read statistics of table {}, assuming {} rows", route.tableName(),
+                        unknownRows, e);
+            }
+            return unknownRows;
+        }
+    }
+
+    private static long readReltuples(Connection jdbc, String tableName) throws SQLException {
+        try (PreparedStatement statement = jdbc.prepareStatement(PG_RELTUPLES_SQL)) {
+            statement.setString(1, tableName);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? (long) rs.getFloat(1) : -1;
+            }
+        }
+    }
+
+    private static long readCardinality(Connection jdbc, String tableName) throws SQLException {
+        DatabaseMetaData metaData = jdbc.getMetaData();
+        // approximate = true lets the driver answer from its statistics instead of scanning
+        try (ResultSet rs = metaData.getIndexInfo(jdbc.getCatalog(), null, tableName, false, true)) {
+            while (rs.next()) {
+                if (rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    return rs.getLong("CARDINALITY");
+                }
+            }
+        }
+        return -1;
+    }
+}
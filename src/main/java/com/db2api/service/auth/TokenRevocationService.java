@@ -0,0 +1,159 @@
+package com.db2api.service.auth;
+
+import com.db2api.persistent.auth.RevokedToken;
+import com.db2api.repository.auth.RevokedTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers whether an access token has been revoked without touching the
+ * system database.
+ * <p>
+ * Revocations that have not expired yet are held in memory: an exact map of
+ * JWT IDs, fronted by a {@link BloomFilter} so that the common case, a token
+ * that was never revoked, is settled by a few bit lookups. The database stays
+ * the source of truth: revocations are written through to it, loaded at
+ * startup, picked up from other instances every
+ * {@code app.jwt.revocation.sync-interval-ms}, and deleted once their token
+ * has expired, since an expired token is rejected anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** Look back this far when syncing, to catch revocations committed late by other instances. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync;
+
+    /**
+     * Constructs the TokenRevocationService.
+     *
+     * @param revokedTokenRepository the repository revocations are persisted in
+     * @param expectedRevocations    the number of live revocations the Bloom filter is sized for
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            @Value("${app.jwt.revocation.expected-revocations:10000}") int expectedRevocations) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = Math.max(expectedRevocations, 16);
+        this.filter = new BloomFilter(this.expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    public void init() {
+        load(Instant.now());
+    }
+
+    void load(Instant now) {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+            remember(token.getJti(), token.getExpiresAt());
+        }
+        lastSync = now;
+        logger.info("Loaded {} token revocations", revoked.size());
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param jti the JWT ID of the token
+     * @return true if the token is revoked
+     */
+    public boolean isRevoked(String jti) {
+        // The filter is only updated after the map, so a hit in the filter is never ahead of it
+        return filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param jti       the JWT ID of the token
+     * @param expiresAt the expiration time of the token
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setJti(jti);
+        token.setRevokedAt(Instant.now());
+        token.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(token);
+        remember(jti, expiresAt);
+    }
+
+    /**
+     * Picks up the revocations made by other instances since the last sync.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval-ms:10000}",
+            initialDelayString = "${app.jwt.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        sync(Instant.now());
+    }
+
+    void sync(Instant now) {
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfter(lastSync.minus(SYNC_OVERLAP))) {
+            if (token.getExpiresAt().isAfter(now)) {
+                remember(token.getJti(), token.getExpiresAt());
+            }
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Forgets the revocations of expired tokens, in memory and in the
+     * database, and rebuilds the Bloom filter without them.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.prune-interval-ms:300000}",
+            initialDelayString = "${app.jwt.revocation.prune-interval-ms:300000}")
+    public void prune() {
+        prune(Instant.now());
+    }
+
+    void prune(Instant now) {
+        long deleted = revokedTokenRepository.deleteByExpiresAtBefore(now);
+        if (revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now))) {
+            rebuild();
+        }
+        if (deleted > 0) {
+            logger.debug("Pruned {} expired token revocations", deleted);
+        }
+    }
+
+    /**
+     * @return the number of revocations held in memory
+     */
+    int size() {
+        return revoked.size();
+    }
+
+    private synchronized void remember(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        if (revoked.size() > filter.capacity()) {
+            rebuild();
+        } else {
+            filter.add(jti);
+        }
+    }
+
+    private synchronized void rebuild() {
+        // Leave room to grow so that a burst of revocations does not rebuild on every call
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+}
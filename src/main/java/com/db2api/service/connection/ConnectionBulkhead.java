@@ -0,0 +1,271 @@
+package com.db2api.service.connection;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Bulkhead of one external database: limits how many requests hold one of
+ * its connections at a time, so a slow database cannot tie up every request
+ * thread.
+ * <p>
+ * Requests over the limit wait in a bounded queue for a short deadline and
+ * are otherwise rejected at once with a {@link ConnectionOverloadedException}.
+ * The limit adapts to the observed time connections are held: it shrinks
+ * when that time rises above its long-term average, and grows back, up to
+ * the pool size, while it stays close to it. Connections are handed out by
+ * {@link #guard(DataSource)}, and returning one to the pool frees its slot.
+ */
+public class ConnectionBulkhead {
+
+    /** Number of samples the long-term latency average spans. */
+    private static final int LONG_WINDOW = 100;
+
+    /** Latency increase over the long-term average tolerated before the limit shrinks. */
+    private static final double TOLERANCE = 1.5;
+
+    /** Weight of each new limit estimate. */
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private double longLatency;
+    private int inFlight;
+    private int queued;
+
+    /**
+     * Constructs the bulkhead.
+     *
+     * @param name              the name of the database, for error messages
+     * @param maxLimit          the maximum number of concurrent holders, normally the pool size
+     * @param queueSize         the maximum number of waiting requests
+     * @param queueTimeoutMs    how long a request waits for a slot
+     * @param retryAfterSeconds the delay suggested to rejected clients
+     */
+    public ConnectionBulkhead(String name, int maxLimit, int queueSize, long queueTimeoutMs,
+            long retryAfterSeconds) {
+        this.name = name;
+        this.maxLimit = Math.max(maxLimit, 1);
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Takes a slot, waiting up to the queue timeout if all are taken.
+     *
+     * @throws ConnectionOverloadedException if the queue is full or the wait times out
+     */
+    public void acquire() throws ConnectionOverloadedException {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return;
+            }
+            if (queued >= queueSize) {
+                throw overloaded();
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        throw overloaded();
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw overloaded();
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a slot and adapts the limit to the time it was held.
+     *
+     * @param latencyNanos the time the slot was held
+     */
+    public void release(long latencyNanos) {
+        lock.lock();
+        try {
+            adaptLimit(Math.max(latencyNanos, 1), inFlight);
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the limit towards {@code limit * gradient + sqrt(limit)}, where
+     * the gradient compares the long-term latency average with the latest
+     * sample and the square root leaves room to probe for more capacity.
+     */
+    private void adaptLimit(long latency, int holders) {
+        if (longLatency == 0) {
+            longLatency = latency;
+        } else {
+            longLatency += (latency - longLatency) / LONG_WINDOW;
+            // After a slow period the average lags behind; let it recover faster
+            if (longLatency / latency > 2) {
+                longLatency *= 0.95;
+            }
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / latency));
+        if (gradient == 1.0 && holders < limit / 2) {
+            // Far from the limit, so the sample says nothing about more capacity
+            return;
+        }
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(1, Math.min(maxLimit, limit * (1 - SMOOTHING) + estimate * SMOOTHING));
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private ConnectionOverloadedException overloaded() {
+        return new ConnectionOverloadedException("Database " + name + " is overloaded, retry later",
+                retryAfterSeconds);
+    }
+
+    /**
+     * @return the current limit of concurrent holders
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wraps a data source so that every connection it hands out holds a slot
+     * of this bulkhead until it is closed.
+     *
+     * @param dataSource the pooled data source
+     * @return the guarded data source
+     */
+    public DataSource guard(DataSource dataSource) {
+        return new GuardedDataSource(dataSource);
+    }
+
+    private final class GuardedDataSource implements DataSource {
+
+        private final DataSource delegate;
+
+        GuardedDataSource(DataSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            long start = System.nanoTime();
+            try {
+                return slotHolding(delegate.getConnection(), start);
+            } catch (SQLException | RuntimeException e) {
+                release(System.nanoTime() - start);
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            long start = System.nanoTime();
+            try {
+                return slotHolding(delegate.getConnection(username, password), start);
+            } catch (SQLException | RuntimeException e) {
+                release(System.nanoTime() - start);
+                throw e;
+            }
+        }
+
+        /**
+         * Wraps a connection so that closing it, once, frees the slot.
+         */
+        private Connection slotHolding(Connection connection, long start) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            if (closed.compareAndSet(false, true)) {
+                                try {
+                                    connection.close();
+                                } finally {
+                                    release(System.nanoTime() - start);
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        @Override
+        public PrintWriter getLogWriter() throws SQLException {
+            return delegate.getLogWriter();
+        }
+
+        @Override
+        public void setLogWriter(PrintWriter out) throws SQLException {
+            delegate.setLogWriter(out);
+        }
+
+        @Override
+        public void setLoginTimeout(int seconds) throws SQLException {
+            delegate.setLoginTimeout(seconds);
+        }
+
+        @Override
+        public int getLoginTimeout() throws SQLException {
+            return delegate.getLoginTimeout();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return delegate.getParentLogger();
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || delegate.isWrapperFor(iface);
+        }
+    }
+}
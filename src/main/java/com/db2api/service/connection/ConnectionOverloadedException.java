@@ -0,0 +1,46 @@
+package com.db2api.service.connection;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a request cannot get a connection to an external database
+ * because the connection's bulkhead is full, see {@link ConnectionBulkhead}.
+ * The request should be answered with 503 and retried later.
+ */
+public class ConnectionOverloadedException extends SQLTransientConnectionException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message           the detail message
+     * @param retryAfterSeconds the number of seconds after which the client may retry
+     */
+    public ConnectionOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds after which the client may retry
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Finds a bulkhead rejection in the causes of an exception.
+     *
+     * @param e the exception
+     * @return the rejection, or null if the exception was not caused by one
+     */
+    public static ConnectionOverloadedException causeOf(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectionOverloadedException overloaded) {
+                return overloaded;
+            }
+        }
+        return null;
+    }
+}
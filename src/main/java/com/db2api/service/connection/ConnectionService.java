@@ -4,6 +4,9 @@ import com.db2api.service.EncryptionService;
 
 import com.db2api.persistent.connection.DbConnection;
 import com.db2api.repository.connection.DbConnectionRepository;
+import com.db2api.service.api.ApiRouteTable;
+import com.db2api.service.api.ResultCache;
+import com.db2api.service.api.SchemaDiscoveryService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,12 +24,19 @@ public class ConnectionService {
     private final DbConnectionRepository dbConnectionRepository;
     private final EncryptionService encryptionService;
     private final ExternalConnectivityService externalConnectivityService;
+    private final SchemaDiscoveryService schemaDiscoveryService;
+    private final ApiRouteTable apiRouteTable;
+    private final ResultCache resultCache;
 
     public ConnectionService(DbConnectionRepository dbConnectionRepository, EncryptionService encryptionService,
-            ExternalConnectivityService externalConnectivityService) {
+            ExternalConnectivityService externalConnectivityService, SchemaDiscoveryService schemaDiscoveryService,
+            ApiRouteTable apiRouteTable, ResultCache resultCache) {
         this.dbConnectionRepository = dbConnectionRepository;
         this.encryptionService = encryptionService;
         this.externalConnectivityService = externalConnectivityService;
+        this.schemaDiscoveryService = schemaDiscoveryService;
+        this.apiRouteTable = apiRouteTable;
+        this.resultCache = resultCache;
     }
 
     public List<DbConnection> getAllConnections() {
@@ -51,7 +61,11 @@ public class ConnectionService {
         // Invalidate cached runtime so pool is recreated with updated credentials
         if (connection.getId() != null) {
             externalConnectivityService.invalidateRuntime(connection.getId());
+            schemaDiscoveryService.invalidate(connection.getId());
+            resultCache.invalidateConnection(connection.getId());
         }
+        // Routes carry a copy of the connection details, and deletes cascade to API definitions
+        apiRouteTable.rebuild();
     }
 
     /**
@@ -68,7 +82,11 @@ public class ConnectionService {
         dbConnectionRepository.save(connection);
         if (connection.getId() != null) {
             externalConnectivityService.invalidateRuntime(connection.getId());
+            schemaDiscoveryService.invalidate(connection.getId());
+            resultCache.invalidateConnection(connection.getId());
         }
+        // Routes carry a copy of the connection details, and deletes cascade to API definitions
+        apiRouteTable.rebuild();
     }
 
     public void deleteConnection(DbConnection connection) {
@@ -76,7 +94,11 @@ public class ConnectionService {
         // Invalidate cached runtime so pool is shut down
         if (connection.getId() != null) {
             externalConnectivityService.invalidateRuntime(connection.getId());
+            schemaDiscoveryService.invalidate(connection.getId());
+            resultCache.invalidateConnection(connection.getId());
         }
+        // Routes carry a copy of the connection details, and deletes cascade to API definitions
+        apiRouteTable.rebuild();
     }
 
     public DbConnection createNewConnection() {
@@ -2,6 +2,7 @@ package com.db2api.service.connection;
 
 import com.db2api.service.EncryptionService;
 import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.api.SqlDialect;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.apache.cayenne.ObjectContext;
@@ -20,6 +21,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * Service for managing connections to external databases.
  * Uses HikariCP connection pooling for efficient resource utilization
  * and caches ServerRuntime instances per connection.
+ * <p>
+ * Each pool sits behind a {@link ConnectionBulkhead}, so requests to a slow
+ * database queue briefly and are then rejected with a
+ * {@link ConnectionOverloadedException} instead of waiting for the pool's
+ * connection timeout while requests to other databases starve.
  */
 @Service
 public class ExternalConnectivityService {
@@ -27,6 +33,7 @@ public class ExternalConnectivityService {
     private static final Logger logger = LoggerFactory.getLogger(ExternalConnectivityService.class);
 
     private final Map<Long, ServerRuntime> runtimeCache = new ConcurrentHashMap<>();
+    private final Map<Long, Pool> poolCache = new ConcurrentHashMap<>();
     private final EncryptionService encryptionService;
 
     @Value("${app.external-db.pool.maximum-pool-size:5}")
@@ -44,6 +51,18 @@ public class ExternalConnectivityService {
     @Value("${app.external-db.pool.connection-timeout-ms:30000}")
     private long connectionTimeoutMs;
 
+    @Value("${app.external-db.bulkhead.enabled:true}")
+    private boolean bulkheadEnabled;
+
+    @Value("${app.external-db.bulkhead.queue-size:20}")
+    private int bulkheadQueueSize;
+
+    @Value("${app.external-db.bulkhead.queue-timeout-ms:500}")
+    private long bulkheadQueueTimeoutMs;
+
+    @Value("${app.external-db.bulkhead.retry-after-seconds:1}")
+    private long bulkheadRetryAfterSeconds;
+
     /**
      * Constructs the ExternalConnectivityService with the encryption service.
      *
@@ -73,6 +92,20 @@ public class ExternalConnectivityService {
         return runtimeCache.computeIfAbsent(connection.getId(), id -> createRuntime(connection));
     }
 
+    /**
+     * Gets or creates the pooled DataSource for the given connection.
+     * The same pool backs the connection's ServerRuntime, so plain JDBC access
+     * and Cayenne queries share one set of physical connections and one
+     * bulkhead. Its {@code getConnection} methods throw a
+     * {@link ConnectionOverloadedException} when the bulkhead is full.
+     *
+     * @param connection the database connection configuration
+     * @return the guarded HikariCP data source for the connection
+     */
+    public DataSource getDataSource(DbConnection connection) {
+        return poolCache.computeIfAbsent(connection.getId(), id -> createPool(connection)).dataSource();
+    }
+
     /**
      * Invalidates and shuts down the ServerRuntime for the given connection ID.
      * Should be called when a connection is updated or deleted.
@@ -80,19 +113,53 @@ public class ExternalConnectivityService {
      * @param connectionId the ID of the connection to invalidate
      */
     public void invalidateRuntime(Long connectionId) {
+        // Remove the pool before the runtime: a runtime created in between is built on the old pool but is
+        // removed below, while one created afterwards gets a new pool
+        Pool pool = poolCache.remove(connectionId);
         ServerRuntime runtime = runtimeCache.remove(connectionId);
         if (runtime != null) {
             runtime.shutdown();
         }
+        if (pool != null) {
+            pool.pool().close();
+        }
     }
 
     /**
-     * Creates a new ServerRuntime with HikariCP connection pooling for the given connection.
+     * Creates the pool of the given connection together with its bulkhead
+     * guard, so that both are cached and invalidated as one entry.
+     *
+     * @param connection the database connection configuration
+     * @return the pool and the data source handed out for it
+     */
+    private Pool createPool(DbConnection connection) {
+        HikariDataSource pool = createDataSource(connection);
+        if (!bulkheadEnabled) {
+            return new Pool(pool, pool);
+        }
+        return new Pool(pool, new ConnectionBulkhead(connection.getName(), maximumPoolSize, bulkheadQueueSize,
+                bulkheadQueueTimeoutMs, bulkheadRetryAfterSeconds).guard(pool));
+    }
+
+    /**
+     * Creates a new ServerRuntime backed by the pooled data source of the given connection.
      *
      * @param connection the database connection configuration
      * @return a new ServerRuntime with pooled data source
      */
     private ServerRuntime createRuntime(DbConnection connection) {
+        return ServerRuntime.builder()
+                .dataSource(getDataSource(connection))
+                .build();
+    }
+
+    /**
+     * Creates a new HikariCP connection pool for the given connection.
+     *
+     * @param connection the database connection configuration
+     * @return a new pooled data source
+     */
+    HikariDataSource createDataSource(DbConnection connection) {
         String decryptedPassword = encryptionService.decrypt(connection.getPassword());
 
         HikariConfig hikariConfig = new HikariConfig();
@@ -106,14 +173,26 @@ public class ExternalConnectivityService {
         hikariConfig.setMaxLifetime(maxLifetimeMs);
         hikariConfig.setConnectionTimeout(connectionTimeoutMs);
         hikariConfig.setPoolName("db2api-ext-" + connection.getId());
+        // Let the drivers collapse JDBC batches into multi-row INSERT statements
+        String driver = connection.getDriverClass() != null ? connection.getDriverClass() : "";
+        if (SqlDialect.of(connection) == SqlDialect.POSTGRESQL) {
+            hikariConfig.addDataSourceProperty("reWriteBatchedInserts", "true");
+        } else if (driver.contains("mysql") || driver.contains("mariadb")) {
+            hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
 
         HikariDataSource dataSource = new HikariDataSource(hikariConfig);
 
         logger.info("Created HikariCP pool for connection '{}' (id={}) with maxPoolSize={}",
                 connection.getName(), connection.getId(), maximumPoolSize);
 
-        return ServerRuntime.builder()
-                .dataSource(dataSource)
-                .build();
+        return dataSource;
+    }
+
+    /**
+     * A connection's pool and the data source handed out for it, which is the
+     * pool itself or its bulkhead guard.
+     */
+    private record Pool(HikariDataSource pool, DataSource dataSource) {
     }
 }
@@ -17,6 +17,7 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.splitlayout.SplitLayout;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
@@ -84,13 +85,18 @@ public class ApiBuilderView extends VerticalLayout {
      * @param columnsSelect    selection for columns
      * @param operationsSelect selection for operations
      * @param apiTypeSelect    selection for API type
+     * @param maxPageSizeField     field for the maximum page size
+     * @param cacheTtlField        field for the result cache TTL
+     * @param cacheMaxEntriesField field for the result cache size
      */
     private void editApiDefinition(ApiDefinition api, Grid<ApiDefinition> grid, ComboBox<DbConnection> connectionSelect,
             ComboBox<String> tableSelect, CheckboxGroup<String> columnsSelect, CheckboxGroup<String> operationsSelect,
-            RadioButtonGroup<String> apiTypeSelect) {
+            RadioButtonGroup<String> apiTypeSelect, IntegerField maxPageSizeField, IntegerField cacheTtlField,
+            IntegerField cacheMaxEntriesField) {
         if (api == null) {
             editApiDefinition(apiDefinitionService.createNewApiDefinition(), grid, connectionSelect, tableSelect,
-                    columnsSelect, operationsSelect, apiTypeSelect);
+                    columnsSelect, operationsSelect, apiTypeSelect, maxPageSizeField, cacheTtlField,
+                    cacheMaxEntriesField);
         } else {
             currentApiDefinition = api;
             if (api.getConnection() != null) {
@@ -104,6 +110,9 @@ public class ApiBuilderView extends VerticalLayout {
             }
             if (api.getApiType() != null)
                 apiTypeSelect.setValue(api.getApiType());
+            maxPageSizeField.setValue(api.getMaxPageSize());
+            cacheTtlField.setValue(api.getCacheTtlSeconds());
+            cacheMaxEntriesField.setValue(api.getCacheMaxEntries());
             // TODO: Parse allowed operations and set selection
         }
     }
@@ -117,10 +126,14 @@ public class ApiBuilderView extends VerticalLayout {
      * @param columnsSelect    column selection
      * @param operationsSelect operation selection
      * @param apiTypeSelect    type selection
+     * @param maxPageSizeField     maximum page size
+     * @param cacheTtlField        result cache TTL in seconds
+     * @param cacheMaxEntriesField maximum number of cached results
      */
     private void save(Grid<ApiDefinition> grid, ComboBox<DbConnection> connectionSelect, ComboBox<String> tableSelect,
             CheckboxGroup<String> columnsSelect, CheckboxGroup<String> operationsSelect,
-            RadioButtonGroup<String> apiTypeSelect) {
+            RadioButtonGroup<String> apiTypeSelect, IntegerField maxPageSizeField, IntegerField cacheTtlField,
+            IntegerField cacheMaxEntriesField) {
         if (currentApiDefinition == null)
             return;
 
@@ -147,6 +160,9 @@ public class ApiBuilderView extends VerticalLayout {
         currentApiDefinition.setApiType(apiTypeSelect.getValue());
         currentApiDefinition.setAllowedOperations(String.join(",", operationsSelect.getSelectedItems()));
         currentApiDefinition.setIncludedColumns(String.join(",", columnsSelect.getSelectedItems()));
+        currentApiDefinition.setMaxPageSize(maxPageSizeField.getValue());
+        currentApiDefinition.setCacheTtlSeconds(cacheTtlField.getValue());
+        currentApiDefinition.setCacheMaxEntries(cacheMaxEntriesField.getValue());
 
         apiDefinitionService.saveApiDefinition(currentApiDefinition);
         updateList(grid);
@@ -162,15 +178,19 @@ public class ApiBuilderView extends VerticalLayout {
      * @param columnsSelect    column selection to reset
      * @param operationsSelect operation selection to reset
      * @param apiTypeSelect    type selection to reset
+     * @param maxPageSizeField     maximum page size to reset
+     * @param cacheTtlField        result cache TTL to reset
+     * @param cacheMaxEntriesField result cache size to reset
      */
     private void delete(Grid<ApiDefinition> grid, ComboBox<DbConnection> connectionSelect, ComboBox<String> tableSelect,
             CheckboxGroup<String> columnsSelect, CheckboxGroup<String> operationsSelect,
-            RadioButtonGroup<String> apiTypeSelect) {
+            RadioButtonGroup<String> apiTypeSelect, IntegerField maxPageSizeField, IntegerField cacheTtlField,
+            IntegerField cacheMaxEntriesField) {
         if (currentApiDefinition != null) {
             apiDefinitionService.deleteApiDefinition(currentApiDefinition);
             updateList(grid);
             editApiDefinition(null, grid, connectionSelect, tableSelect, columnsSelect, operationsSelect,
-                    apiTypeSelect);
+                    apiTypeSelect, maxPageSizeField, cacheTtlField, cacheMaxEntriesField);
             Notification.show("API Definition deleted");
         }
     }
@@ -189,6 +209,9 @@ public class ApiBuilderView extends VerticalLayout {
         CheckboxGroup<String> columnsSelect = new CheckboxGroup<>("Included Columns");
         CheckboxGroup<String> operationsSelect = new CheckboxGroup<>("Operations");
         RadioButtonGroup<String> apiTypeSelect = new RadioButtonGroup<>("API Type");
+        IntegerField maxPageSizeField = new IntegerField("Max Page Size");
+        IntegerField cacheTtlField = new IntegerField("Result Cache TTL (seconds)");
+        IntegerField cacheMaxEntriesField = new IntegerField("Result Cache Max Entries");
 
         Button save = new Button("Save");
         Button delete = new Button("Delete");
@@ -202,21 +225,23 @@ public class ApiBuilderView extends VerticalLayout {
         grid.addColumn(ApiDefinition::getTableName).setHeader("Table");
         grid.addColumn(ApiDefinition::getApiType).setHeader("Type");
         grid.asSingleSelect().addValueChangeListener(event -> editApiDefinition(event.getValue(), grid,
-                connectionSelect, tableSelect, columnsSelect, operationsSelect, apiTypeSelect));
+                connectionSelect, tableSelect, columnsSelect, operationsSelect, apiTypeSelect, maxPageSizeField,
+                cacheTtlField, cacheMaxEntriesField));
 
         // Interaction Buttons
         save.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
-        save.addClickListener(
-                event -> save(grid, connectionSelect, tableSelect, columnsSelect, operationsSelect, apiTypeSelect));
+        save.addClickListener(event -> save(grid, connectionSelect, tableSelect, columnsSelect, operationsSelect,
+                apiTypeSelect, maxPageSizeField, cacheTtlField, cacheMaxEntriesField));
         delete.addThemeVariants(ButtonVariant.LUMO_ERROR);
-        delete.addClickListener(
-                event -> delete(grid, connectionSelect, tableSelect, columnsSelect, operationsSelect, apiTypeSelect));
+        delete.addClickListener(event -> delete(grid, connectionSelect, tableSelect, columnsSelect, operationsSelect,
+                apiTypeSelect, maxPageSizeField, cacheTtlField, cacheMaxEntriesField));
         cancel.addClickListener(event -> editApiDefinition(null, grid, connectionSelect, tableSelect, columnsSelect,
-                operationsSelect, apiTypeSelect));
+                operationsSelect, apiTypeSelect, maxPageSizeField, cacheTtlField, cacheMaxEntriesField));
         create.addClickListener(event -> {
             grid.asSingleSelect().clear();
             editApiDefinition(apiDefinitionService.createNewApiDefinition(), grid, connectionSelect, tableSelect,
-                    columnsSelect, operationsSelect, apiTypeSelect);
+                    columnsSelect, operationsSelect, apiTypeSelect, maxPageSizeField, cacheTtlField,
+                    cacheMaxEntriesField);
         });
 
         // Editor Form Logic - Cascading Selections
@@ -242,6 +267,12 @@ public class ApiBuilderView extends VerticalLayout {
         // Selection Items
         operationsSelect.setItems("GET", "PUT", "DELETE");
         apiTypeSelect.setItems("REST", "GraphQL");
+        maxPageSizeField.setMin(1);
+        maxPageSizeField.setHelperText("Leave empty to use the application default");
+        cacheTtlField.setMin(0);
+        cacheTtlField.setHelperText("Leave empty to disable caching of GET results");
+        cacheMaxEntriesField.setMin(1);
+        cacheMaxEntriesField.setHelperText("Leave empty to use the application default");
 
         // Layout Assembly
         HorizontalLayout buttons = new HorizontalLayout(save, delete, cancel);
@@ -252,6 +283,9 @@ public class ApiBuilderView extends VerticalLayout {
                 apiTypeSelect,
                 operationsSelect,
                 columnsSelect,
+                maxPageSizeField,
+                cacheTtlField,
+                cacheMaxEntriesField,
                 buttons);
         editorLayout.setPadding(true);
         editorLayout.setSpacing(true);
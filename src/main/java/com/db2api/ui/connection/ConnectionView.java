@@ -13,6 +13,7 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.splitlayout.SplitLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
@@ -141,6 +142,9 @@ public class ConnectionView extends VerticalLayout {
         TextField username = new TextField("Username");
         PasswordField password = new PasswordField("Password");
         TextField driverClass = new TextField("Driver Class");
+        IntegerField graphqlBatchSize = new IntegerField("GraphQL Batch Size");
+        graphqlBatchSize.setMin(1);
+        graphqlBatchSize.setHelperText("Leave empty to use the application default");
 
         Button save = new Button("Save");
         Button delete = new Button("Delete");
@@ -160,6 +164,7 @@ public class ConnectionView extends VerticalLayout {
         binder.bind(url, DbConnection::getUrl, DbConnection::setUrl);
         binder.bind(username, DbConnection::getUsername, DbConnection::setUsername);
         binder.bind(driverClass, DbConnection::getDriverClass, DbConnection::setDriverClass);
+        binder.bind(graphqlBatchSize, DbConnection::getGraphqlBatchSize, DbConnection::setGraphqlBatchSize);
 
         // Action Listeners
         save.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -180,7 +185,7 @@ public class ConnectionView extends VerticalLayout {
 
         VerticalLayout editorLayout = new VerticalLayout(
                 toolbar,
-                new FormLayout(name, url, username, password, driverClass),
+                new FormLayout(name, url, username, password, driverClass, graphqlBatchSize),
                 buttons);
         editorLayout.setPadding(true);
         editorLayout.setSpacing(true);
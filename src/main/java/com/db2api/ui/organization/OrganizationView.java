@@ -16,6 +16,7 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.splitlayout.SplitLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.router.PageTitle;
@@ -136,6 +137,12 @@ public class OrganizationView extends VerticalLayout {
 
         TextField name = new TextField("Name");
         ComboBox<String> status = new ComboBox<>("Status");
+        IntegerField graphqlCostBudget = new IntegerField("GraphQL Cost Budget");
+        graphqlCostBudget.setMin(1);
+        graphqlCostBudget.setHelperText("Leave empty to use the application default");
+        IntegerField requestsPerSecond = new IntegerField("Requests per Second");
+        requestsPerSecond.setMin(0);
+        requestsPerSecond.setHelperText("Shared by all clients; leave empty for the default, 0 for no limit");
 
         Grid<Client> clientGrid = new Grid<>(Client.class, false);
 
@@ -155,6 +162,8 @@ public class OrganizationView extends VerticalLayout {
         // Binder Configuration
         binder.bind(name, Organization::getName, Organization::setName);
         binder.bind(status, Organization::getStatus, Organization::setStatus);
+        binder.bind(graphqlCostBudget, Organization::getGraphqlCostBudget, Organization::setGraphqlCostBudget);
+        binder.bind(requestsPerSecond, Organization::getRequestsPerSecond, Organization::setRequestsPerSecond);
 
         // Main Actions
         save.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -187,6 +196,19 @@ public class OrganizationView extends VerticalLayout {
         status.setItems("Active", "Inactive", "Suspended");
         clientGrid.addColumn(Client::getClientId).setHeader("Client ID");
         clientGrid.addColumn(Client::getClientSecret).setHeader("Client Secret");
+        clientGrid.addComponentColumn(client -> {
+            IntegerField clientRequestsPerSecond = new IntegerField();
+            clientRequestsPerSecond.setMin(0);
+            clientRequestsPerSecond.setPlaceholder("Default");
+            clientRequestsPerSecond.setValue(client.getRequestsPerSecond());
+            clientRequestsPerSecond.setReadOnly(isViewer());
+            clientRequestsPerSecond.addValueChangeListener(e -> {
+                client.setRequestsPerSecond(e.getValue());
+                organizationService.saveClient(client, currentOrganization);
+                Notification.show("Client rate limit saved; it applies to newly issued tokens");
+            });
+            return clientRequestsPerSecond;
+        }).setHeader("Requests per Second");
         clientGrid.addComponentColumn(client -> {
             Button deleteClient = new Button("Delete");
             deleteClient.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_SMALL);
@@ -202,7 +224,7 @@ public class OrganizationView extends VerticalLayout {
         HorizontalLayout buttons = new HorizontalLayout(save, delete, cancel);
         VerticalLayout editorLayout = new VerticalLayout(
                 create,
-                new FormLayout(name, status),
+                new FormLayout(name, status, graphqlCostBudget, requestsPerSecond),
                 buttons,
                 new H3("Clients"),
                 clientGrid,
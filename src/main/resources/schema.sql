@@ -1,14 +1,17 @@
 CREATE TABLE organization (
     id SERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    status VARCHAR(50) NOT NULL
+    status VARCHAR(50) NOT NULL,
+    graphql_cost_budget INTEGER,
+    requests_per_second INTEGER
 );
 
 CREATE TABLE client (
     id SERIAL PRIMARY KEY,
     client_id VARCHAR(255) NOT NULL UNIQUE,
     client_secret VARCHAR(255) NOT NULL,
-    organization_id INTEGER REFERENCES organization(id)
+    organization_id INTEGER REFERENCES organization(id),
+    requests_per_second INTEGER
 );
 
 CREATE TABLE db_connection (
@@ -17,7 +20,8 @@ CREATE TABLE db_connection (
     url VARCHAR(500) NOT NULL,
     username VARCHAR(255) NOT NULL,
     password VARCHAR(255) NOT NULL,
-    driver_class VARCHAR(255) NOT NULL
+    driver_class VARCHAR(255) NOT NULL,
+    graphql_batch_size INTEGER
 );
 
 CREATE TABLE api_definition (
@@ -27,7 +31,10 @@ CREATE TABLE api_definition (
     api_type VARCHAR(50) NOT NULL, -- REST, GraphQL
     table_name VARCHAR(255) NOT NULL,
     allowed_operations VARCHAR(255), -- GET, PUT, POST, DELETE
-    included_columns TEXT
+    included_columns TEXT,
+    max_page_size INTEGER,
+    cache_ttl_seconds INTEGER,
+    cache_max_entries INTEGER
 );
 
 CREATE TABLE admin_user (
@@ -58,3 +65,10 @@ CREATE TABLE revoked_token (
     revoked_at TIMESTAMP NOT NULL,
     expires_at TIMESTAMP NOT NULL
 );
+
+CREATE TABLE schema_snapshot (
+    connection_id INTEGER PRIMARY KEY,
+    format_version INTEGER NOT NULL,
+    discovered_at TIMESTAMP NOT NULL,
+    catalog TEXT NOT NULL -- tables of the discovered catalog, as JSON
+);
@@ -0,0 +1,81 @@
+package com.db2api.config;
+
+import com.db2api.config.GraphQLCostLimiter.Cost;
+import com.db2api.config.GraphQLCostLimiter.CostModel;
+import com.db2api.config.GraphQLRelations.Relation;
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.api.ApiRoute;
+import graphql.execution.CoercedVariables;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the operation scoring of {@link GraphQLCostLimiter}.
+ */
+class GraphQLCostLimiterTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse("""
+            type Query {
+              orders(limit: Int): [Orders]
+              ordersConnection(first: Int): OrdersConnection
+              customers(limit: Int): [Customers]
+            }
+            type Orders { id: Int customer: Customers }
+            type Customers { id: Int orders: [Orders] }
+            type OrdersConnection { edges: [OrdersEdge] }
+            type OrdersEdge { node: Orders cursor: String }
+            """), RuntimeWiring.MOCKED_WIRING);
+
+    private static final ApiRoute ORDERS = route(1L, "orders");
+    private static final ApiRoute CUSTOMERS = route(2L, "customers");
+
+    private final CostModel model = new CostModel(Map.of("Orders", ORDERS, "Customers", CUSTOMERS),
+            Map.of("Orders", Map.of("customer", new Relation("Orders", "customer", CUSTOMERS, "customer_id", "id",
+                            false)),
+                    "Customers", Map.of("orders", new Relation("Customers", "orders", ORDERS, "id", "customer_id",
+                            true))),
+            route -> route == ORDERS ? 10_000 : 100, 100, 1000);
+
+    private static ApiRoute route(Long id, String table) {
+        return new ApiRoute(id, table, table, "GraphQL", Set.of("GET"), null, null, null, null, new DbConnection());
+    }
+
+    private Cost score(String query) {
+        return model.score(ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(SCHEMA,
+                Parser.parse(query), null, CoercedVariables.emptyVariables()));
+    }
+
+    @Test
+    void score_shouldCountFieldsPerRowOfUnlimitedLists() {
+        assertEquals(new Cost(1 + 10_000, 2), score("{ orders { id } }"));
+    }
+
+    @Test
+    void score_shouldUseRequestedPageSizes() {
+        assertEquals(new Cost(1 + 10 + 10 + 10, 3), score("{ orders(limit: 10) { id customer { id } } }"));
+        assertEquals(new Cost(1 + 1 + 20 + 20, 4), score("{ ordersConnection(first: 20) { edges { node { id } } } }"));
+        // Limits over the maximum page size are capped like the fetch itself
+        assertEquals(new Cost(1 + 1000, 2), score("{ orders(limit: 5000) { id } }"));
+    }
+
+    @Test
+    void score_shouldMultiplyOneToManyRelationsByAverageFanOut() {
+        // 10000 orders over 100 customers: 100 orders per customer
+        assertEquals(new Cost(1 + 5 + 5 * 100, 3), score("{ customers(limit: 5) { orders { id } } }"));
+    }
+
+    @Test
+    void score_shouldIgnoreIntrospection() {
+        assertEquals(new Cost(0, 0), score("{ __schema { types { name fields { name } } } }"));
+    }
+}
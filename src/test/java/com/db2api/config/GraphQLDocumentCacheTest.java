@@ -0,0 +1,74 @@
+package com.db2api.config;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GraphQLDocumentCache}.
+ */
+class GraphQLDocumentCacheTest {
+
+    private static final String QUERY = "{ orders { id } }";
+
+    private final GraphQLDocumentCache cache = new GraphQLDocumentCache(100, 100);
+    private final AtomicInteger parses = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+        parses.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    private PreparsedDocumentEntry document(PreparsedDocumentProvider provider, String query, String hash) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (hash != null) {
+            input.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        }
+        return provider.getDocumentAsync(input.build(), parseAndValidate).join();
+    }
+
+    @Test
+    void sha256_shouldMatchPersistedQueryHashes() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                GraphQLDocumentCache.sha256(""));
+    }
+
+    @Test
+    void getDocument_shouldParseRepeatedDocumentsOncePerSchema() {
+        PreparsedDocumentProvider provider = cache.forSchema(1);
+        document(provider, QUERY, null);
+        document(provider, QUERY, null);
+        assertEquals(1, parses.get());
+
+        cache.invalidateDocuments();
+        document(cache.forSchema(2), QUERY, null);
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void getDocument_shouldFollowPersistedQueryProtocol() {
+        PreparsedDocumentProvider provider = cache.forSchema(1);
+        String hash = GraphQLDocumentCache.sha256(QUERY);
+
+        // Unknown hash without a document: the client is asked to send it
+        assertTrue(document(provider, PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash).hasErrors());
+
+        assertFalse(document(provider, QUERY, hash).hasErrors());
+        assertFalse(document(provider, PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash).hasErrors());
+        assertEquals(1, parses.get());
+
+        // The registered document survives a schema refresh and is validated again
+        cache.invalidateDocuments();
+        PreparsedDocumentEntry entry = document(cache.forSchema(2), PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash);
+        assertFalse(entry.hasErrors());
+        assertEquals(2, parses.get());
+    }
+}
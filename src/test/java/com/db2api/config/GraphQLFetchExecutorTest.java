@@ -0,0 +1,79 @@
+package com.db2api.config;
+
+import com.db2api.persistent.connection.DbConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GraphQLFetchExecutor}.
+ */
+class GraphQLFetchExecutorTest {
+
+    private final GraphQLFetchExecutor executor = new GraphQLFetchExecutor(2);
+
+    private static DbConnection connection(long id) {
+        DbConnection connection = new DbConnection();
+        connection.setId(id);
+        return connection;
+    }
+
+    @AfterEach
+    void close() {
+        executor.close();
+    }
+
+    @Test
+    void submit_shouldCapConcurrentReadsPerConnection() {
+        DbConnection connection = connection(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> reads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            reads.add(executor.submit(connection, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return 1;
+            }));
+        }
+
+        assertEquals(10, reads.stream().mapToInt(CompletableFuture::join).sum());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void submit_shouldRunReadsOfDifferentConnectionsInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = executor.submit(connection(1), () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Boolean> second = executor.submit(connection(2), () -> {
+            bothStarted.countDown();
+            return bothStarted.await(5, TimeUnit.SECONDS);
+        });
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_shouldCompleteExceptionallyWhenTheReadFails() {
+        CompletableFuture<Object> read = executor.submit(connection(1), () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        CompletionException e = assertThrows(CompletionException.class, read::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
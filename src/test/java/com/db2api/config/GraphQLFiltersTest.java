@@ -0,0 +1,100 @@
+package com.db2api.config;
+
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.SortOrder;
+import com.db2api.service.api.SqlPredicate;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLEnumValueDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLTypeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the GraphQL {@code where} and {@code orderBy} compilation in {@link GraphQLFilters}.
+ */
+class GraphQLFiltersTest {
+
+    private static final ColumnIndex COLUMNS;
+
+    static {
+        Map<String, Integer> types = new LinkedHashMap<>();
+        types.put("id", Types.INTEGER);
+        types.put("name", Types.VARCHAR);
+        types.put("created", Types.DATE);
+        COLUMNS = ColumnIndex.of(types);
+    }
+
+    private static String render(List<SqlPredicate> predicates, List<Object> params) {
+        StringBuilder sql = new StringBuilder();
+        new SqlPredicate.All(predicates).appendTo(sql, params);
+        return sql.toString();
+    }
+
+    @Test
+    void whereType_shouldDeclareTypedFilters() {
+        GraphQLInputObjectType where = GraphQLFilters.whereType("Orders", COLUMNS);
+
+        assertEquals("OrdersWhere", where.getName());
+        assertEquals(List.of("id", "name", "created", "_and", "_or"),
+                where.getFields().stream().map(GraphQLInputObjectField::getName).toList());
+        assertEquals("IntFilter", GraphQLTypeUtil.simplePrint(where.getField("id").getType()));
+        assertEquals("[OrdersWhere!]", GraphQLTypeUtil.simplePrint(where.getField("_or").getType()));
+    }
+
+    @Test
+    void orderByType_shouldDeclareValuesPerColumn() {
+        GraphQLEnumType orderBy = GraphQLFilters.orderByType("Orders", COLUMNS);
+
+        assertEquals(List.of("id_ASC", "id_DESC", "name_ASC", "name_DESC", "created_ASC", "created_DESC"),
+                orderBy.getValues().stream().map(GraphQLEnumValueDefinition::getName).toList());
+    }
+
+    @Test
+    void compileWhere_shouldProduceParameterizedPredicates() {
+        Map<String, Object> where = new LinkedHashMap<>();
+        where.put("ID", Map.of("gte", 10));
+        where.put("created", Map.of("lt", "2024-01-01"));
+        where.put("_or", List.of(Map.of("name", Map.of("like", "a%")), Map.of("name", Map.of("isNull", true))));
+
+        List<Object> params = new ArrayList<>();
+        String sql = render(GraphQLFilters.compileWhere(where, COLUMNS), params);
+
+        assertEquals("(id >= ? AND created < ? AND ((name LIKE ?) OR (name IS NULL)))", sql);
+        assertEquals(List.of(10, Date.valueOf("2024-01-01"), "a%"), params);
+    }
+
+    @Test
+    void compileWhere_shouldTreatEmptyInAsFalse() {
+        List<Object> params = new ArrayList<>();
+        String sql = render(GraphQLFilters.compileWhere(Map.of("id", Map.of("in", List.of())), COLUMNS), params);
+
+        assertEquals("(1 = 0)", sql);
+        assertTrue(params.isEmpty());
+    }
+
+    @Test
+    void compileWhere_shouldRejectUnknownColumnsAndBadValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphQLFilters.compileWhere(Map.of("missing", Map.of("eq", 1)), COLUMNS));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphQLFilters.compileWhere(Map.of("created", Map.of("eq", "yesterday")), COLUMNS));
+    }
+
+    @Test
+    void compileOrderBy_shouldMapEnumValues() {
+        assertEquals(List.of(new SortOrder("name", true), new SortOrder("id", false)),
+                GraphQLFilters.compileOrderBy(List.of("name_DESC", "id_ASC", "name_ASC"), COLUMNS));
+        assertThrows(IllegalArgumentException.class,
+                () -> GraphQLFilters.compileOrderBy(List.of("missing_ASC"), COLUMNS));
+    }
+}
@@ -0,0 +1,105 @@
+package com.db2api.config;
+
+import com.db2api.config.GraphQLRelations.Relation;
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.ColumnInfo;
+import com.db2api.service.api.ForeignKey;
+import com.db2api.service.api.TableSchema;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the relationship field discovery in {@link GraphQLRelations}.
+ */
+class GraphQLRelationsTest {
+
+    private final DbConnection connection = new DbConnection();
+
+    private final ApiRoute customers = route(1L, "customers");
+    private final ApiRoute orders = route(2L, "orders");
+
+    private ApiRoute route(Long id, String table) {
+        return new ApiRoute(id, table, table, "GraphQL", Set.of("GET"), null, null, null, null, connection);
+    }
+
+    private static TableSchema customersSchema() {
+        return TableSchema.of("customers", List.of(
+                new ColumnInfo("id", Types.INTEGER, "int4", false),
+                new ColumnInfo("name", Types.VARCHAR, "varchar", true)),
+                List.of("id"), List.of());
+    }
+
+    private static TableSchema ordersSchema(String... extraColumns) {
+        List<ColumnInfo> columns = new ArrayList<>(List.of(
+                new ColumnInfo("id", Types.INTEGER, "int4", false),
+                new ColumnInfo("customer_id", Types.INTEGER, "int4", true)));
+        for (String column : extraColumns) {
+            columns.add(new ColumnInfo(column, Types.VARCHAR, "varchar", true));
+        }
+        return TableSchema.of("orders", columns, List.of("id"),
+                List.of(new ForeignKey("fk_customer", List.of("customer_id"), "customers", List.of("id"))));
+    }
+
+    private List<Relation> discover(Map<String, TableSchema> schemas) {
+        return GraphQLRelations.discover(List.of(customers, orders),
+                route -> route.tableName().substring(0, 1).toUpperCase() + route.tableName().substring(1),
+                route -> schemas.get(route.tableName()),
+                route -> ColumnIndex.of(schemas.get(route.tableName()).columnTypes()));
+    }
+
+    @Test
+    void discover_shouldAddForwardAndReverseFields() {
+        List<Relation> relations = discover(Map.of("customers", customersSchema(), "orders", ordersSchema()));
+
+        assertEquals(2, relations.size());
+        Relation forward = relations.get(0);
+        assertEquals("Orders", forward.sourceType());
+        assertEquals("customer", forward.fieldName());
+        assertSame(customers, forward.target());
+        assertEquals("customer_id", forward.sourceColumn());
+        assertEquals("id", forward.targetColumn());
+        assertFalse(forward.many());
+        assertEquals("Orders.customer", forward.loaderName());
+
+        Relation reverse = relations.get(1);
+        assertEquals("Customers", reverse.sourceType());
+        assertEquals("orders", reverse.fieldName());
+        assertSame(orders, reverse.target());
+        assertEquals("id", reverse.sourceColumn());
+        assertEquals("customer_id", reverse.targetColumn());
+        assertTrue(reverse.many());
+    }
+
+    @Test
+    void discover_shouldAvoidNamesTakenByColumns() {
+        List<Relation> relations = discover(Map.of("customers", customersSchema(),
+                "orders", ordersSchema("Customer")));
+
+        assertEquals("customer_id_customers", relations.get(0).fieldName());
+    }
+
+    @Test
+    void discover_shouldSkipTablesWithoutRoute() {
+        List<Relation> relations = GraphQLRelations.discover(List.of(orders),
+                route -> "Orders", route -> ordersSchema(), route -> ColumnIndex.of(ordersSchema().columnTypes()));
+
+        assertTrue(relations.isEmpty());
+    }
+
+    @Test
+    void stripIdSuffix_shouldHandleSnakeAndCamelCase() {
+        assertEquals("customer", GraphQLRelations.stripIdSuffix("customer_id"));
+        assertEquals("customer", GraphQLRelations.stripIdSuffix("customerId"));
+        assertNull(GraphQLRelations.stripIdSuffix("paid"));
+        assertNull(GraphQLRelations.stripIdSuffix("id"));
+    }
+}
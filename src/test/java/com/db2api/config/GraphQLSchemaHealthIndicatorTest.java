@@ -0,0 +1,73 @@
+package com.db2api.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.SimpleStatusAggregator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link GraphQLSchemaHealthIndicator}.
+ */
+class GraphQLSchemaHealthIndicatorTest {
+
+    private final DynamicGraphQLProvider provider = new DynamicGraphQLProvider(null, null, null, null, null, null,
+            null, null, 1);
+    private final GraphQLSchemaHealthIndicator indicator = new GraphQLSchemaHealthIndicator(provider);
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, String> connections(String field) {
+        return (Map<Long, String>) ReflectionTestUtils.getField(provider, field);
+    }
+
+    @Test
+    void health_shouldBeUpWhenEveryConnectionIsDiscovered() {
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void health_shouldBeDegradedWhileConnectionsArePendingOrFailed() {
+        connections("pendingConnections").put(1L, "orders");
+        connections("failedConnections").put(2L, "legacy");
+
+        Health health = indicator.health();
+
+        assertEquals(GraphQLSchemaHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(List.of("orders"), List.copyOf((Collection<?>) health.getDetails().get("pendingConnections")));
+        assertEquals(List.of("legacy"), List.copyOf((Collection<?>) health.getDetails().get("failedConnections")));
+    }
+
+    @Test
+    void health_shouldRecoverOnceDiscoveryCompletes() {
+        connections("pendingConnections").put(1L, "orders");
+        assertEquals(GraphQLSchemaHealthIndicator.DEGRADED, indicator.health().getStatus());
+
+        connections("pendingConnections").remove(1L);
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    @Test
+    void degraded_shouldRankBetweenDownAndUpInTheConfiguredOrder() {
+        // Mirrors management.endpoint.health.status.order in application.properties
+        SimpleStatusAggregator aggregator = new SimpleStatusAggregator("down", "out-of-service", "degraded", "up",
+                "unknown");
+
+        assertEquals(GraphQLSchemaHealthIndicator.DEGRADED,
+                aggregator.getAggregateStatus(Set.of(Status.UP, GraphQLSchemaHealthIndicator.DEGRADED)));
+        assertEquals(Status.DOWN,
+                aggregator.getAggregateStatus(Set.of(Status.DOWN, GraphQLSchemaHealthIndicator.DEGRADED)));
+    }
+}
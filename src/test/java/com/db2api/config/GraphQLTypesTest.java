@@ -0,0 +1,83 @@
+package com.db2api.config;
+
+import com.db2api.config.GraphQLTypes.Fragment;
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ColumnIndex;
+import com.db2api.service.api.ColumnInfo;
+import com.db2api.service.api.TableSchema;
+import graphql.Scalars;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the programmatic schema types in {@link GraphQLTypes}.
+ */
+class GraphQLTypesTest {
+
+    private static final TableSchema ORDERS = TableSchema.of("orders", List.of(
+            new ColumnInfo("id", Types.INTEGER, "int4", false),
+            new ColumnInfo("total", Types.NUMERIC, "numeric", true),
+            new ColumnInfo("paid", Types.BOOLEAN, "bool", true)),
+            List.of("id"), List.of());
+
+    private final ApiRoute route = new ApiRoute(1L, "orders", "orders", "GraphQL", Set.of("GET", "POST"), null,
+            null, null, null, new DbConnection());
+
+    private final Fragment fragment = GraphQLTypes.fragment(route, "Orders", ORDERS,
+            ColumnIndex.of(ORDERS.columnTypes()));
+
+    /** Assembles a schema the way the provider does, with a fresh row type. */
+    private GraphQLSchema assemble(String extraField) {
+        GraphQLObjectType.Builder row = GraphQLObjectType.newObject().name("Orders").fields(fragment.columnFields());
+        if (extraField != null) {
+            row.field(GraphQLTypes.field(extraField, Scalars.GraphQLString));
+        }
+        Set<GraphQLType> types = new LinkedHashSet<>();
+        types.add(row.build());
+        types.addAll(fragment.types());
+        types.addAll(GraphQLTypes.connectionTypes("Orders"));
+        types.add(GraphQLTypes.PAGE_INFO);
+        types.addAll(GraphQLFilters.FILTER_INPUTS);
+        return GraphQLSchema.newSchema()
+                .query(GraphQLObjectType.newObject().name("Query").fields(GraphQLTypes.queryFields(route, fragment)))
+                .mutation(GraphQLObjectType.newObject().name("Mutation").fields(fragment.mutationFields()))
+                .additionalTypes(types)
+                .build();
+    }
+
+    @Test
+    void fragment_shouldMapColumnsAndOperations() {
+        assertEquals(List.of("id", "total", "paid"),
+                fragment.columnFields().stream().map(GraphQLFieldDefinition::getName).toList());
+        assertEquals(Scalars.GraphQLFloat, fragment.columnFields().get(1).getType());
+        assertEquals(List.of("OrdersWhere", "OrdersOrderBy", "OrdersInput"),
+                fragment.types().stream().map(type -> type.getName()).toList());
+        assertEquals(List.of("insertOrders"),
+                fragment.mutationFields().stream().map(GraphQLFieldDefinition::getName).toList());
+    }
+
+    @Test
+    void assemble_shouldReuseFragmentAcrossSchemas() {
+        GraphQLSchema first = assemble(null);
+        GraphQLSchema second = assemble("customer");
+
+        assertNull(first.getObjectType("Orders").getFieldDefinition("customer"));
+        assertNotNull(second.getObjectType("Orders").getFieldDefinition("customer"));
+        assertSame(first.getType("OrdersWhere"), second.getType("OrdersWhere"));
+        GraphQLFieldDefinition connection = second.getQueryType().getFieldDefinition("ordersConnection");
+        assertEquals("OrdersConnection", GraphQLTypeUtil.simplePrint(connection.getType()));
+        assertNotNull(connection.getArgument("where"));
+    }
+}
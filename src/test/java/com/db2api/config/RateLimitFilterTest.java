@@ -0,0 +1,142 @@
+package com.db2api.config;
+
+import com.db2api.security.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RateLimitFilter}.
+ */
+class RateLimitFilterTest {
+
+    private final Jwt jwt = Jwt.withTokenValue("token").header("alg", "HS256").subject("client-a").build();
+
+    /** The rows charged, and the wait handed out for the next request. */
+    private final List<Long> charged = new ArrayList<>();
+    private long wait;
+
+    private final RateLimiter rateLimiter = new RateLimiter(50, 0, 2, 1) {
+        @Override
+        public long tryAcquire(Jwt token) {
+            return wait;
+        }
+
+        @Override
+        public void chargeRows(Jwt token, long rows) {
+            charged.add(rows);
+        }
+    };
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    /** A chain whose servlet reports the given number of rows read, or none if null. */
+    private static MockFilterChain chain(Long rowsRead) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                if (rowsRead != null) {
+                    request.setAttribute(RateLimiter.ROWS_READ_ATTRIBUTE, rowsRead);
+                }
+            }
+        });
+    }
+
+    @Test
+    void doFilter_shouldRejectWith429AndRetryAfterInWholeSeconds() throws Exception {
+        authenticate();
+        wait = TimeUnit.MILLISECONDS.toNanos(1500);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chain(null);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/dynamic/users"), response, chain);
+
+        assertEquals(429, response.getStatus());
+        // Rounded up, so a client retrying on time is not rejected again
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\":\"rate_limit_exceeded\"}", response.getContentAsString());
+        assertNull(chain.getRequest());
+        assertTrue(charged.isEmpty());
+    }
+
+    @Test
+    void doFilter_shouldAskToRetryAfterAtLeastOneSecond() throws Exception {
+        authenticate();
+        wait = 1;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/dynamic/users"), response, chain(null));
+
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void doFilter_shouldChargeTheRowsAServedRequestRead() throws Exception {
+        authenticate();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chain(25L);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/dynamic/users"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(List.of(25L), charged);
+    }
+
+    @Test
+    void doFilter_shouldNotChargeRequestsReadingNoRows() throws Exception {
+        authenticate();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/dynamic/users"), new MockHttpServletResponse(),
+                chain(null));
+
+        assertTrue(charged.isEmpty());
+    }
+
+    @Test
+    void doFilter_shouldPassUnauthenticatedRequestsThrough() throws Exception {
+        wait = TimeUnit.SECONDS.toNanos(5);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chain(10L);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/dynamic/users"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertTrue(charged.isEmpty());
+    }
+
+    @Test
+    void rateLimiter_shouldDelayTheNextRequestByTheRowsCharged() {
+        // One request per second with a burst of two, and each row weighing as much as a request
+        RateLimiter limiter = new RateLimiter(1, 0, 2, 1);
+
+        assertEquals(0, limiter.tryAcquire(jwt));
+        limiter.chargeRows(jwt, 5);
+
+        assertTrue(limiter.tryAcquire(jwt) > TimeUnit.SECONDS.toNanos(3));
+    }
+}
@@ -1,21 +1,138 @@
 package com.db2api.controller;
 
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.EncryptionService;
+import com.db2api.service.api.ApiDefinitionService;
+import com.db2api.service.api.ApiRoute;
+import com.db2api.service.api.ColumnInfo;
+import com.db2api.service.api.CompiledStatement;
+import com.db2api.service.api.DynamicQueryExecutor;
+import com.db2api.service.api.PageTokenCodec;
+import com.db2api.service.api.QueryCompiler;
+import com.db2api.service.api.ResultCache;
+import com.db2api.service.api.SchemaDiscoveryService;
+import com.db2api.service.api.TableFingerprint;
+import com.db2api.service.api.TableFingerprintService;
+import com.db2api.service.api.TableSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Unit tests for the SQL injection prevention logic in
- * {@link DynamicRestController}.
- * Tests the identifier validation pattern and logic in isolation.
+ * Unit tests for {@link DynamicRestController}: the SQL injection prevention
+ * logic, with the identifier validation pattern tested in isolation, and
+ * request handling against stubbed services.
  */
 class DynamicRestControllerTest {
 
     private static final Pattern VALID_IDENTIFIER = Pattern.compile("^[a-zA-Z_][a-zA-Z0-9_]*$");
 
+    private static final TableSchema USERS = TableSchema.of("users", List.of(
+            new ColumnInfo("id", Types.INTEGER, "int4", false),
+            new ColumnInfo("name", Types.VARCHAR, "varchar", true)),
+            List.of("id"), List.of());
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DbConnection connection = new DbConnection();
+    private final ApiRoute route = new ApiRoute(1L, "users", "users", "REST", Set.of("GET", "POST"), null, null,
+            null, null, connection);
+
+    /** The statements passed to batches, and the queries run. */
+    private final List<CompiledStatement> batched = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+
+    private final SchemaDiscoveryService discovery = new SchemaDiscoveryService(null, null, null, 1, 60, 30) {
+        @Override
+        public TableSchema getTableSchema(DbConnection conn, String tableName) {
+            return USERS;
+        }
+    };
+
+    /** Records statements instead of running them; batches count their chunks like the real executor. */
+    private final DynamicQueryExecutor executor = new DynamicQueryExecutor(null) {
+        @Override
+        public List<Integer> executeBatch(DbConnection conn, StatementSource source, int chunkSize)
+                throws IOException {
+            List<Integer> chunks = new ArrayList<>();
+            int pending = 0;
+            CompiledStatement statement;
+            while ((statement = source.next()) != null) {
+                batched.add(statement);
+                if (++pending == chunkSize) {
+                    chunks.add(pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                chunks.add(pending);
+            }
+            return chunks;
+        }
+
+        @Override
+        public List<Map<String, Object>> queryForList(DbConnection conn, String sql, List<Object> params) {
+            queries.add(sql);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", 1);
+            row.put("name", "ada");
+            return new ArrayList<>(List.of(row));
+        }
+    };
+
+    private final ResultCache resultCache = new ResultCache();
+
+    /** The fingerprint of the users table, or null when it has none. */
+    private TableFingerprint fingerprint;
+
+    private DynamicRestController controller;
+
+    @BeforeEach
+    void setUp() {
+        connection.setId(1L);
+        EncryptionService encryptionService = new EncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "secret", "test-secret-key-for-unit-tests-256bit");
+        ApiDefinitionService apiDefinitions = new ApiDefinitionService(null, null, null, null) {
+            @Override
+            public ApiRoute getRoute(String tableName, String apiType) {
+                return tableName.equals(route.name()) ? route : null;
+            }
+        };
+        TableFingerprintService fingerprints = new TableFingerprintService(null, null, resultCache, null, 1000) {
+            @Override
+            public TableFingerprint fingerprint(ApiRoute route) {
+                return fingerprint;
+            }
+        };
+        controller = new DynamicRestController(apiDefinitions, discovery, new QueryCompiler(discovery, 100),
+                executor, null, resultCache, new PageTokenCodec(encryptionService), fingerprints, null, null,
+                objectMapper);
+        ReflectionTestUtils.setField(controller, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(controller, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(controller, "batchChunkSize", 2);
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
     private boolean isAllowedIdentifier(String identifier, Set<String> allowedSet) {
         if (identifier == null || !VALID_IDENTIFIER.matcher(identifier).matches()) {
             return false;
@@ -84,4 +201,96 @@ class DynamicRestControllerTest {
         assertFalse(isAllowedIdentifier("col.name", schema));
         assertFalse(isAllowedIdentifier("col name", schema));
     }
+
+    @Test
+    void createData_shouldInsertJsonArraysInChunks() {
+        ResponseEntity<?> response = controller.createData("users",
+                json("[{\"id\": 1, \"name\": \"ada\"}, {\"id\": 2, \"name\": \"grace\"}, {\"id\": 3}]"));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(Map.of("status", "success", "inserted", 3, "chunks", List.of(2, 1)), response.getBody());
+        assertEquals(List.of("INSERT INTO users (id, name) VALUES (?, ?)",
+                "INSERT INTO users (id, name) VALUES (?, ?)", "INSERT INTO users (id) VALUES (?)"),
+                batched.stream().map(CompiledStatement::sql).toList());
+        assertEquals(List.of(2, "grace"), batched.get(1).params());
+    }
+
+    @Test
+    void createData_shouldReportTheRowOfAnInvalidElement() {
+        ResponseEntity<?> notAnObject = controller.createData("users", json("[{\"id\": 1}, 5]"));
+        assertEquals(HttpStatus.BAD_REQUEST, notAnObject.getStatusCode());
+        assertEquals(Map.of("error", "Row 2: expected a JSON object"), notAnObject.getBody());
+
+        ResponseEntity<?> unknownColumn = controller.createData("users", json("[{\"id\": 1}, {\"nope\": 2}]"));
+        assertEquals(HttpStatus.BAD_REQUEST, unknownColumn.getStatusCode());
+        assertTrue(((Map<?, ?>) unknownColumn.getBody()).get("error").toString().startsWith("Row 2: "));
+    }
+
+    @Test
+    void createData_shouldRejectEmptyArrays() {
+        ResponseEntity<?> response = controller.createData("users", json("[]"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(batched.isEmpty());
+    }
+
+    private ResponseEntity<?> get(String ifNoneMatch, String ifModifiedSince) {
+        return controller.getData("users", null, null, null, null, null, null, false, null, ifNoneMatch,
+                ifModifiedSince);
+    }
+
+    @Test
+    void getData_shouldAnswer304WithoutReadingWhileTheFingerprintMatches() {
+        fingerprint = new TableFingerprint("c:41:7", Instant.parse("2024-01-01T12:00:00Z"));
+        ResponseEntity<?> first = get(null, null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertTrue(etag.startsWith("W/\""));
+        assertEquals(Instant.parse("2024-01-01T12:00:00Z").toEpochMilli(), first.getHeaders().getLastModified());
+
+        ResponseEntity<?> second = get(etag, null);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertNull(second.getBody());
+        // The route has no result cache, so only the first request read the table
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void getData_shouldAnswer304ToIfModifiedSinceWithoutAnEntityTag() {
+        fingerprint = new TableFingerprint("c:41:7", Instant.parse("2024-01-01T12:00:00.500Z"));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, get(null, "Mon, 01 Jan 2024 12:00:00 GMT").getStatusCode());
+        assertEquals(HttpStatus.OK, get(null, "Mon, 01 Jan 2024 11:59:59 GMT").getStatusCode());
+        // If-None-Match takes precedence
+        assertEquals(HttpStatus.OK, get("W/\"stale\"", "Mon, 01 Jan 2024 12:00:00 GMT").getStatusCode());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void getData_shouldReadAgainOnceTheFingerprintChanges() {
+        fingerprint = new TableFingerprint("c:41:7", null);
+        String etag = get(null, null).getHeaders().getETag();
+
+        fingerprint = new TableFingerprint("c:42:8", null);
+        ResponseEntity<?> changed = get(etag, null);
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    void getData_shouldTagByContentWithoutAFingerprint() {
+        ResponseEntity<?> first = get(null, null);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        ResponseEntity<?> second = get(etag, null);
+
+        // Without a fingerprint the page has to be read to compare its tag
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertEquals(2, queries.size());
+    }
 }
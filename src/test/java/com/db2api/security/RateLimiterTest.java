@@ -0,0 +1,86 @@
+package com.db2api.security;
+
+import com.db2api.config.TokenClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RateLimiter}.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static Jwt token(String subject, Map<String, Object> claims) {
+        return Jwt.withTokenValue("token").header("alg", "HS256").subject(subject).claims(c -> c.putAll(claims))
+                .build();
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillAtClientRate() {
+        RateLimiter limiter = new RateLimiter(2, 0, 1, 0);
+        Jwt jwt = token("client-a", Map.of());
+
+        assertEquals(0, limiter.tryAcquire(jwt, 0));
+        assertEquals(0, limiter.tryAcquire(jwt, 0));
+        assertEquals(SECOND / 2, limiter.tryAcquire(jwt, 0));
+
+        assertEquals(0, limiter.tryAcquire(jwt, SECOND / 2));
+        // Other clients have their own bucket
+        assertEquals(0, limiter.tryAcquire(token("client-b", Map.of()), 0));
+    }
+
+    @Test
+    void tryAcquire_shouldShareOrganizationBucketBetweenClients() {
+        RateLimiter limiter = new RateLimiter(10, 3, 1, 0);
+        Jwt a = token("client-a", Map.of(TokenClaims.ORGANIZATION, 7L));
+        Jwt b = token("client-b", Map.of(TokenClaims.ORGANIZATION, 7L));
+
+        assertEquals(0, limiter.tryAcquire(a, 0));
+        assertEquals(0, limiter.tryAcquire(b, 0));
+        assertEquals(0, limiter.tryAcquire(a, 0));
+        assertTrue(limiter.tryAcquire(b, 0) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldNotChargeClientForRequestsRejectedByOrganization() {
+        RateLimiter limiter = new RateLimiter(2, 1, 1, 0);
+        assertEquals(0, limiter.tryAcquire(token("client-a", Map.of(TokenClaims.ORGANIZATION, 7L)), 0));
+        assertTrue(limiter.tryAcquire(token("client-b", Map.of(TokenClaims.ORGANIZATION, 7L)), 0) > 0);
+
+        // client-b still has its full burst of two requests
+        Jwt b = token("client-b", Map.of(TokenClaims.ORGANIZATION, 8L, TokenClaims.ORGANIZATION_RATE_LIMIT, 0));
+        assertEquals(0, limiter.tryAcquire(b, 0));
+        assertEquals(0, limiter.tryAcquire(b, 0));
+        assertTrue(limiter.tryAcquire(b, 0) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldPreferLimitsFromTokenClaims() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1, 0);
+        Jwt unlimited = token("client-a", Map.of(TokenClaims.ORGANIZATION, 7L, TokenClaims.RATE_LIMIT, 0,
+                TokenClaims.ORGANIZATION_RATE_LIMIT, 100));
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(unlimited, 0));
+        }
+        assertTrue(limiter.tryAcquire(unlimited, 0) > 0);
+    }
+
+    @Test
+    void chargeRows_shouldDelayFollowingRequests() {
+        RateLimiter limiter = new RateLimiter(10, 0, 1, 0.5);
+        Jwt jwt = token("client-a", Map.of());
+
+        assertEquals(0, limiter.tryAcquire(jwt, 0));
+        // 20 rows at half a request each cost 10 requests, a whole bucket at 10 per second
+        limiter.chargeRows(jwt, 20, 0);
+        assertEquals(2 * SECOND / 10, limiter.tryAcquire(jwt, 0));
+        assertEquals(0, limiter.tryAcquire(jwt, 2 * SECOND / 10));
+    }
+}
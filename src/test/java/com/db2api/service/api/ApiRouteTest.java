@@ -0,0 +1,69 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.api.ApiDefinition;
+import com.db2api.persistent.connection.DbConnection;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for resolving {@link ApiRoute}s from API definitions.
+ */
+class ApiRouteTest {
+
+    @Test
+    void parseOperations_shouldTrimAndUppercase() {
+        assertEquals(Set.of("GET", "PUT"), ApiRoute.parseOperations(" get, PUT ,"));
+    }
+
+    @Test
+    void parseOperations_shouldIgnoreDuplicates() {
+        assertEquals(Set.of("GET"), ApiRoute.parseOperations("GET,GET"));
+        assertEquals(Set.of("GET", "POST"), ApiRoute.parseOperations("GET, get ,POST"));
+    }
+
+    @Test
+    void parseOperations_shouldHandleMissingValues() {
+        assertTrue(ApiRoute.parseOperations(null).isEmpty());
+        assertTrue(ApiRoute.parseOperations("  ").isEmpty());
+    }
+
+    @Test
+    void allows_shouldNotMatchSubstrings() {
+        ApiDefinition definition = new ApiDefinition();
+        definition.setTableName("orders");
+        definition.setApiType("REST");
+        definition.setAllowedOperations("GETALL,PUT");
+
+        ApiRoute route = ApiRoute.from(definition);
+
+        assertFalse(route.allows("GET"));
+        assertTrue(route.allows("PUT"));
+    }
+
+    @Test
+    void from_shouldDetachConnection() {
+        DbConnection connection = new DbConnection();
+        connection.setId(7L);
+        connection.setUrl("jdbc:postgresql://localhost/db");
+        connection.setUsername("app");
+        connection.setPassword("secret");
+        connection.setDriverClass("org.postgresql.Driver");
+
+        ApiDefinition definition = new ApiDefinition();
+        definition.setTableName("orders");
+        definition.setApiType("REST");
+        definition.setMaxPageSize(50);
+        connection.addToApiDefinitions(definition);
+
+        ApiRoute route = ApiRoute.from(definition);
+
+        assertNotSame(connection, route.connection());
+        assertEquals(7L, route.connection().getId());
+        assertEquals("jdbc:postgresql://localhost/db", route.connection().getUrl());
+        assertTrue(route.connection().getApiDefinitions().isEmpty());
+        assertEquals(50, route.maxPageSize());
+    }
+}
@@ -0,0 +1,187 @@
+package com.db2api.service.api;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ArrowRowEncoder}, reading its output back with an
+ * {@link ArrowStreamReader}.
+ */
+class ArrowRowEncoderTest {
+
+    private static final String[] LABELS = { "id", "amount", "created", "note" };
+    private static final int[] TYPES = { Types.INTEGER, Types.DECIMAL, Types.TIMESTAMP, Types.VARCHAR };
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000);
+
+    private final BufferAllocator allocator = new RootAllocator();
+
+    @AfterEach
+    void tearDown() {
+        allocator.close();
+    }
+
+    /** A forward-only result set over rows of id, amount, created and note. */
+    private static ResultSet resultSet(List<Object[]> rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                ArrowRowEncoderTest.class.getClassLoader(), new Class<?>[] { ResultSetMetaData.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> LABELS.length;
+                    case "getColumnLabel" -> LABELS[(Integer) args[0] - 1];
+                    case "getColumnType" -> TYPES[(Integer) args[0] - 1];
+                    case "getPrecision" -> 10;
+                    case "getScale" -> 2;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        int[] row = { -1 };
+        boolean[] wasNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(ArrowRowEncoderTest.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("next")) {
+                        return ++row[0] < rows.size();
+                    }
+                    if (method.getName().equals("getMetaData")) {
+                        return metaData;
+                    }
+                    if (method.getName().equals("wasNull")) {
+                        return wasNull[0];
+                    }
+                    Object value = rows.get(row[0])[(Integer) args[0] - 1];
+                    wasNull[0] = value == null;
+                    return switch (method.getName()) {
+                        case "getInt" -> value != null ? (Integer) value : 0;
+                        case "getLong" -> value != null ? ((Integer) value).longValue() : 0L;
+                        case "getBigDecimal" -> value;
+                        case "getTimestamp" -> value != null ? Timestamp.valueOf((LocalDateTime) value) : null;
+                        case "getObject" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+    private byte[] encode(List<Object[]> rows, int batchRows, ColumnIndex columns) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = new ArrowRowEncoder(allocator, batchRows).encode(resultSet(rows), columns, out, 1);
+        assertEquals(rows.size(), written);
+        return out.toByteArray();
+    }
+
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { i, new BigDecimal("12.5").add(BigDecimal.valueOf(i)), CREATED.plusDays(i),
+                    "row " + i });
+        }
+        return rows;
+    }
+
+    @Test
+    void encode_shouldDeclareTheSchemaFromDiscoveredTypesAndMetadata() throws Exception {
+        // The discovered type of id wins over the metadata; note is only known from the metadata
+        ColumnIndex columns = ColumnIndex.of(Map.of("id", Types.BIGINT, "amount", Types.DECIMAL,
+                "created", Types.TIMESTAMP));
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(
+                new ByteArrayInputStream(encode(rows(1), 10, columns)), allocator)) {
+            List<Field> fields = reader.getVectorSchemaRoot().getSchema().getFields();
+
+            assertEquals(List.of("id", "amount", "created", "note"), fields.stream().map(Field::getName).toList());
+            assertEquals(new ArrowType.Int(64, true), fields.get(0).getType());
+            assertEquals(new ArrowType.Decimal(10, 2, 128), fields.get(1).getType());
+            assertEquals(new ArrowType.Timestamp(TimeUnit.MICROSECOND, null), fields.get(2).getType());
+            assertEquals(ArrowType.Utf8.INSTANCE, fields.get(3).getType());
+            assertTrue(fields.stream().allMatch(Field::isNullable));
+        }
+    }
+
+    @Test
+    void encode_shouldSplitRowsIntoBatchesOfBatchRows() throws Exception {
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(
+                new ByteArrayInputStream(encode(rows(5), 2, ColumnIndex.of(Map.of()))), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                batchSizes.add(root.getRowCount());
+                IntVector id = (IntVector) root.getVector("id");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    ids.add(id.get(i));
+                }
+            }
+        }
+
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(List.of(0, 1, 2, 3, 4), ids);
+    }
+
+    @Test
+    void encode_shouldCopyDecimalsTimestampsAndNulls() throws Exception {
+        List<Object[]> rows = List.of(
+                new Object[] { 1, new BigDecimal("12.5"), CREATED, "first" },
+                new Object[] { null, null, null, null });
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(
+                new ByteArrayInputStream(encode(rows, 10, ColumnIndex.of(Map.of()))), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertTrue(reader.loadNextBatch());
+            assertEquals(2, root.getRowCount());
+
+            IntVector id = (IntVector) root.getVector("id");
+            DecimalVector amount = (DecimalVector) root.getVector("amount");
+            TimeStampMicroVector created = (TimeStampMicroVector) root.getVector("created");
+            VarCharVector note = (VarCharVector) root.getVector("note");
+
+            assertEquals(1, id.get(0));
+            // Values are rescaled to the declared scale
+            assertEquals(new BigDecimal("12.50"), amount.getObject(0));
+            // Zone-less timestamps keep their wall-clock value, in microseconds
+            assertEquals(ChronoUnit.MICROS.between(Instant.EPOCH, CREATED.toInstant(ZoneOffset.UTC)), created.get(0));
+            assertEquals("first", note.getObject(0).toString());
+
+            assertTrue(id.isNull(1));
+            assertTrue(amount.isNull(1));
+            assertTrue(created.isNull(1));
+            assertTrue(note.isNull(1));
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+
+    @Test
+    void encode_shouldWriteOnlyTheSchemaForAnEmptyResult() throws Exception {
+        try (ArrowStreamReader reader = new ArrowStreamReader(
+                new ByteArrayInputStream(encode(List.of(), 10, ColumnIndex.of(Map.of()))), allocator)) {
+            assertEquals(4, reader.getVectorSchemaRoot().getSchema().getFields().size());
+            assertFalse(reader.loadNextBatch());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BulkLoadService}: COPY on PostgreSQL, against a fake
+ * {@link CopyManager}, and the batched fallback against {@link RecordingJdbc}.
+ */
+class BulkLoadServiceTest {
+
+    private static final TableSchema USERS = TableSchema.of("users", List.of(
+            new ColumnInfo("id", Types.INTEGER, "int4", false),
+            new ColumnInfo("name", Types.VARCHAR, "varchar", true)),
+            List.of("id"), List.of());
+
+    private final RecordingJdbc jdbc = new RecordingJdbc();
+    private final DbConnection connection = new DbConnection();
+    private final ApiRoute route = new ApiRoute(1L, "users", "users", "REST", Set.of("POST"), null, null, null,
+            null, connection);
+
+    /** The COPY statements started, and the data sent to them. */
+    private final List<String> copies = new ArrayList<>();
+    private final StringBuilder copied = new StringBuilder();
+    private boolean cancelled;
+
+    private BulkLoadService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SchemaDiscoveryService discovery = new SchemaDiscoveryService(null, null, null, 1, 60, 30) {
+            @Override
+            public TableSchema getTableSchema(DbConnection conn, String tableName) {
+                return USERS;
+            }
+        };
+        jdbc.unwrappingTo(pgConnection());
+        DynamicQueryExecutor executor = new DynamicQueryExecutor(jdbc.connectivity());
+        service = new BulkLoadService(jdbc.connectivity(), new QueryCompiler(discovery, 100), executor,
+                new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchChunkSize", 2);
+    }
+
+    /** A PostgreSQL connection whose COPY API records the data instead of sending it. */
+    private PGConnection pgConnection() throws SQLException {
+        BaseConnection base = (BaseConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { BaseConnection.class }, (proxy, method, args) -> null);
+        CopyManager copyManager = new CopyManager(base) {
+            @Override
+            public long copyIn(String sql, InputStream from, int bufferSize) throws IOException {
+                copies.add(sql);
+                copied.append(new String(from.readAllBytes(), StandardCharsets.UTF_8));
+                return copied.chars().filter(c -> c == '\n').count();
+            }
+
+            @Override
+            public CopyIn copyIn(String sql) {
+                copies.add(sql);
+                boolean[] active = { true };
+                return (CopyIn) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { CopyIn.class },
+                        (proxy, method, args) -> switch (method.getName()) {
+                            case "writeToCopy" -> {
+                                copied.append(new String((byte[]) args[0], (Integer) args[1], (Integer) args[2],
+                                        StandardCharsets.UTF_8));
+                                yield null;
+                            }
+                            case "endCopy" -> {
+                                active[0] = false;
+                                yield copied.chars().filter(c -> c == '\n').count();
+                            }
+                            case "isActive" -> active[0];
+                            case "cancelCopy" -> {
+                                active[0] = false;
+                                cancelled = true;
+                                yield null;
+                            }
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        });
+            }
+        };
+        return (PGConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PGConnection.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "getCopyAPI" -> copyManager;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void load_shouldStreamCsvDataRowsIntoCopyUntouched() throws Exception {
+        connection.setDriverClass("org.postgresql.Driver");
+
+        long rows = service.load(route, body("\uFEFFName,ID\n\"a,b\",1\n,2\n"), BulkLoadService.Format.CSV);
+
+        assertEquals(2, rows);
+        // The header keeps its order and is mapped to the table's column names
+        assertEquals(List.of("COPY users (name, id) FROM STDIN WITH (FORMAT csv)"), copies);
+        assertEquals("\"a,b\",1\n,2\n", copied.toString());
+    }
+
+    @Test
+    void load_shouldConvertNdjsonToCsvForCopy() throws Exception {
+        connection.setDriverClass("org.postgresql.Driver");
+
+        String upload = "{\"name\": \"a\", \"id\": 1}\n{\"id\": 2}\n{\"id\": 3, \"name\": \"\"}\n";
+
+        long rows = service.load(route, body(upload), BulkLoadService.Format.NDJSON);
+
+        assertEquals(3, rows);
+        assertEquals(List.of("COPY users (id, name) FROM STDIN WITH (FORMAT csv)"), copies);
+        // Missing values are NULL, written as empty fields; empty strings are quoted
+        assertEquals("1,a\n2,\n3,\"\"\n", copied.toString());
+    }
+
+    @Test
+    void load_shouldCancelCopyWhenALaterObjectAddsAColumn() {
+        connection.setDriverClass("org.postgresql.Driver");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> service.load(route,
+                body("{\"id\": 1}\n{\"id\": 2, \"name\": \"b\"}\n"), BulkLoadService.Format.NDJSON));
+
+        assertTrue(e.getMessage().startsWith("Row 2: column name"));
+        assertTrue(cancelled);
+    }
+
+    @Test
+    void load_shouldRejectUnknownAndDuplicateCsvColumns() {
+        connection.setDriverClass("org.postgresql.Driver");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.load(route, body("id,secret\n1,x\n"), BulkLoadService.Format.CSV));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.load(route, body("id,ID\n1,2\n"), BulkLoadService.Format.CSV));
+        assertTrue(copies.isEmpty());
+    }
+
+    @Test
+    void load_shouldFallBackToBatchedInsertsOutsidePostgres() throws Exception {
+        connection.setDriverClass("org.h2.Driver");
+
+        long rows = service.load(route, body("id,name\n1,a\n2,b\n3,c\n"), BulkLoadService.Format.CSV);
+
+        assertEquals(3, rows);
+        assertTrue(copies.isEmpty());
+        assertEquals(List.of("addBatch [1, a]", "addBatch [2, b]", "addBatch [3, c]"), jdbc.calls("addBatch"));
+        assertEquals(List.of("executeBatch 2", "executeBatch 1"), jdbc.calls("executeBatch"));
+        assertEquals(List.of("commit"), jdbc.calls("commit"));
+    }
+
+    @Test
+    void load_shouldReportRowsWithTheWrongNumberOfFields() {
+        connection.setDriverClass("org.h2.Driver");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.load(route, body("id,name\n1,a\n2\n"), BulkLoadService.Format.CSV));
+
+        assertEquals("Row 2: expected 2 fields but found 1", e.getMessage());
+        assertTrue(jdbc.calls("commit").isEmpty());
+    }
+}
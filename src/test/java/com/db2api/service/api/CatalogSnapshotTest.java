@@ -0,0 +1,63 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CatalogSnapshot} and {@link TableSchema}.
+ */
+class CatalogSnapshotTest {
+
+    private static CatalogSnapshot snapshot() {
+        TableSchema customers = TableSchema.of("Customers",
+                List.of(new ColumnInfo("id", Types.INTEGER, "int4", false),
+                        new ColumnInfo("name", Types.VARCHAR, "varchar", true)),
+                List.of("id"), List.of());
+        TableSchema orders = TableSchema.of("orders",
+                List.of(new ColumnInfo("id", Types.INTEGER, "int4", false),
+                        new ColumnInfo("customer_id", Types.INTEGER, "int4", false)),
+                List.of("id"),
+                List.of(new ForeignKey("fk_customer", List.of("customer_id"), "Customers", List.of("id"))));
+        return new CatalogSnapshot(1L, 7, Instant.now(), List.of(customers, orders));
+    }
+
+    @Test
+    void getTable_shouldMatchExactAndCaseInsensitiveNames() {
+        CatalogSnapshot catalog = snapshot();
+
+        assertEquals("Customers", catalog.getTable("Customers").tableName());
+        assertEquals("Customers", catalog.getTable("customers").tableName());
+        assertNull(catalog.getTable("missing"));
+    }
+
+    @Test
+    void getTableNames_shouldKeepDiscoveryOrder() {
+        assertEquals(List.of("Customers", "orders"), snapshot().getTableNames());
+    }
+
+    @Test
+    void tableSchema_shouldDeriveColumnTypes() {
+        TableSchema orders = snapshot().getTable("orders");
+
+        assertEquals(List.of("id", "customer_id"), List.copyOf(orders.columnTypes().keySet()));
+        assertEquals(Types.INTEGER, orders.columnTypes().get("customer_id"));
+        assertEquals("Customers", orders.foreignKeys().get(0).referencedTable());
+    }
+
+    @Test
+    void tableSchema_shouldBeImmutable() {
+        TableSchema orders = snapshot().getTable("orders");
+        assertThrows(UnsupportedOperationException.class, () -> orders.columnTypes().put("x", Types.VARCHAR));
+        assertThrows(UnsupportedOperationException.class, () -> orders.primaryKeys().add("x"));
+    }
+
+    @Test
+    void emptySchema_shouldHaveNoColumns() {
+        assertTrue(TableSchema.empty("missing").isEmpty());
+    }
+}
@@ -0,0 +1,58 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CsvReader} and {@link CsvWriter}.
+ */
+class CsvReaderTest {
+
+    @Test
+    void next_shouldSplitRecordsAndFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("id,name\r\n1,alice\n\n2,bob"));
+
+        assertEquals(List.of("id", "name"), reader.next());
+        assertEquals(List.of("1", "alice"), reader.next());
+        assertEquals(List.of("2", "bob"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_shouldHandleQuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\"\n"));
+
+        assertEquals(List.of("a,b", "say \"hi\"", "line\nbreak"), reader.next());
+    }
+
+    @Test
+    void next_shouldDistinguishNullFromEmptyString() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("1,,\"\"\n"));
+
+        assertEquals(Arrays.asList("1", null, ""), reader.next());
+    }
+
+    @Test
+    void next_shouldRejectUnterminatedQuotes() {
+        CsvReader reader = new CsvReader(new StringReader("\"open,1\n"));
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void writer_shouldRoundTripThroughReader() throws IOException {
+        List<Object> record = Arrays.asList(42, null, "", "a,\"b\"", "multi\nline", "\\.");
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRecord(record);
+
+        List<String> read = new CsvReader(new StringReader(out.toString())).next();
+
+        assertEquals(Arrays.asList("42", null, "", "a,\"b\"", "multi\nline", "\\."), read);
+    }
+}
@@ -0,0 +1,184 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DynamicQueryExecutor}, against {@link RecordingJdbc}.
+ */
+class DynamicQueryExecutorTest {
+
+    private static final String SELECT = "SELECT id, name FROM users ORDER BY id";
+    private static final String INSERT = "INSERT INTO users (id, name) VALUES (?, ?)";
+    private static final String INSERT_ID = "INSERT INTO users (id) VALUES (?)";
+
+    private final RecordingJdbc jdbc = new RecordingJdbc().returning(new String[] { "id", "name" },
+            List.of(new Object[] { 1, "ada" }, new Object[] { 2, "grace" }));
+    private final DynamicQueryExecutor executor = new DynamicQueryExecutor(jdbc.connectivity());
+    private final DbConnection connection = new DbConnection();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "fetchSize", 50);
+    }
+
+    @Test
+    void stream_shouldReadThroughACursorInOneTransaction() throws Exception {
+        List<Object> names = new ArrayList<>();
+
+        executor.stream(connection, SELECT, List.of(), rs -> {
+            while (rs.next()) {
+                names.add(rs.getObject(2));
+            }
+        });
+
+        assertEquals(List.of("ada", "grace"), names);
+        // Outside auto-commit, with a fetch size, so PostgreSQL reads through a cursor
+        assertEquals(List.of("autoCommit false", "prepare " + SELECT, "fetchSize 50", "executeQuery []",
+                "close resultSet", "commit", "close statement", "autoCommit true", "close"), jdbc.calls);
+    }
+
+    @Test
+    void stream_shouldRollBackAndReturnTheConnectionWhenTheHandlerFails() {
+        assertThrows(IOException.class, () -> executor.stream(connection, SELECT, List.of(), rs -> {
+            rs.next();
+            throw new IOException("client went away");
+        }));
+
+        assertTrue(jdbc.calls("commit").isEmpty());
+        assertEquals(List.of("rollback", "autoCommit true", "close"),
+                jdbc.calls.subList(jdbc.calls.size() - 3, jdbc.calls.size()));
+    }
+
+    @Test
+    void stream_shouldLeaveABorrowedConnectionOpen() throws Exception {
+        try (Connection borrowed = executor.borrow(connection)) {
+            executor.stream(borrowed, SELECT, List.of(7), rs -> {
+            });
+            assertEquals("executeQuery [7]", jdbc.calls("executeQuery").get(0));
+            assertTrue(jdbc.calls("close").stream().noneMatch("close"::equals));
+        }
+        assertEquals("close", jdbc.calls.get(jdbc.calls.size() - 1));
+    }
+
+    /** A source handing out the given statements, then null. */
+    private static DynamicQueryExecutor.StatementSource source(List<CompiledStatement> statements) {
+        Iterator<CompiledStatement> iterator = statements.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private static List<CompiledStatement> inserts(int count) {
+        List<CompiledStatement> statements = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            statements.add(new CompiledStatement(INSERT, List.of(i, "user " + i)));
+        }
+        return statements;
+    }
+
+    @Test
+    void executeBatch_shouldSendChunksInOneTransaction() throws Exception {
+        List<Integer> counts = executor.executeBatch(connection, source(inserts(5)), 2);
+
+        assertEquals(List.of(2, 2, 1), counts);
+        assertEquals(List.of("prepare " + INSERT), jdbc.calls("prepare"));
+        assertEquals(List.of("executeBatch 2", "executeBatch 2", "executeBatch 1"), jdbc.calls("executeBatch"));
+        assertEquals("addBatch [5, user 5]", jdbc.calls("addBatch").get(4));
+        assertEquals(List.of("commit", "close statement", "autoCommit true", "close"),
+                jdbc.calls.subList(jdbc.calls.size() - 4, jdbc.calls.size()));
+    }
+
+    @Test
+    void executeBatch_shouldRollBackEveryChunkWhenTheDatabaseRejectsARow() {
+        jdbc.failingOn(row -> row.get(0).equals(4));
+
+        assertThrows(SQLException.class, () -> executor.executeBatch(connection, source(inserts(5)), 2));
+
+        assertEquals(List.of("executeBatch 2", "executeBatch 2"), jdbc.calls("executeBatch"));
+        assertTrue(jdbc.calls("commit").isEmpty());
+        assertEquals(List.of("rollback"), jdbc.calls("rollback"));
+        assertEquals("close", jdbc.calls.get(jdbc.calls.size() - 1));
+    }
+
+    @Test
+    void executeBatch_shouldRollBackWhenTheSourceRejectsARow() {
+        List<CompiledStatement> statements = inserts(3);
+        Iterator<CompiledStatement> iterator = statements.iterator();
+        DynamicQueryExecutor.StatementSource source = () -> {
+            if (!iterator.hasNext()) {
+                throw new IllegalArgumentException("Row 4: expected a JSON object");
+            }
+            return iterator.next();
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> executor.executeBatch(connection, source, 2));
+
+        assertTrue(jdbc.calls("commit").isEmpty());
+        assertEquals(List.of("executeBatch 2"), jdbc.calls("executeBatch"));
+        assertEquals(List.of("rollback"), jdbc.calls("rollback"));
+    }
+
+    @Test
+    void executeBatch_shouldBatchEachShapeOnceAcrossAlternatingRows() throws Exception {
+        List<CompiledStatement> statements = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            statements.add(i % 2 == 1
+                    ? new CompiledStatement(INSERT, List.of(i, "user " + i))
+                    : new CompiledStatement(INSERT_ID, List.of(i)));
+        }
+
+        List<Integer> counts = executor.executeBatch(connection, source(statements), 4);
+
+        assertEquals(List.of(4, 2), counts);
+        assertEquals(List.of("prepare " + INSERT, "prepare " + INSERT_ID), jdbc.calls("prepare"));
+        assertEquals(List.of("executeBatch 2", "executeBatch 2", "executeBatch 1", "executeBatch 1"),
+                jdbc.calls("executeBatch"));
+        assertEquals(List.of("addBatch [1, user 1]", "addBatch [3, user 3]", "addBatch [2]", "addBatch [4]",
+                "addBatch [5, user 5]", "addBatch [6]"), jdbc.calls("addBatch"));
+        assertEquals(List.of("commit"), jdbc.calls("commit"));
+        assertEquals(2, jdbc.calls("close statement").size());
+    }
+
+    @Test
+    void executeBatch_shouldCloseStatementsOfShapesAChunkDoesNotUse() throws Exception {
+        List<CompiledStatement> statements = new ArrayList<>(inserts(2));
+        statements.add(new CompiledStatement(INSERT_ID, List.of(3)));
+
+        executor.executeBatch(connection, source(statements), 2);
+
+        assertEquals(List.of("executeBatch 2", "close statement", "prepare " + INSERT_ID, "addBatch [3]",
+                "executeBatch 1", "commit", "close statement", "autoCommit true", "close"),
+                jdbc.calls.subList(4, jdbc.calls.size()));
+    }
+
+    @Test
+    void executeBatch_shouldNotTouchTheDatabaseWhenTheFirstChunkIsRejected() {
+        Iterator<CompiledStatement> iterator = inserts(1).iterator();
+        DynamicQueryExecutor.StatementSource source = () -> {
+            if (!iterator.hasNext()) {
+                throw new IllegalArgumentException("Row 2: expected a JSON object");
+            }
+            return iterator.next();
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> executor.executeBatch(connection, source, 2));
+
+        assertTrue(jdbc.calls.isEmpty());
+    }
+
+    @Test
+    void executeBatch_shouldNotBorrowAConnectionForAnEmptySource() throws Exception {
+        assertEquals(List.of(), executor.executeBatch(connection, () -> null, 2));
+        assertTrue(jdbc.calls.isEmpty());
+    }
+}
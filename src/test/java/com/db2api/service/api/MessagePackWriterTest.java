@@ -0,0 +1,76 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link MessagePackWriter} encodings.
+ */
+class MessagePackWriterTest {
+
+    private static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new MessagePackWriter(out).writeValue(value);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    @Test
+    void integers_shouldUseSmallestEncoding() throws IOException {
+        assertArrayEquals(bytes(0x05), encode(5));
+        assertArrayEquals(bytes(0xff), encode(-1));
+        assertArrayEquals(bytes(0xcc, 0xc8), encode(200));
+        assertArrayEquals(bytes(0xd0, 0x80), encode(-128));
+        assertArrayEquals(bytes(0xcd, 0x01, 0x00), encode(256));
+        assertArrayEquals(bytes(0xd1, 0xff, 0x00), encode(-256));
+        assertArrayEquals(bytes(0xce, 0x00, 0x01, 0x00, 0x00), encode(65536L));
+        assertArrayEquals(bytes(0xd3, 0x80, 0, 0, 0, 0, 0, 0, 0), encode(Long.MIN_VALUE));
+    }
+
+    @Test
+    void bigIntegers_shouldFallBackToStringBeyond64Bits() throws IOException {
+        assertArrayEquals(bytes(0xcf, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff),
+                encode(new BigInteger("18446744073709551615")));
+        assertEquals(0xa0 | 20, encode(new BigInteger("18446744073709551616"))[0] & 0xff);
+    }
+
+    @Test
+    void scalars_shouldBeEncoded() throws IOException {
+        assertArrayEquals(bytes(0xc0), encode(null));
+        assertArrayEquals(bytes(0xc3), encode(true));
+        assertArrayEquals(bytes(0xcb, 0x3f, 0xf8, 0, 0, 0, 0, 0, 0), encode(1.5d));
+        assertArrayEquals(bytes(0xca, 0x3f, 0xc0, 0, 0), encode(1.5f));
+        assertArrayEquals(bytes(0xc4, 0x02, 0x01, 0x02), encode(new byte[] {1, 2}));
+    }
+
+    @Test
+    void strings_shouldBeUtf8WithLengthPrefix() throws IOException {
+        assertArrayEquals(bytes(0xa3, 0xc3, 0xa9, 0x61), encode("\u00e9a"));
+        byte[] longer = encode("x".repeat(40));
+        assertEquals(0xd9, longer[0] & 0xff);
+        assertEquals(40, longer[1]);
+        assertArrayEquals(bytes(0xa4, '1', '.', '5', '0'), encode(new BigDecimal("1.50")));
+    }
+
+    @Test
+    void arrayHeaders_shouldEncodeSize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePackWriter writer = new MessagePackWriter(out);
+        writer.writeArrayHeader(3);
+        writer.writeArrayHeader(20);
+        assertArrayEquals(bytes(0x93, 0xdc, 0x00, 0x14), out.toByteArray());
+    }
+}
@@ -0,0 +1,103 @@
+package com.db2api.service.api;
+
+import com.db2api.service.EncryptionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PageToken} and its encoding by {@link PageTokenCodec}.
+ */
+class PageTokenTest {
+
+    private final PageTokenCodec codec = codec("test-secret-key-for-unit-tests-256bit");
+
+    private static PageTokenCodec codec(String secret) {
+        EncryptionService encryptionService = new EncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "secret", secret);
+        return new PageTokenCodec(encryptionService);
+    }
+
+    @Test
+    void keysetToken_shouldRoundTrip() {
+        PageToken decoded = codec.decode(codec.encode(PageToken.ofKeys(List.of(42, "abc"))));
+
+        assertTrue(decoded.isKeyset());
+        assertEquals(List.of("42", "abc"), decoded.keys());
+    }
+
+    @Test
+    void keysetToken_shouldPreserveNullKeys() {
+        PageToken decoded = codec.decode(codec.encode(PageToken.ofKeys(Arrays.asList(1, null))));
+        assertEquals(Arrays.asList("1", null), decoded.keys());
+    }
+
+    @Test
+    void offsetToken_shouldRoundTrip() {
+        PageToken decoded = codec.decode(codec.encode(PageToken.ofOffset(200)));
+
+        assertFalse(decoded.isKeyset());
+        assertEquals(200, decoded.offset());
+    }
+
+    @Test
+    void encodedToken_shouldBeUrlSafe() {
+        String encoded = codec.encode(PageToken.ofKeys(List.of("??>>~~")));
+        assertTrue(encoded.matches("^[A-Za-z0-9_-]+$"));
+    }
+
+    @Test
+    void encodedToken_shouldNotRevealKeyValues() {
+        String encoded = codec.encode(PageToken.ofKeys(List.of("hidden-salary-90000")));
+        String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.ISO_8859_1);
+
+        assertFalse(decoded.contains("hidden-salary-90000"));
+    }
+
+    @Test
+    void encodedToken_shouldBeStableForTheSamePage() {
+        PageToken token = PageToken.ofKeys(List.of(42, "abc"));
+        assertEquals(codec.encode(token), codec.encode(token));
+        assertNotEquals(codec.encode(token), codec.encode(PageToken.ofKeys(List.of(43, "abc"))));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("bm90anNvbg"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(""));
+    }
+
+    @Test
+    void decode_shouldRejectTamperedTokens() {
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(PageToken.ofKeys(List.of(42))));
+        bytes[bytes.length - 1] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(tampered));
+    }
+
+    @Test
+    void decode_shouldRejectPlainTokens() {
+        String plain = Base64.getUrlEncoder().withoutPadding().encodeToString(PageToken.ofOffset(5).toJson());
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(plain));
+    }
+
+    @Test
+    void decode_shouldRejectTokensIssuedWithAnotherSecret() {
+        String foreign = codec("another-secret").encode(PageToken.ofOffset(5));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(foreign));
+    }
+
+    @Test
+    void decode_shouldRejectNegativeOffsets() {
+        String encoded = codec.encode(new PageToken(null, -5));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+}
@@ -0,0 +1,177 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link QueryCompiler} and {@link ColumnIndex}.
+ */
+class QueryCompilerTest {
+
+    private static final TableSchema ORDERS = TableSchema.of("orders", List.of(
+            new ColumnInfo("id", Types.INTEGER, "int4", false),
+            new ColumnInfo("Customer", Types.VARCHAR, "varchar", true),
+            new ColumnInfo("total", Types.NUMERIC, "numeric", true),
+            new ColumnInfo("bad name", Types.VARCHAR, "varchar", true)),
+            List.of("id"), List.of());
+
+    private static final TableSchema TOKENS = TableSchema.of("tokens", List.of(
+            new ColumnInfo("id", Types.OTHER, "uuid", false),
+            new ColumnInfo("label", Types.VARCHAR, "varchar", true)),
+            List.of("id"), List.of());
+
+    private final QueryCompiler compiler = new QueryCompiler(new StubDiscovery(), 100);
+
+    private final ApiRoute route = new ApiRoute(1L, "orders", "orders", "REST", Set.of("GET"), null, null, null,
+            null, new DbConnection());
+
+    @Test
+    void insert_shouldUseSchemaOrderRegardlessOfRequestOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("total", 10);
+        first.put("ID", 1);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("id", 2);
+        second.put("TOTAL", 20);
+
+        CompiledStatement a = compiler.insert(route, first);
+        CompiledStatement b = compiler.insert(route, second);
+
+        assertEquals("INSERT INTO orders (id, total) VALUES (?, ?)", a.sql());
+        assertSame(a.sql(), b.sql());
+        assertEquals(List.of(1, 10), a.params());
+        assertEquals(List.of(2, 20), b.params());
+    }
+
+    @Test
+    void update_shouldCoerceTextualValues() {
+        CompiledStatement statement = compiler.update(route, Map.of("customer", "acme"), Map.of("id", "5"));
+
+        assertEquals("UPDATE orders SET Customer = ? WHERE id = ?", statement.sql());
+        assertEquals(List.of("acme", 5), statement.params());
+    }
+
+    @Test
+    void delete_shouldRejectUnknownColumns() {
+        assertThrows(IllegalArgumentException.class, () -> compiler.delete(route, Map.of("nope", "1")));
+        assertThrows(IllegalArgumentException.class, () -> compiler.delete(route, Map.of("bad name", "1")));
+        assertThrows(IllegalArgumentException.class, () -> compiler.delete(route, Map.of()));
+    }
+
+    @Test
+    void select_shouldProjectIncludedColumns() {
+        ApiRoute restricted = new ApiRoute(2L, "orders", "orders", "GraphQL", Set.of("GET"), "total, ID, missing",
+                null, null, null, new DbConnection());
+
+        assertEquals("SELECT id, total FROM orders", compiler.select(restricted).sql());
+        assertEquals("SELECT * FROM orders", compiler.select(route).sql());
+    }
+
+    @Test
+    void selectPage_shouldContinueAfterKeyValues() {
+        CompiledStatement statement = compiler.selectPage(route, List.of("total", "id"), List.of(),
+                List.of(new SortOrder("total", true), new SortOrder("id", false)), List.of("9.5", "7"), 11, 0);
+
+        assertEquals("SELECT total, id FROM orders WHERE ((total < ?) OR (total = ? AND id > ?))"
+                + " ORDER BY CASE WHEN total IS NULL THEN 1 ELSE 0 END DESC, total DESC, id LIMIT ? OFFSET ?",
+                statement.sql());
+        assertEquals(List.of(new BigDecimal("9.5"), new BigDecimal("9.5"), 7, 11, 0L), statement.params());
+    }
+
+    @Test
+    void selectPage_shouldSortNullsLastAndContinueAfterThem() {
+        CompiledStatement afterValue = compiler.selectPage(route, List.of(), List.of(),
+                List.of(new SortOrder("total", false), new SortOrder("id", false)), List.of("9.5", "7"), 11, 0);
+        assertEquals("SELECT * FROM orders WHERE ((total > ? OR total IS NULL) OR (total = ? AND id > ?))"
+                + " ORDER BY CASE WHEN total IS NULL THEN 1 ELSE 0 END, total, id LIMIT ? OFFSET ?",
+                afterValue.sql());
+
+        List<String> nullKey = new ArrayList<>();
+        nullKey.add(null);
+        nullKey.add("7");
+        CompiledStatement afterNull = compiler.selectPage(route, List.of(), List.of(),
+                List.of(new SortOrder("total", false), new SortOrder("id", false)), nullKey, 11, 0);
+        assertEquals("SELECT * FROM orders WHERE ((total IS NULL AND id > ?))"
+                + " ORDER BY CASE WHEN total IS NULL THEN 1 ELSE 0 END, total, id LIMIT ? OFFSET ?",
+                afterNull.sql());
+        assertEquals(List.of(7, 11, 0L), afterNull.params());
+    }
+
+    @Test
+    void selectPage_shouldSortNullsFirstWhenDescendingOnPostgres() {
+        DbConnection postgres = new DbConnection();
+        postgres.setDriverClass("org.postgresql.Driver");
+        ApiRoute pgRoute = new ApiRoute(1L, "orders", "orders", "REST", Set.of("GET"), null, null, null, null,
+                postgres);
+        List<String> nullKey = new ArrayList<>();
+        nullKey.add(null);
+        nullKey.add("7");
+
+        CompiledStatement statement = compiler.selectPage(pgRoute, List.of(), List.of(),
+                List.of(new SortOrder("total", true), new SortOrder("id", false)), nullKey, 11, 0);
+
+        // After the NULLs, which come first, all rows with a value follow
+        assertEquals("SELECT * FROM orders WHERE ((total IS NOT NULL) OR (total IS NULL AND id > ?))"
+                + " ORDER BY total DESC NULLS FIRST, id LIMIT ? OFFSET ?", statement.sql());
+        assertEquals(List.of(7, 11, 0L), statement.params());
+    }
+
+    @Test
+    void selectPage_shouldBindKeysOfUnmappedTypesUntyped() {
+        DbConnection postgres = new DbConnection();
+        postgres.setDriverClass("org.postgresql.Driver");
+        ApiRoute tokens = new ApiRoute(3L, "tokens", "tokens", "REST", Set.of("GET"), null, null, null, null,
+                postgres);
+        String uuid = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+        CompiledStatement statement = compiler.selectPage(tokens, List.of(), List.of(),
+                List.of(new SortOrder("id", false)), List.of(uuid), 11, 0);
+
+        // Bound as varchar, PostgreSQL would reject uuid > character varying
+        assertEquals("SELECT * FROM tokens WHERE ((id > ?)) ORDER BY id LIMIT ? OFFSET ?", statement.sql());
+        assertEquals(List.of(new SqlValues.Untyped(uuid), 11, 0L), statement.params());
+    }
+
+    @Test
+    void selectPage_shouldOmitLimitForUnboundedReads() {
+        assertEquals("SELECT * FROM orders",
+                compiler.selectPage(route, List.of(), List.of(), List.of(), null, null, 0).sql());
+        assertThrows(IllegalArgumentException.class, () -> compiler.selectPage(route, List.of(), List.of(),
+                List.of(new SortOrder("id", false)), List.of("1", "2"), 10, 0));
+    }
+
+    @Test
+    void columnIndex_shouldResolveIgnoringCase() {
+        ColumnIndex index = compiler.columns(route);
+
+        assertEquals("Customer", index.resolve("CUSTOMER"));
+        assertEquals(Types.NUMERIC, index.sqlType("Total"));
+        assertNull(index.resolve("bad name"));
+        assertEquals(3, index.size());
+    }
+
+    /**
+     * Discovery service serving a fixed schema instead of reading metadata.
+     */
+    private static class StubDiscovery extends SchemaDiscoveryService {
+
+        StubDiscovery() {
+            super(null, null, null, 1, 60, 30);
+        }
+
+        @Override
+        public TableSchema getTableSchema(DbConnection conn, String tableName) {
+            return tableName.equals("tokens") ? TOKENS : ORDERS;
+        }
+    }
+}
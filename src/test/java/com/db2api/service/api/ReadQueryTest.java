@@ -0,0 +1,90 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for parsing and validating {@link ReadQuery} parameters.
+ */
+class ReadQueryTest {
+
+    private static Map<String, Integer> columns() {
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        columns.put("id", Types.INTEGER);
+        columns.put("name", Types.VARCHAR);
+        columns.put("price", Types.NUMERIC);
+        return columns;
+    }
+
+    @Test
+    void parse_shouldResolveFieldsCaseInsensitively() {
+        ReadQuery query = ReadQuery.parse("NAME, id", null, null, columns());
+        assertEquals(List.of("name", "id"), query.fields());
+    }
+
+    @Test
+    void parse_shouldCoerceFilterValuesToColumnTypes() {
+        ReadQuery query = ReadQuery.parse(null, List.of("id:gt:10", "price:lte:9.50"), null, columns());
+
+        FilterCondition id = query.filters().get(0);
+        assertEquals(FilterOperator.GT, id.operator());
+        assertEquals(List.of(10), id.values());
+        assertEquals(List.of(new BigDecimal("9.50")), query.filters().get(1).values());
+    }
+
+    @Test
+    void parse_shouldKeepColonsInFilterValues() {
+        ReadQuery query = ReadQuery.parse(null, List.of("name:eq:a:b"), null, columns());
+        assertEquals(List.of("a:b"), query.filters().get(0).values());
+    }
+
+    @Test
+    void parse_shouldSupportInAndUnaryOperators() {
+        ReadQuery query = ReadQuery.parse(null, List.of("id:in:1,2,3", "name:null"), null, columns());
+
+        assertEquals(List.of(1, 2, 3), query.filters().get(0).values());
+        assertTrue(query.filters().get(1).values().isEmpty());
+    }
+
+    @Test
+    void parse_shouldParseSortDirections() {
+        ReadQuery query = ReadQuery.parse(null, null, "-price,name", columns());
+        assertEquals(List.of(new SortOrder("price", true), new SortOrder("name", false)), query.sort());
+    }
+
+    @Test
+    void parse_shouldRejectUnknownColumns() {
+        assertThrows(IllegalArgumentException.class, () -> ReadQuery.parse("password", null, null, columns()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadQuery.parse(null, List.of("id; DROP TABLE x:eq:1"), null, columns()));
+        assertThrows(IllegalArgumentException.class, () -> ReadQuery.parse(null, null, "-secret", columns()));
+    }
+
+    @Test
+    void parse_shouldRejectMalformedFilters() {
+        assertThrows(IllegalArgumentException.class, () -> ReadQuery.parse(null, List.of("id"), null, columns()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadQuery.parse(null, List.of("id:between:1"), null, columns()));
+        assertThrows(IllegalArgumentException.class, () -> ReadQuery.parse(null, List.of("id:eq"), null, columns()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReadQuery.parse(null, List.of("id:eq:abc"), null, columns()));
+    }
+
+    @Test
+    void filterCondition_shouldRenderParameterizedSql() {
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+        new FilterCondition("id", FilterOperator.IN, List.of(1, 2)).appendTo(sql, params);
+
+        assertEquals("id IN (?, ?)", sql.toString());
+        assertEquals(List.of(1, 2), params);
+    }
+}
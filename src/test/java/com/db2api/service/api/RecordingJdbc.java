@@ -0,0 +1,188 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import com.db2api.service.connection.ExternalConnectivityService;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * In-memory JDBC fakes that record the calls made on them, for tests of code
+ * running statements against external databases. Queries return the
+ * configured rows; a batch fails when one of its rows matches the configured
+ * predicate.
+ */
+final class RecordingJdbc {
+
+    /** The calls made so far, e.g. {@code prepare INSERT ...}, {@code addBatch [1, a]} or {@code commit}. */
+    final List<String> calls = new ArrayList<>();
+
+    private String[] labels = {};
+    private List<Object[]> rows = List.of();
+    private Predicate<List<Object>> failingRow = row -> false;
+    private Object unwrapped;
+
+    /**
+     * Sets the result of every query.
+     *
+     * @param labels the column labels
+     * @param rows   the rows, one value per label
+     * @return this
+     */
+    RecordingJdbc returning(String[] labels, List<Object[]> rows) {
+        this.labels = labels;
+        this.rows = rows;
+        return this;
+    }
+
+    /**
+     * Makes batches fail when they contain a matching row.
+     *
+     * @param failingRow the predicate on the bound parameters of a row
+     * @return this
+     */
+    RecordingJdbc failingOn(Predicate<List<Object>> failingRow) {
+        this.failingRow = failingRow;
+        return this;
+    }
+
+    /**
+     * Sets the driver object connections unwrap to, e.g. a {@code PGConnection}.
+     *
+     * @param unwrapped the driver object
+     * @return this
+     */
+    RecordingJdbc unwrappingTo(Object unwrapped) {
+        this.unwrapped = unwrapped;
+        return this;
+    }
+
+    /**
+     * @return the calls starting with the given prefix
+     */
+    List<String> calls(String prefix) {
+        return calls.stream().filter(call -> call.startsWith(prefix)).toList();
+    }
+
+    /**
+     * @return a connectivity service handing out this fake as every connection's data source
+     */
+    ExternalConnectivityService connectivity() {
+        DataSource dataSource = proxy(DataSource.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getConnection" -> connection();
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+        return new ExternalConnectivityService(null) {
+            @Override
+            public DataSource getDataSource(DbConnection connection) {
+                return dataSource;
+            }
+        };
+    }
+
+    /**
+     * @return a new fake connection
+     */
+    Connection connection() {
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> {
+                calls.add("prepare " + args[0]);
+                yield statement();
+            }
+            case "setAutoCommit" -> {
+                calls.add("autoCommit " + args[0]);
+                yield null;
+            }
+            case "commit", "rollback", "close" -> {
+                calls.add(method.getName());
+                yield null;
+            }
+            case "unwrap" -> ((Class<?>) args[0]).cast(unwrapped);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private PreparedStatement statement() {
+        List<Object> params = new ArrayList<>();
+        List<List<Object>> batch = new ArrayList<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> switch (method.getName()) {
+            case "setObject", "setString" -> {
+                int index = (Integer) args[0];
+                while (params.size() < index) {
+                    params.add(null);
+                }
+                params.set(index - 1, args[1]);
+                yield null;
+            }
+            case "setFetchSize" -> {
+                calls.add("fetchSize " + args[0]);
+                yield null;
+            }
+            case "addBatch" -> {
+                calls.add("addBatch " + params);
+                batch.add(new ArrayList<>(params));
+                params.clear();
+                yield null;
+            }
+            case "executeBatch" -> {
+                calls.add("executeBatch " + batch.size());
+                boolean failed = batch.stream().anyMatch(failingRow);
+                int[] counts = new int[batch.size()];
+                Arrays.fill(counts, 1);
+                batch.clear();
+                if (failed) {
+                    throw new BatchUpdateException("Rejected row", counts);
+                }
+                yield counts;
+            }
+            case "executeUpdate" -> {
+                calls.add("executeUpdate " + params);
+                yield 1;
+            }
+            case "executeQuery" -> {
+                calls.add("executeQuery " + params);
+                yield resultSet();
+            }
+            case "close" -> {
+                calls.add("close statement");
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private ResultSet resultSet() {
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class,
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        int[] row = { -1 };
+        return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+            case "next" -> ++row[0] < rows.size();
+            case "getMetaData" -> metaData;
+            case "getObject" -> rows.get(row[0])[(Integer) args[0] - 1];
+            case "close" -> {
+                calls.add("close resultSet");
+                yield null;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(RecordingJdbc.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
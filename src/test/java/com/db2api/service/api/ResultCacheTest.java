@@ -0,0 +1,126 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.DbConnection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResultCache}.
+ */
+class ResultCacheTest {
+
+    private final ResultCache cache = new ResultCache();
+
+    @Test
+    void get_shouldServeRepeatedReadsFromCache() throws Exception {
+        ApiRoute route = route(1L, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(route, "k", () -> result(loads.incrementAndGet()));
+        CachedResult second = cache.get(route, "k", () -> result(loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals("1", new String(second.body()));
+    }
+
+    @Test
+    void get_shouldAlwaysLoadWhenCachingIsDisabled() throws Exception {
+        ApiRoute route = route(1L, null);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(route, "k", () -> result(loads.incrementAndGet()));
+        cache.get(route, "k", () -> result(loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldCoalesceConcurrentMisses() throws Exception {
+        ApiRoute route = route(1L, 60);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CachedResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.get(route, "k", () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return result(1);
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<CachedResult> future : futures) {
+                assertEquals("1", new String(future.get(5, TimeUnit.SECONDS).body()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_shouldDropResultsOfEveryApiOnTheTable() throws Exception {
+        ApiRoute rest = route(1L, 60);
+        ApiRoute other = route(2L, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(rest, "k", () -> result(loads.incrementAndGet()));
+        cache.get(other, "k", () -> result(loads.incrementAndGet()));
+        cache.invalidate(10L, "ORDERS");
+        cache.get(rest, "k", () -> result(loads.incrementAndGet()));
+        cache.get(other, "k", () -> result(loads.incrementAndGet()));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_shouldNotCacheFailures() throws Exception {
+        ApiRoute route = route(1L, 60);
+
+        assertThrows(IllegalStateException.class, () -> cache.get(route, "k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("2", new String(cache.get(route, "k", () -> result(2)).body()));
+    }
+
+    @Test
+    void get_shouldNotKeepEntriesWhoseLoaderFailedWithAnError() throws Exception {
+        ApiRoute route = route(1L, 60);
+
+        assertThrows(StackOverflowError.class, () -> cache.get(route, "k", () -> {
+            throw new StackOverflowError();
+        }));
+        // Would block forever on the abandoned future if the entry were kept
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<CachedResult> next = executor.submit(() -> cache.get(route, "k", () -> result(2)));
+            assertEquals("2", new String(next.get(5, TimeUnit.SECONDS).body()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ApiRoute route(Long id, Integer ttlSeconds) {
+        DbConnection connection = new DbConnection();
+        connection.setId(10L);
+        return new ApiRoute(id, "orders", "orders", "REST", Set.of("GET"), null, null, ttlSeconds, 100,
+                connection);
+    }
+
+    private static CachedResult result(int value) {
+        return CachedResult.of(String.valueOf(value).getBytes(), null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ResultSetPage}.
+ */
+class ResultSetPageTest {
+
+    /** A forward-only result set over the given rows, with columns name and id. */
+    private static ResultSet resultSet(List<Object[]> rows) {
+        String[] labels = { "name", "id" };
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(
+                ResultSetPageTest.class.getClassLoader(), new Class<?>[] { ResultSetMetaData.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        int[] row = { -1 };
+        return (ResultSet) Proxy.newProxyInstance(ResultSetPageTest.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++row[0] < rows.size();
+                    case "getMetaData" -> metaData;
+                    case "getObject" -> args[0] instanceof Integer index
+                            ? rows.get(row[0])[index - 1]
+                            : rows.get(row[0])[Map.of("name", 0, "id", 1).get((String) args[0])];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    void of_shouldEndThePageAndStayOnItsLastRow() throws Exception {
+        ResultSet rs = resultSet(List.of(new Object[] { "a", 1 }, new Object[] { "b", 2 }, new Object[] { "c", 3 }));
+        ResultSet page = ResultSetPage.of(rs, 2, 2);
+
+        assertTrue(page.next());
+        assertTrue(page.next());
+        assertFalse(page.next());
+        assertFalse(page.next());
+
+        assertEquals(2, rs.getObject("id"));
+        assertTrue(rs.next());
+        assertEquals("c", rs.getObject(1));
+    }
+
+    @Test
+    void of_shouldHideTrailingColumnsFromEncoders() throws Exception {
+        ResultSet rs = resultSet(List.of(new Object[] { "a", 1 }, new Object[] { "b", 2 }));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = new CsvRowEncoder().encode(ResultSetPage.of(rs, 5, 1), null, out, 100);
+
+        assertEquals(2, rows);
+        assertEquals("name\na\nb\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
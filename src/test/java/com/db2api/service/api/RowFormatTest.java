@@ -0,0 +1,36 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link RowFormat} content negotiation.
+ */
+class RowFormatTest {
+
+    @Test
+    void negotiate_shouldDefaultToJson() {
+        assertEquals(RowFormat.JSON, RowFormat.negotiate(null));
+        assertEquals(RowFormat.JSON, RowFormat.negotiate("*/*"));
+        assertEquals(RowFormat.JSON, RowFormat.negotiate("text/html"));
+        assertEquals(RowFormat.JSON, RowFormat.negotiate("not a media type;;"));
+    }
+
+    @Test
+    void negotiate_shouldSelectSupportedTypes() {
+        assertEquals(RowFormat.CSV, RowFormat.negotiate("text/csv"));
+        assertEquals(RowFormat.NDJSON, RowFormat.negotiate("application/x-ndjson"));
+        assertEquals(RowFormat.MSGPACK, RowFormat.negotiate("application/msgpack"));
+        assertEquals(RowFormat.MSGPACK, RowFormat.negotiate("application/x-msgpack"));
+        assertEquals(RowFormat.ARROW, RowFormat.negotiate("application/vnd.apache.arrow.stream"));
+    }
+
+    @Test
+    void negotiate_shouldHonorQualityAndOrder() {
+        assertEquals(RowFormat.CSV, RowFormat.negotiate("application/json;q=0.5, text/csv"));
+        assertEquals(RowFormat.JSON, RowFormat.negotiate("text/csv;q=0.5, */*"));
+        assertEquals(RowFormat.CSV, RowFormat.negotiate("text/csv, application/json"));
+        assertEquals(RowFormat.JSON, RowFormat.negotiate("text/csv;q=0, application/json"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.db2api.service.api;
+
+import com.db2api.persistent.connection.SchemaSnapshot;
+import com.db2api.repository.connection.SchemaSnapshotRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SchemaSnapshotStore}.
+ */
+class SchemaSnapshotStoreTest {
+
+    private static final TableSchema ORDERS = TableSchema.of("orders", List.of(
+            new ColumnInfo("id", Types.INTEGER, "int4", false),
+            new ColumnInfo("customer_id", Types.INTEGER, "int4", true)),
+            List.of("id"), List.of(new ForeignKey("fk_customer", List.of("customer_id"), "customers", List.of("id"))));
+
+    private final Map<Long, SchemaSnapshot> rows = new HashMap<>();
+    private int writes;
+
+    /** An in-memory repository supporting the operations the store uses. */
+    private final SchemaSnapshotRepository repository = (SchemaSnapshotRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { SchemaSnapshotRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findById" -> Optional.ofNullable(rows.get((Long) args[0]));
+                case "save" -> {
+                    SchemaSnapshot snapshot = (SchemaSnapshot) args[0];
+                    rows.put(snapshot.getConnectionId(), snapshot);
+                    writes++;
+                    yield snapshot;
+                }
+                case "deleteById" -> rows.remove((Long) args[0]);
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private final SchemaSnapshotStore store = new SchemaSnapshotStore(repository, new ObjectMapper(), true);
+
+    private static CatalogSnapshot catalog(TableSchema... tables) {
+        return new CatalogSnapshot(7L, 1, Instant.parse("2024-01-01T00:00:00Z"), List.of(tables));
+    }
+
+    @Test
+    void save_shouldWriteOnlyChangedCatalogs() {
+        assertTrue(store.save(catalog(ORDERS)));
+        assertFalse(store.save(catalog(ORDERS)));
+        assertEquals(1, writes);
+
+        assertTrue(store.save(catalog()));
+        assertEquals(2, writes);
+    }
+
+    @Test
+    void load_shouldRestoreStoredTables() {
+        store.save(catalog(ORDERS));
+
+        SchemaSnapshotStore restarted = new SchemaSnapshotStore(repository, new ObjectMapper(), true);
+        CatalogSnapshot loaded = restarted.load(7L, 42);
+
+        assertEquals(42, loaded.getVersion());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), loaded.getDiscoveredAt());
+        assertEquals(ORDERS, loaded.getTable("ORDERS"));
+        // The loaded catalog counts as stored, so an unchanged revalidation writes nothing
+        assertFalse(restarted.save(catalog(ORDERS)));
+    }
+
+    @Test
+    void load_shouldIgnoreMissingAndOutdatedSnapshots() {
+        assertNull(store.load(7L, 1));
+
+        store.save(catalog(ORDERS));
+        rows.get(7L).setFormatVersion(SchemaSnapshotStore.FORMAT_VERSION + 1);
+        assertNull(store.load(7L, 1));
+
+        store.delete(7L);
+        assertTrue(rows.isEmpty());
+    }
+}
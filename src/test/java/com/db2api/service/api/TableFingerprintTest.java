@@ -0,0 +1,41 @@
+package com.db2api.service.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the entity tags of {@link TableFingerprint} and {@link CachedResult}.
+ */
+class TableFingerprintTest {
+
+    @Test
+    void etag_shouldBeWeakAndStable() {
+        TableFingerprint fingerprint = new TableFingerprint("s:1:2:3:0", null);
+
+        String etag = fingerprint.etag("1|null|null|page");
+
+        assertTrue(etag.matches("^W/\"[0-9a-f]{32}\"$"));
+        assertEquals(etag, new TableFingerprint("s:1:2:3:0", null).etag("1|null|null|page"));
+    }
+
+    @Test
+    void etag_shouldChangeWithTableStateAndRequest() {
+        TableFingerprint before = new TableFingerprint("s:1:2:3:0", null);
+        TableFingerprint after = new TableFingerprint("s:1:3:3:0", null);
+
+        assertNotEquals(before.etag("a"), after.etag("a"));
+        assertNotEquals(before.etag("a"), before.etag("b"));
+    }
+
+    @Test
+    void cachedResultEtag_shouldDependOnContent() {
+        CachedResult a = CachedResult.of("[1]".getBytes(), null);
+        CachedResult b = CachedResult.of("[1]".getBytes(), null);
+        CachedResult c = CachedResult.of("[1]".getBytes(), "next");
+
+        assertEquals(a.etag(), b.etag());
+        assertNotEquals(a.etag(), c.etag());
+        assertTrue(a.etag().matches("^\"[0-9a-f]{32}\"$"));
+    }
+}
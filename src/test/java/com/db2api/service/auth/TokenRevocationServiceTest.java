@@ -0,0 +1,135 @@
+package com.db2api.service.auth;
+
+import com.db2api.persistent.auth.RevokedToken;
+import com.db2api.repository.auth.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link TokenRevocationService} and its {@link BloomFilter}.
+ */
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    private final Map<String, RevokedToken> rows = new HashMap<>();
+
+    /** An in-memory repository supporting the operations the service uses. */
+    private final RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[] { RevokedTokenRepository.class },
+            (proxy, method, args) -> switch (method.getName()) {
+                case "save" -> {
+                    RevokedToken token = (RevokedToken) args[0];
+                    rows.put(token.getJti(), token);
+                    yield token;
+                }
+                case "findByExpiresAtAfter" -> rows.values().stream()
+                        .filter(token -> token.getExpiresAt().isAfter((Instant) args[0])).toList();
+                case "findByRevokedAtAfter" -> rows.values().stream()
+                        .filter(token -> token.getRevokedAt().isAfter((Instant) args[0])).toList();
+                case "deleteByExpiresAtBefore" -> {
+                    int before = rows.size();
+                    rows.values().removeIf(token -> token.getExpiresAt().isBefore((Instant) args[0]));
+                    yield (long) (before - rows.size());
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    private void insert(String jti, Instant revokedAt, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setJti(jti);
+        token.setRevokedAt(revokedAt);
+        token.setExpiresAt(expiresAt);
+        rows.put(jti, token);
+    }
+
+    @Test
+    void load_shouldKeepOnlyUnexpiredRevocations() {
+        insert("live", NOW.minusSeconds(60), NOW.plusSeconds(600));
+        insert("expired", NOW.minusSeconds(7200), NOW.minusSeconds(60));
+
+        TokenRevocationService service = new TokenRevocationService(repository, 100);
+        service.load(NOW);
+
+        assertTrue(service.isRevoked("live"));
+        assertFalse(service.isRevoked("expired"));
+        assertFalse(service.isRevoked("unknown"));
+    }
+
+    @Test
+    void revoke_shouldPersistAndTakeEffectImmediately() {
+        TokenRevocationService service = new TokenRevocationService(repository, 100);
+        service.load(NOW);
+
+        service.revoke("jti-1", Instant.now().plusSeconds(600));
+
+        assertTrue(service.isRevoked("jti-1"));
+        assertTrue(rows.containsKey("jti-1"));
+    }
+
+    @Test
+    void revoke_shouldGrowFilterBeyondExpectedRevocations() {
+        TokenRevocationService service = new TokenRevocationService(repository, 16);
+        service.load(NOW);
+
+        for (int i = 0; i < 1000; i++) {
+            service.revoke("jti-" + i, Instant.now().plusSeconds(600));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(service.isRevoked("jti-" + i));
+        }
+        assertFalse(service.isRevoked("jti-1000"));
+    }
+
+    @Test
+    void sync_shouldPickUpRevocationsOfOtherInstances() {
+        TokenRevocationService service = new TokenRevocationService(repository, 100);
+        service.load(NOW);
+
+        insert("elsewhere", NOW.plusSeconds(5), NOW.plusSeconds(600));
+        assertFalse(service.isRevoked("elsewhere"));
+
+        service.sync(NOW.plusSeconds(10));
+        assertTrue(service.isRevoked("elsewhere"));
+    }
+
+    @Test
+    void prune_shouldForgetExpiredRevocations() {
+        insert("short", NOW.minusSeconds(60), NOW.plusSeconds(60));
+        insert("long", NOW.minusSeconds(60), NOW.plusSeconds(3600));
+        TokenRevocationService service = new TokenRevocationService(repository, 100);
+        service.load(NOW);
+
+        service.prune(NOW.plusSeconds(120));
+
+        assertFalse(service.isRevoked("short"));
+        assertTrue(service.isRevoked("long"));
+        assertEquals(1, service.size());
+        assertEquals(List.of("long"), List.copyOf(rows.keySet()));
+    }
+
+    @Test
+    void bloomFilter_shouldHaveNoFalseNegativesAndFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("member-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("member-" + i));
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,105 @@
+package com.db2api.service.connection;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConnectionBulkhead}.
+ */
+class ConnectionBulkheadTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void acquire_shouldRejectWhenLimitAndQueueAreFull() throws Exception {
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead("orders", 2, 0, 10, 3);
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        ConnectionOverloadedException e = assertThrows(ConnectionOverloadedException.class, bulkhead::acquire);
+        assertEquals(3, e.getRetryAfterSeconds());
+    }
+
+    @Test
+    void acquire_shouldWaitInQueueUntilASlotIsReleased() throws Exception {
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead("orders", 1, 1, 5000, 1);
+        bulkhead.acquire();
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                bulkhead.acquire();
+            } catch (ConnectionOverloadedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(waiting.isDone());
+
+        bulkhead.release(MILLIS);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void acquire_shouldGiveUpAfterQueueTimeout() throws Exception {
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead("orders", 1, 1, 20, 1);
+        bulkhead.acquire();
+
+        assertThrows(ConnectionOverloadedException.class, bulkhead::acquire);
+    }
+
+    @Test
+    void release_shouldShrinkLimitWhenLatencyRisesAndRecoverAfterwards() throws Exception {
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead("orders", 10, 0, 10, 1);
+        runAtFullLoad(bulkhead, 50, MILLIS);
+        assertEquals(10, bulkhead.getLimit());
+
+        runAtFullLoad(bulkhead, 3, 20 * MILLIS);
+        assertTrue(bulkhead.getLimit() < 10, "limit " + bulkhead.getLimit());
+
+        runAtFullLoad(bulkhead, 200, MILLIS);
+        assertEquals(10, bulkhead.getLimit());
+    }
+
+    @Test
+    void guard_shouldHoldSlotUntilConnectionIsClosed() throws Exception {
+        AtomicInteger closes = new AtomicInteger();
+        Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        closes.incrementAndGet();
+                    }
+                    return null;
+                });
+        DataSource pool = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> connection);
+        DataSource guarded = new ConnectionBulkhead("orders", 1, 0, 10, 1).guard(pool);
+
+        Connection held = guarded.getConnection();
+        assertThrows(ConnectionOverloadedException.class, guarded::getConnection);
+
+        held.close();
+        held.close();
+        assertEquals(1, closes.get());
+        guarded.getConnection().close();
+    }
+
+    /** Takes every slot the limit allows and releases them with the given latency, repeatedly. */
+    private static void runAtFullLoad(ConnectionBulkhead bulkhead, int rounds, long latency) throws Exception {
+        for (int round = 0; round < rounds; round++) {
+            int holders = bulkhead.getLimit();
+            for (int i = 0; i < holders; i++) {
+                bulkhead.acquire();
+            }
+            for (int i = 0; i < holders; i++) {
+                bulkhead.release(latency);
+            }
+        }
+    }
+}
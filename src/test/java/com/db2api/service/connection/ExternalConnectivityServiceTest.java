@@ -0,0 +1,92 @@
+package com.db2api.service.connection;
+
+import com.db2api.persistent.connection.DbConnection;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ExternalConnectivityService}.
+ */
+class ExternalConnectivityServiceTest {
+
+    private final List<HikariDataSource> created = new CopyOnWriteArrayList<>();
+
+    /** Hands out pools that are never started, so no database is needed. */
+    private final ExternalConnectivityService service = new ExternalConnectivityService(null) {
+        @Override
+        HikariDataSource createDataSource(DbConnection connection) {
+            HikariDataSource pool = new HikariDataSource();
+            created.add(pool);
+            return pool;
+        }
+    };
+
+    private static DbConnection connection() {
+        DbConnection connection = new DbConnection();
+        connection.setId(7L);
+        connection.setName("orders");
+        return connection;
+    }
+
+    @Test
+    void getDataSource_shouldNeverKeepAClosedPoolAfterConcurrentInvalidation() throws Exception {
+        ReflectionTestUtils.setField(service, "bulkheadEnabled", true);
+        ReflectionTestUtils.setField(service, "maximumPoolSize", 5);
+        DbConnection connection = connection();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<CompletableFuture<Void>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(CompletableFuture.runAsync(() -> {
+                    while (running.get()) {
+                        service.getDataSource(connection);
+                    }
+                }, executor));
+            }
+            CompletableFuture<Void> invalidator = CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    service.invalidateRuntime(connection.getId());
+                }
+            }, executor);
+
+            invalidator.join();
+            running.set(false);
+            CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        HikariDataSource pool = service.getDataSource(connection).unwrap(HikariDataSource.class);
+        assertFalse(pool.isClosed());
+        // Every other pool was closed when it was invalidated
+        assertEquals(created.size() - 1, created.stream().filter(HikariDataSource::isClosed).count());
+    }
+
+    @Test
+    void invalidateRuntime_shouldCloseThePoolBehindTheGuard() throws Exception {
+        ReflectionTestUtils.setField(service, "bulkheadEnabled", true);
+        ReflectionTestUtils.setField(service, "maximumPoolSize", 5);
+        DbConnection connection = connection();
+
+        HikariDataSource first = service.getDataSource(connection).unwrap(HikariDataSource.class);
+        assertSame(first, service.getDataSource(connection).unwrap(HikariDataSource.class));
+
+        service.invalidateRuntime(connection.getId());
+
+        assertTrue(first.isClosed());
+        assertNotSame(first, service.getDataSource(connection).unwrap(HikariDataSource.class));
+    }
+}